@@ -0,0 +1,46 @@
+package io.nsingla.selenium.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Runs the benchmarks and writes the results as JSON to {@code results/jmh-<framework version>.json}, so that the
+ * files of two releases can be compared (e.g. with https://jmh.morethan.io).
+ * Accepts the usual JMH command line options, which take precedence.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+        }
+        if (!commandLine.getResultFormat().hasValue() && !commandLine.getResult().hasValue()) {
+            File results = new File("results", "jmh-" + frameworkVersion() + ".json");
+            results.getParentFile().mkdirs();
+            options.resultFormat(ResultFormatType.JSON).result(results.getPath());
+        }
+        new Runner(options.build()).run();
+    }
+
+    public static String frameworkVersion() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream stream = BenchmarkRunner.class.getResourceAsStream("/benchmarks.properties")) {
+            if (stream != null) {
+                properties.load(stream);
+            }
+        }
+        return properties.getProperty("framework.version", "unknown");
+    }
+}
@@ -0,0 +1,84 @@
+package io.nsingla.selenium.benchmarks;
+
+import io.nsingla.selenium.actions.BooleanChecks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BooleanChecks} operations over lists of elements, on a table of {@code rows} rows.
+ * The searched value is on the last row, so every element is visited.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BooleanChecksBenchmark {
+
+    private static final By ROWS = By.cssSelector("#table tr");
+
+    @Param({"10", "100", "1000"})
+    public int rows;
+
+    private FixtureServer server;
+    private WebDriver driver;
+    private BooleanChecks checks;
+    private List<WebElement> elements;
+    private String lastRowClass;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new FixtureServer();
+        driver = new HtmlUnitDriver(true);
+        driver.get(server.url("/table?rows=" + rows));
+        checks = new BooleanChecks(driver);
+        elements = driver.findElements(ROWS);
+        lastRowClass = "row-" + (rows - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        driver.quit();
+        server.close();
+    }
+
+    @Benchmark
+    public boolean doesAnElementHaveClass() {
+        return checks.doesAnElementHaveClass(elements, lastRowClass);
+    }
+
+    @Benchmark
+    public boolean doesAnElementHaveAttributeValue() {
+        return checks.doesAnElementHaveAttributeValue(elements, "data-index", String.valueOf(rows - 1));
+    }
+
+    @Benchmark
+    public boolean doesElementExistLocated() {
+        return checks.doesElementExist(ROWS);
+    }
+
+    @Benchmark
+    public boolean doesElementExistList() {
+        return checks.doesElementExist(elements);
+    }
+}
@@ -0,0 +1,64 @@
+package io.nsingla.selenium.benchmarks;
+
+import io.nsingla.selenium.logger.ConsoleLogHandler;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Per command cost of the {@link ConsoleLogHandler} listener, which reads and filters the browser console before and
+ * after every command. The console is served from memory, with {@code consoleEntries} entries below the failing level.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConsoleLogHandlerBenchmark {
+
+    @Param({"0", "50", "500"})
+    public int consoleEntries;
+
+    private WebDriver plain;
+    private WebDriver noopListener;
+    private WebDriver consoleListener;
+
+    @Setup
+    public void setUp() {
+        plain = StubDriver.create(consoleEntries);
+        noopListener = new EventFiringDecorator(new WebDriverListener() {
+        }).decorate(plain);
+        consoleListener = new EventFiringDecorator(new ConsoleLogHandler(Level.SEVERE)).decorate(plain);
+    }
+
+    @Benchmark
+    public String undecorated() {
+        return plain.getTitle();
+    }
+
+    @Benchmark
+    public String noopListener() {
+        return noopListener.getTitle();
+    }
+
+    @Benchmark
+    public String consoleLogHandler() {
+        return consoleListener.getTitle();
+    }
+}
@@ -0,0 +1,81 @@
+package io.nsingla.selenium.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proxy cost of {@link EventFiringDecorator}, for the number of nested decorators the framework may add
+ * (timing, tracing, console log), against the in-memory stub and HtmlUnitDriver.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecoratorBenchmark {
+
+    private static final By HEADER = By.id("header");
+
+    @Param({"stub", "htmlunit"})
+    public String target;
+
+    @Param({"0", "1", "3"})
+    public int decorators;
+
+    private FixtureServer server;
+    private WebDriver original;
+    private WebDriver driver;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (target.equals("htmlunit")) {
+            server = new FixtureServer();
+            original = new HtmlUnitDriver(true);
+            original.get(server.url("/index.html"));
+        } else {
+            original = StubDriver.create(0);
+        }
+        driver = original;
+        for (int i = 0; i < decorators; i++) {
+            driver = new EventFiringDecorator(new WebDriverListener() {
+            }).decorate(driver);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (server != null) {
+            original.quit();
+            server.close();
+        }
+    }
+
+    @Benchmark
+    public String getTitle() {
+        return driver.getTitle();
+    }
+
+    @Benchmark
+    public String findElementGetText() {
+        return driver.findElement(HEADER).getText();
+    }
+}
@@ -0,0 +1,62 @@
+package io.nsingla.selenium.benchmarks;
+
+import io.nsingla.selenium.DriverFactory;
+import io.nsingla.selenium.enums.TestMode;
+
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import org.openqa.selenium.remote.Browser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the driver options in {@link DriverFactory}, without starting a session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DriverOptionsBenchmark {
+
+    @Param({"chrome", "firefox", "MicrosoftEdge", "safari"})
+    public String browser;
+
+    private DriverFactory.DriverFactoryBuilder builder;
+
+    @Setup
+    public void setUp() {
+        builder = new DriverFactory.DriverFactoryBuilder()
+            .setBrowser(browser(browser))
+            .setTestMode(TestMode.LOCAL)
+            .setHeadless(true)
+            .setLocale("en-US")
+            .setDownloadPath(System.getProperty("java.io.tmpdir") + File.separator + "downloads");
+    }
+
+    @Benchmark
+    public AbstractDriverOptions buildOptions() {
+        return builder.buildOptions();
+    }
+
+    private static Browser browser(String name) {
+        for (Browser candidate : new Browser[]{Browser.CHROME, Browser.FIREFOX, Browser.EDGE, Browser.SAFARI}) {
+            if (candidate.is(name)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unknown browser: " + name);
+    }
+}
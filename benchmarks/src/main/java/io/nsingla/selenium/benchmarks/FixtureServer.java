@@ -0,0 +1,127 @@
+package io.nsingla.selenium.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP server with the pages the benchmarks run against.
+ * Serves the files under {@code /fixture} of the classpath, generates {@code /table?rows=N} and answers
+ * {@code /api/delayed?ms=N&items=N} with a JSON list after the given delay.
+ */
+public class FixtureServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public FixtureServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(16, runnable -> {
+            Thread thread = new Thread(runnable, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/table", this::table);
+        server.createContext("/api/delayed", this::delayed);
+        server.createContext("/", this::resource);
+        server.start();
+    }
+
+    /**
+     * @param path Path of the page, starting with a slash
+     * @return The absolute url of the page
+     */
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void resource(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/")) {
+            path = "/index.html";
+        }
+        try (InputStream stream = FixtureServer.class.getResourceAsStream("/fixture" + path)) {
+            if (stream == null || path.contains("..")) {
+                send(exchange, 404, "text/plain", "Not found: " + path);
+            } else {
+                send(exchange, 200, contentType(path), new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private void table(HttpExchange exchange) throws IOException {
+        int rows = intParameter(exchange.getRequestURI(), "rows", 100);
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>Table</title></head><body><table id=\"table\">");
+        for (int i = 0; i < rows; i++) {
+            html.append("<tr class=\"row row-").append(i).append("\" data-index=\"").append(i).append("\">")
+                .append("<td>").append(i).append("</td><td>Row ").append(i).append("</td></tr>");
+        }
+        html.append("</table></body></html>");
+        send(exchange, 200, "text/html", html.toString());
+    }
+
+    private void delayed(HttpExchange exchange) throws IOException {
+        int delay = intParameter(exchange.getRequestURI(), "ms", 300);
+        int items = intParameter(exchange.getRequestURI(), "items", 5);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < items; i++) {
+            json.append(i == 0 ? "" : ",").append("\"Item ").append(i).append('"');
+        }
+        json.append("]}");
+        send(exchange, 200, "application/json", json.toString());
+    }
+
+    static int intParameter(URI uri, String name, int defaultValue) {
+        String query = uri.getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                String[] parts = pair.split("=", 2);
+                if (parts.length == 2 && parts[0].equals(name)) {
+                    return Integer.parseInt(parts[1]);
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".js")) {
+            return "application/javascript";
+        } else if (path.endsWith(".css")) {
+            return "text/css";
+        } else if (path.endsWith(".json")) {
+            return "application/json";
+        }
+        return "text/html";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
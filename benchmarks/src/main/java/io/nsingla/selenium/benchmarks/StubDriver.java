@@ -0,0 +1,83 @@
+package io.nsingla.selenium.benchmarks;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.Logs;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * A WebDriver that answers from memory, so that benchmarks measure the framework and not the browser.
+ * {@code findElement} returns a single element and {@code manage().logs().get(..)} returns the given number of INFO entries, which HtmlUnitDriver does not support.
+ */
+public class StubDriver {
+
+    private StubDriver() {
+    }
+
+    public static WebDriver create(int consoleEntries) {
+        List<LogEntry> entries = new ArrayList<>();
+        for (int i = 0; i < consoleEntries; i++) {
+            entries.add(new LogEntry(Level.INFO, i, "console message " + i + " from http://127.0.0.1/app.js"));
+        }
+        Logs logs = proxy(Logs.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "get":
+                    return new LogEntries(entries);
+                case "getAvailableLogTypes":
+                    return Collections.emptySet();
+                default:
+                    return defaultValue(proxy, method.getName(), args);
+            }
+        });
+        WebElement element = proxy(WebElement.class, (proxy, method, args) ->
+            method.getName().equals("getText") ? "Benchmark fixture" : defaultValue(proxy, method.getName(), args));
+        WebDriver.Options options = proxy(WebDriver.Options.class, (proxy, method, args) ->
+            method.getName().equals("logs") ? logs : defaultValue(proxy, method.getName(), args));
+        return (WebDriver) Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getTitle":
+                        return "Fixture";
+                    case "getCurrentUrl":
+                        return "http://127.0.0.1/";
+                    case "manage":
+                        return options;
+                    case "findElement":
+                        return element;
+                    case "findElements":
+                        return Collections.emptyList();
+                    case "executeScript":
+                        return Boolean.TRUE;
+                    default:
+                        return defaultValue(proxy, method.getName(), args);
+                }
+            });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object defaultValue(Object proxy, String method, Object[] args) {
+        switch (method) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "StubDriver";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.nsingla.selenium.benchmarks;
+
+import io.nsingla.selenium.actions.WaitActions;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link WaitActions#waitWithCondition} compared to a plain {@link WebDriverWait}, for a condition that is
+ * already met. The stub variants leave out the browser, so only the wait machinery is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WaitBenchmark {
+
+    private static final By READY = By.id("ready");
+
+    private FixtureServer server;
+    private WebDriver htmlUnit;
+    private WaitActions htmlUnitWaits;
+    private WebDriver stub;
+    private WaitActions stubWaits;
+    private final ExpectedCondition<Boolean> met = driver -> Boolean.TRUE;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new FixtureServer();
+        htmlUnit = new HtmlUnitDriver(true);
+        htmlUnit.get(server.url("/index.html"));
+        htmlUnitWaits = new WaitActions(htmlUnit);
+        stub = StubDriver.create(0);
+        stubWaits = new WaitActions(stub);
+    }
+
+    @TearDown
+    public void tearDown() {
+        htmlUnit.quit();
+        server.close();
+    }
+
+    @Benchmark
+    public Boolean stubWebDriverWait() {
+        return new WebDriverWait(stub, Duration.ofSeconds(5)).until(met);
+    }
+
+    @Benchmark
+    public Boolean stubWaitWithCondition() {
+        return stubWaits.waitWithCondition(met, 5, "Condition not met");
+    }
+
+    @Benchmark
+    public WebElement htmlUnitWebDriverWait() {
+        return new WebDriverWait(htmlUnit, Duration.ofSeconds(5)).until(ExpectedConditions.presenceOfElementLocated(READY));
+    }
+
+    @Benchmark
+    public WebElement htmlUnitWaitWithCondition() {
+        return htmlUnitWaits.waitWithCondition(ExpectedConditions.presenceOfElementLocated(READY), 5, "Element not present");
+    }
+}
@@ -0,0 +1,16 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+public class AnimationTests extends SuiteTest {
+
+    @Test
+    public void waitForAnimationToFinish() {
+        open("/animation.html");
+        pageActions.click(By.id("start"));
+        waitActions.waitWithCondition(ExpectedConditions.attributeToBe(By.id("box"), "class", "done"), TIMEOUT,
+            "Animation did not finish");
+    }
+}
@@ -0,0 +1,18 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+public class ConsoleNoiseTests extends SuiteTest {
+
+    @Test
+    public void pageWithConsoleNoise() {
+        open("/console.html");
+        waitActions.waitWithCondition(ExpectedConditions.textToBePresentInElementLocated(By.id("status"), "Done"), TIMEOUT, "Text not present");
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals("Console noise", driver.getTitle());
+        }
+    }
+}
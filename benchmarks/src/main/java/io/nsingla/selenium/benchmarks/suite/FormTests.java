@@ -0,0 +1,32 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+public class FormTests extends SuiteTest {
+
+    @Test
+    public void fillAndSubmit() {
+        open("/forms.html");
+        pageActions.typeText(By.id("name"), "Jane Doe");
+        pageActions.typeText(By.id("email"), "jane@example.com");
+        pageActions.typeText(By.id("phone"), "5550100");
+        pageActions.typeText(By.id("comment"), "Benchmark comment");
+        pageActions.selectByText(By.id("country"), "Germany");
+        pageActions.click(By.id("terms"));
+        pageActions.click(By.id("submit"));
+        waitActions.waitWithCondition(ExpectedConditions.textToBePresentInElementLocated(By.id("result"), "Submitted Jane Doe"), TIMEOUT, "Text not present");
+    }
+
+    @Test
+    public void clearAndRetype() {
+        open("/forms.html");
+        for (int i = 0; i < 5; i++) {
+            pageActions.clearTextArea(By.id("comment"));
+            pageActions.typeText(By.id("comment"), "Attempt " + i);
+        }
+        Assertions.assertTrue(booleanChecks.doesElementHaveAttributeValue(By.id("comment"), "value", "Attempt 4"));
+    }
+}
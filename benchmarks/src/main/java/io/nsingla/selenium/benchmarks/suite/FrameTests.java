@@ -0,0 +1,20 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+public class FrameTests extends SuiteTest {
+
+    @Test
+    public void switchBetweenFrames() {
+        open("/iframes.html");
+        for (String frame : new String[]{"first", "second"}) {
+            waitActions.waitForFrame(frame);
+            pageActions.click(By.id("inner-button"));
+            waitActions.waitWithCondition(ExpectedConditions.textToBePresentInElementLocated(By.id("inner"), "Clicked"), TIMEOUT, "Text not present");
+            waitActions.switchToDefaultFrame();
+        }
+        waitActions.waitForElementPresent(By.id("outer"));
+    }
+}
@@ -0,0 +1,25 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import io.nsingla.selenium.session.DriverConfig;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+
+@DriverConfig(locale = "de-DE")
+public class LocaleTests extends SuiteTest {
+
+    @Test
+    public void formInOtherLocale() {
+        open("/forms.html");
+        pageActions.typeText(By.id("name"), "Erika Mustermann");
+        Assertions.assertTrue(booleanChecks.doesElementHaveAttributeValue(By.id("name"), "value", "Erika"));
+    }
+
+    @Test
+    @DriverConfig(locale = "en")
+    public void tableInDefaultLocale() {
+        open("/table?rows=20");
+        Assertions.assertTrue(booleanChecks.doesAnElementHaveClass(By.cssSelector("#table tr"), "row-19"));
+    }
+}
@@ -0,0 +1,176 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import io.nsingla.selenium.benchmarks.BenchmarkRunner;
+import io.nsingla.selenium.benchmarks.FixtureServer;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Runs the synthetic suite against the fixture app once per configuration and run, each in a fresh JVM, and reports
+ * tests/minute, wall time, CPU time and peak RSS of the test JVM (browser processes are not included).
+ * <p>
+ * Arguments: {@code [--runs N] [--repeat N] [--output file] [configuration...]}, where a configuration is the name of
+ * a built-in one or {@code name:key=value,key=value} with the system properties to run the suite with.
+ */
+public class SuiteBenchmark {
+
+    private static final Map<String, Map<String, String>> BUILT_IN = new LinkedHashMap<>();
+
+    static {
+        BUILT_IN.put("baseline", Map.of());
+        BUILT_IN.put("parallel-4", Map.of(SuiteLauncher.PARALLELISM, "4"));
+        BUILT_IN.put("console-severe", Map.of("consoleloglevel", "SEVERE"));
+        BUILT_IN.put("command-timing", Map.of("commandTiming", "true"));
+        BUILT_IN.put("tracing", Map.of("tracing", "true"));
+        BUILT_IN.put("wait-poll-50", Map.of("waitPollMillis", "50"));
+        BUILT_IN.put("wait-poll-500", Map.of("waitPollMillis", "500"));
+        BUILT_IN.put("session-reuse", Map.of(
+            "reuseSession", "true",
+            "junit.jupiter.testclass.order.default", "io.nsingla.selenium.session.DriverConfigClassOrderer",
+            "junit.jupiter.testmethod.order.default", "io.nsingla.selenium.session.DriverConfigMethodOrderer"));
+    }
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+        "browser", "htmlunit",
+        "htmlUnitJavascript", "true",
+        "mode", "LOCAL",
+        "headless", "true",
+        "consoleloglevel", "OFF");
+
+    public static void main(String[] args) throws Exception {
+        int runs = 3;
+        int repeat = 1;
+        File output = new File("results", "suite-" + BenchmarkRunner.frameworkVersion() + ".json");
+        Map<String, Map<String, String>> configurations = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs":
+                    runs = Integer.parseInt(args[++i]);
+                    break;
+                case "--repeat":
+                    repeat = Integer.parseInt(args[++i]);
+                    break;
+                case "--output":
+                    output = new File(args[++i]);
+                    break;
+                default:
+                    configurations.put(name(args[i]), configuration(args[i]));
+            }
+        }
+        if (configurations.isEmpty()) {
+            configurations.putAll(BUILT_IN);
+        }
+        File logs = new File(output.getAbsoluteFile().getParentFile(), "suite-logs");
+        logs.mkdirs();
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        try (FixtureServer fixture = new FixtureServer()) {
+            for (Map.Entry<String, Map<String, String>> configuration : configurations.entrySet()) {
+                Map<String, String> properties = new LinkedHashMap<>(DEFAULTS);
+                properties.putAll(configuration.getValue());
+                properties.put(SuiteTest.FIXTURE_URL, fixture.url(""));
+                properties.put(SuiteLauncher.REPEAT, String.valueOf(repeat));
+                for (int run = 1; run <= runs; run++) {
+                    System.out.printf("Running %s (%d/%d)%n", configuration.getKey(), run, runs);
+                    Properties measured = runSuite(properties, new File(logs, configuration.getKey() + "-" + run + ".log"));
+                    results.add(result(configuration.getKey(), run, configuration.getValue(), measured));
+                }
+            }
+        }
+
+        output.getAbsoluteFile().getParentFile().mkdirs();
+        Files.write(output.toPath(), new Json().toJson(results).getBytes(StandardCharsets.UTF_8));
+        printTable(results);
+        System.out.println("Results are saved to " + output);
+    }
+
+    private static String name(String argument) {
+        int colon = argument.indexOf(':');
+        return colon < 0 ? argument : argument.substring(0, colon);
+    }
+
+    private static Map<String, String> configuration(String argument) {
+        int colon = argument.indexOf(':');
+        if (colon < 0) {
+            Map<String, String> builtIn = BUILT_IN.get(argument);
+            if (builtIn == null) {
+                throw new IllegalArgumentException("Unknown configuration " + argument + ", built-in ones are " + BUILT_IN.keySet());
+            }
+            return builtIn;
+        }
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String pair : argument.substring(colon + 1).split(",")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got " + pair);
+            }
+            properties.put(parts[0].trim(), parts[1].trim());
+        }
+        return properties;
+    }
+
+    private static Properties runSuite(Map<String, String> properties, File log) throws IOException, InterruptedException {
+        Path result = Files.createTempFile("suite-result", ".properties");
+        List<String> command = new ArrayList<>(Arrays.asList(javaExecutable(), "-cp", System.getProperty("java.class.path")));
+        properties.forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add(SuiteLauncher.class.getName());
+        command.add(result.toString());
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        int exitCode = process.waitFor();
+        Properties measured = new Properties();
+        try (InputStream stream = Files.newInputStream(result)) {
+            measured.load(stream);
+        } finally {
+            Files.deleteIfExists(result);
+        }
+        if (exitCode != 0 || measured.isEmpty()) {
+            throw new IllegalStateException("Suite run failed with exit code " + exitCode + ", see " + log);
+        }
+        return measured;
+    }
+
+    private static String javaExecutable() {
+        return System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    }
+
+    private static Map<String, Object> result(String name, int run, Map<String, String> configuration, Properties measured) {
+        long tests = Long.parseLong(measured.getProperty("tests"));
+        long wallMillis = Long.parseLong(measured.getProperty("wallMillis"));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("configuration", name);
+        result.put("properties", configuration);
+        result.put("run", run);
+        result.put("tests", tests);
+        result.put("failed", Long.parseLong(measured.getProperty("failed")));
+        result.put("testsPerMinute", wallMillis == 0 ? 0 : tests * 60_000.0 / wallMillis);
+        result.put("wallMillis", wallMillis);
+        result.put("cpuMillis", Long.parseLong(measured.getProperty("cpuMillis")));
+        result.put("peakRssKb", Long.parseLong(measured.getProperty("peakRssKb")));
+        return result;
+    }
+
+    private static void printTable(List<Map<String, Object>> results) {
+        System.out.println();
+        System.out.println("| Configuration | Run | Tests | Failed | Tests/min | Wall ms | CPU ms | Peak RSS MB |");
+        System.out.println("|---|---|---|---|---|---|---|---|");
+        for (Map<String, Object> result : results) {
+            System.out.printf("| %s | %s | %s | %s | %.1f | %s | %s | %.1f |%n", result.get("configuration"), result.get("run"),
+                result.get("tests"), result.get("failed"), (Double) result.get("testsPerMinute"), result.get("wallMillis"),
+                result.get("cpuMillis"), (Long) result.get("peakRssKb") / 1024.0);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+
+import com.sun.management.OperatingSystemMXBean;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Runs the synthetic suite in the current JVM and writes the measurements as properties to the file given as first
+ * argument. Started by {@link SuiteBenchmark} in a fresh JVM per configuration, since the framework reads its
+ * configuration from system properties once.
+ */
+public class SuiteLauncher {
+
+    public static final String PARALLELISM = "parallelism";
+    public static final String REPEAT = "repeat";
+
+    public static void main(String[] args) throws IOException {
+        int parallelism = Integer.getInteger(PARALLELISM, 1);
+        int repeat = Integer.getInteger(REPEAT, 1);
+        LauncherDiscoveryRequestBuilder builder = LauncherDiscoveryRequestBuilder.request()
+            .selectors(selectPackage(SuiteLauncher.class.getPackage().getName()));
+        if (parallelism > 1) {
+            builder.configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+                .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+                .configurationParameter("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+                .configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+                .configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", String.valueOf(parallelism));
+        }
+        LauncherDiscoveryRequest request = builder.build();
+        Launcher launcher = LauncherFactory.create();
+
+        long tests = 0;
+        long failed = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < repeat; i++) {
+            SummaryGeneratingListener listener = new SummaryGeneratingListener();
+            launcher.execute(request, listener);
+            TestExecutionSummary summary = listener.getSummary();
+            tests += summary.getTestsStartedCount();
+            failed += summary.getTestsFailedCount() + summary.getTestsAbortedCount();
+            for (TestExecutionSummary.Failure failure : summary.getFailures()) {
+                System.err.println("FAILED " + failure.getTestIdentifier().getDisplayName() + ": " + failure.getException());
+            }
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        Properties result = new Properties();
+        result.setProperty("tests", String.valueOf(tests));
+        result.setProperty("failed", String.valueOf(failed));
+        result.setProperty("wallMillis", String.valueOf(wallNanos / 1_000_000));
+        result.setProperty("cpuMillis", String.valueOf(processCpuNanos() / 1_000_000));
+        result.setProperty("peakRssKb", String.valueOf(peakRssKb()));
+        try (OutputStream out = Files.newOutputStream(Paths.get(args[0]))) {
+            result.store(out, "Synthetic suite run");
+        }
+        System.exit(0);
+    }
+
+    private static long processCpuNanos() {
+        java.lang.management.OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        return bean instanceof OperatingSystemMXBean ? ((OperatingSystemMXBean) bean).getProcessCpuTime() : -1;
+    }
+
+    /**
+     * @return The peak resident set size of this JVM from /proc (linux only), -1 elsewhere
+     */
+    private static long peakRssKb() throws IOException {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        List<String> lines = Files.readAllLines(status);
+        for (String line : lines) {
+            if (line.startsWith("VmHWM:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,37 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import io.nsingla.selenium.SeleniumBase;
+import io.nsingla.selenium.actions.BooleanChecks;
+import io.nsingla.selenium.actions.PageActions;
+import io.nsingla.selenium.actions.WaitActions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Base of the synthetic suite, run against the fixture app whose url is passed as {@code -DfixtureUrl}.
+ */
+public abstract class SuiteTest extends SeleniumBase {
+
+    public static final String FIXTURE_URL = "fixtureUrl";
+    // waitWithCondition splits the timeout in 12 polling rounds of whole seconds
+    protected static final int TIMEOUT = 24;
+
+    protected WebDriver driver;
+    protected PageActions pageActions;
+    protected WaitActions waitActions;
+    protected BooleanChecks booleanChecks;
+
+    @BeforeEach
+    public void setUpActions() {
+        driver = getDriver();
+        pageActions = new PageActions(driver);
+        waitActions = new WaitActions(driver);
+        booleanChecks = new BooleanChecks(driver);
+    }
+
+    protected void open(String path) {
+        driver.get(System.getProperty(FIXTURE_URL) + path);
+        waitActions.waitForPageToLoad();
+    }
+}
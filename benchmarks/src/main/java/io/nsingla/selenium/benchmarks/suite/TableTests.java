@@ -0,0 +1,25 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+
+public class TableTests extends SuiteTest {
+
+    private static final By ROWS = By.cssSelector("#table tr");
+
+    @Test
+    public void findLastRow() {
+        open("/table?rows=200");
+        Assertions.assertTrue(booleanChecks.doesAnElementHaveClass(ROWS, "row-199"));
+    }
+
+    @Test
+    public void readCells() {
+        open("/table?rows=50");
+        Assertions.assertEquals(50, driver.findElements(ROWS).size());
+        for (int i = 0; i < 50; i += 10) {
+            Assertions.assertTrue(booleanChecks.isTextPresentInElement(By.cssSelector(".row-" + i + " td"), String.valueOf(i)));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.nsingla.selenium.benchmarks.suite;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+public class XhrTests extends SuiteTest {
+
+    @Test
+    public void waitForDelayedItems() {
+        open("/xhr.html");
+        pageActions.click(By.id("load"));
+        waitActions.waitWithCondition(ExpectedConditions.numberOfElementsToBe(By.cssSelector("#items .item"), 5), TIMEOUT,
+            "Items were not loaded");
+        waitActions.waitForElementToBeNotVisible(By.id("spinner"));
+    }
+}
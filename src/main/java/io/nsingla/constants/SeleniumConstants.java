@@ -11,12 +11,83 @@ public class SeleniumConstants {
     // Constants for Selenium
     public static final String SELENIUM_GRID_HOST = System.getProperty("gridHost", "localhost");
     public static final String SELENIUM_GRID_PORT = System.getProperty("gridPort", "4444");
+    public static final String GRID_URLS = System.getProperty("gridUrls");
+    public static final String GRID_BALANCING = System.getProperty("gridBalancing", "least-outstanding");
+    public static final int GRID_STATUS_POLL_SECONDS = Integer.parseInt(System.getProperty("gridStatusPollSeconds", "10"));
+    public static final int GRID_CIRCUIT_FAILURES = Integer.parseInt(System.getProperty("gridCircuitFailures", "3"));
+    public static final int GRID_CIRCUIT_OPEN_SECONDS = Integer.parseInt(System.getProperty("gridCircuitOpenSeconds", "60"));
+    public static final String GRID_REPORT = System.getProperty("gridReport", "." + File.separator + "metrics" + File.separator + "grid-endpoints.md");
+    public static final int SESSION_QUEUE_TIMEOUT_SECONDS = Integer.parseInt(System.getProperty("sessionQueueTimeoutSeconds", "0"));
+    public static final long SESSION_BACKOFF_MILLIS = Long.parseLong(System.getProperty("sessionBackoffMillis", "1000"));
+    public static final long SESSION_MAX_BACKOFF_MILLIS = Long.parseLong(System.getProperty("sessionMaxBackoffMillis", "30000"));
+    public static final String SESSION_QUEUE_REPORT = System.getProperty("sessionQueueReport", "." + File.separator + "metrics" + File.separator + "session-queue.md");
+    public static final int REMOTE_CONNECT_TIMEOUT_SECONDS = Integer.parseInt(System.getProperty("remoteConnectTimeoutSeconds", "10"));
+    public static final int REMOTE_READ_TIMEOUT_SECONDS = Integer.parseInt(System.getProperty("remoteReadTimeoutSeconds", "180"));
+    public static final String REMOTE_HTTP_VERSION = System.getProperty("remoteHttpVersion", "HTTP_2");
     public static final String APP_URL = System.getProperty("url", "https://www.google.com");
     public static final Level CONSOLE_LOG_LEVEL = Level.parse(System.getProperty("consoleloglevel", Level.OFF.getName()));
     public static final String TEST_MODE = System.getProperty("mode", TestMode.LOCAL.name());
     public static final String BROWSER = System.getProperty("browser", Browser.CHROME.browserName());
     public static final String LOCALE = System.getProperty("locale", "en");
     public static final String DOWNLOAD_PATH = System.getProperty("downloadPath", System.getProperty("user.home") + File.separator + "Downloads" + File.separator);
+    public static final boolean SESSION_DOWNLOAD_DIRS = Boolean.parseBoolean(System.getProperty("sessionDownloadDirs", "false"));
+    public static final int WAIT_POLL_MILLIS = Integer.parseInt(System.getProperty("waitPollMillis", "200"));
     public static final boolean HEADLESS = Boolean.parseBoolean(System.getProperty("headless", "false"));
+    public static final boolean RECORD_SCREENCAST = Boolean.parseBoolean(System.getProperty("recordScreencast", "false"));
+    public static final int SCREENCAST_SECONDS = Integer.parseInt(System.getProperty("screencastSeconds", "30"));
+    public static final int SCREENCAST_MAX_MB = Integer.parseInt(System.getProperty("screencastMaxMb", "32"));
+    public static final int SCREENCAST_FPS = Integer.parseInt(System.getProperty("screencastFps", "5"));
+    public static final String VISUAL_BASELINE_PATH = System.getProperty("visualBaselinePath", "." + File.separator + "baselines");
+    public static final double VISUAL_THRESHOLD = Double.parseDouble(System.getProperty("visualThreshold", "0.001"));
+    public static final int VISUAL_CHANNEL_TOLERANCE = Integer.parseInt(System.getProperty("visualChannelTolerance", "16"));
+    public static final boolean VISUAL_UPDATE_BASELINES = Boolean.parseBoolean(System.getProperty("updateBaselines", "false"));
+    public static final boolean COMMAND_TIMING = Boolean.parseBoolean(System.getProperty("commandTiming", "false"));
+    public static final String COMMAND_TIMING_REPORT = System.getProperty("commandTimingReport", "." + File.separator + "metrics" + File.separator + "command-latency.md");
+    public static final boolean TRACING = Boolean.parseBoolean(System.getProperty("tracing", "false"));
+    public static final String TRACE_FILE = System.getProperty("traceFile", "." + File.separator + "traces" + File.separator + "trace.json");
+    public static final int TRACE_MAX_SPANS = Integer.parseInt(System.getProperty("traceMaxSpans", "1000000"));
+    public static final boolean JFR_COMMAND_EVENTS = Boolean.parseBoolean(System.getProperty("jfrCommandEvents", "false"));
+    public static final boolean RECORD_DURATIONS = Boolean.parseBoolean(System.getProperty("recordDurations", "false"));
+    public static final String DURATION_HISTORY = System.getProperty("durationHistory", "." + File.separator + "metrics" + File.separator + "test-durations.json");
+    public static final String SHARD = System.getProperty("shard");
+    public static final long SHARD_DEFAULT_MILLIS = Long.parseLong(System.getProperty("shardDefaultMillis", "30000"));
+    public static final boolean REUSE_SESSION = Boolean.parseBoolean(System.getProperty("reuseSession", "false"));
+    public static final int INFRA_RETRIES = Integer.parseInt(System.getProperty("infraRetries", "2"));
+    public static final int INFRA_RETRY_BUDGET = Integer.parseInt(System.getProperty("infraRetryBudget", "10"));
+    public static final String BLOCK_URLS = System.getProperty("blockUrls");
+    public static final String BLOCK_RESOURCE_TYPES = System.getProperty("blockResourceTypes");
+    public static final String BLOCKED_REQUESTS_REPORT = System.getProperty("blockedRequestsReport", "." + File.separator + "metrics" + File.separator + "blocked-requests.md");
+    public static final boolean PROXY_CACHE = Boolean.parseBoolean(System.getProperty("proxyCache", "false"));
+    public static final int PROXY_CACHE_MB = Integer.parseInt(System.getProperty("proxyCacheMb", "256"));
+    public static final String PROXY_CACHE_DIR = System.getProperty("proxyCacheDir");
+    public static final long PROXY_CACHE_MIN_MAX_AGE_SECONDS = Long.parseLong(System.getProperty("proxyCacheMinMaxAgeSeconds", "86400"));
+    public static final String PROXY_CACHE_REPORT = System.getProperty("proxyCacheReport", "." + File.separator + "metrics" + File.separator + "proxy-cache.md");
+    public static final String STUB_MODE = System.getProperty("stubMode", "off");
+    public static final String STUB_STORE = System.getProperty("stubStore", "." + File.separator + "stubs");
+    public static final String STUB_URLS = System.getProperty("stubUrls");
+    public static final String STUB_IGNORE_PARAMS = System.getProperty("stubIgnoreParams", "_");
+    public static final boolean STUB_MATCH_BODY = Boolean.parseBoolean(System.getProperty("stubMatchBody", "true"));
+    public static final String STUB_LATENCY = System.getProperty("stubLatency");
+    public static final String STUB_MISSING = System.getProperty("stubMissing", "forward");
+    public static final String STUB_REPORT = System.getProperty("stubReport", "." + File.separator + "metrics" + File.separator + "stubs.md");
+    public static final String AUTH_SNAPSHOT_DIR = System.getProperty("authSnapshotDir", "." + File.separator + "auth-snapshots");
+    public static final long AUTH_SNAPSHOT_TTL_MINUTES = Long.parseLong(System.getProperty("authSnapshotTtlMinutes", "30"));
+    public static final String AUTH_RESTORE_PATH = System.getProperty("authRestorePath", "/favicon.ico");
+    public static final String PROFILE_TEMPLATE_DIR = System.getProperty("profileTemplateDir");
+    public static final String PROFILE_CLONE_DIR = System.getProperty("profileCloneDir", System.getProperty("java.io.tmpdir"));
+    public static final String PROFILE_CLONE_MODE = System.getProperty("profileCloneMode", "auto");
+    public static final boolean BROWSER_CONTEXTS = Boolean.parseBoolean(System.getProperty("browserContexts", "false"));
+    public static final int BROWSER_CONTEXTS_PER_BROWSER = Integer.parseInt(System.getProperty("browserContextsPerBrowser", "4"));
+    public static final boolean TIERED_EXECUTION = Boolean.parseBoolean(System.getProperty("tieredExecution", "true"));
+    public static final boolean TIER_FALLBACK_ON_FAILURE = Boolean.parseBoolean(System.getProperty("tierFallbackOnFailure", "true"));
+    public static final String TIER_HISTORY = System.getProperty("tierHistory", "." + File.separator + "metrics" + File.separator + "tier-history.json");
+    public static final String HTMLUNIT_BROWSER_VERSION = System.getProperty("htmlUnitBrowserVersion", "chrome");
+    public static final boolean HTMLUNIT_JAVASCRIPT = Boolean.parseBoolean(System.getProperty("htmlUnitJavascript", "false"));
+    public static final boolean HTMLUNIT_CSS = Boolean.parseBoolean(System.getProperty("htmlUnitCss", "true"));
+    public static final int HTMLUNIT_CACHE_SIZE = Integer.parseInt(System.getProperty("htmlUnitCacheSize", "1000"));
+    public static final boolean BOOTSTRAP_TIMING = Boolean.parseBoolean(System.getProperty("bootstrapTiming", "false"));
+    public static final String BOOTSTRAP_REPORT = System.getProperty("bootstrapReport", "." + File.separator + "metrics" + File.separator + "bootstrap.md");
+    public static final boolean LAZY_DRIVER = Boolean.parseBoolean(System.getProperty("lazyDriver", "false"));
+    public static final String INFRA_RETRY_REPORT = System.getProperty("infraRetryReport", "." + File.separator + "metrics" + File.separator + "infra-retries.md");
 
 }
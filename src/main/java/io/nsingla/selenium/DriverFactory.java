@@ -1,15 +1,37 @@
 package io.nsingla.selenium;
 
 import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.context.BrowserContexts;
+import io.nsingla.selenium.download.DownloadManager;
 import io.nsingla.selenium.enums.TestMode;
+import io.nsingla.selenium.grid.GridBalancer;
+import io.nsingla.selenium.grid.GridEndpoint;
+import io.nsingla.selenium.grid.GridRemoteWebDriver;
+import io.nsingla.selenium.grid.SessionAcquirer;
+import io.nsingla.selenium.htmlunit.TunedHtmlUnitDriver;
+import io.nsingla.selenium.http.RemoteHttpClientFactory;
+import io.nsingla.selenium.http.WireTimingFilter;
+import io.nsingla.selenium.jfr.DriverCreationEvent;
+import io.nsingla.selenium.network.BlockingInterceptor;
+import io.nsingla.selenium.network.BlockingRules;
+import io.nsingla.selenium.network.RequestBlocking;
+import io.nsingla.selenium.profile.ProfileTemplates;
+import io.nsingla.selenium.proxy.CachingInterceptor;
+import io.nsingla.selenium.proxy.LocalProxy;
+import io.nsingla.selenium.recording.ScreencastRecorder;
+import io.nsingla.selenium.retry.FailureClassifier;
+import io.nsingla.selenium.stub.StubInterceptor;
+import io.nsingla.selenium.stub.StubMode;
 
 import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.UnexpectedAlertBehaviour;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
@@ -22,23 +44,34 @@ import org.openqa.selenium.logging.LoggingPreferences;
 import org.openqa.selenium.remote.AbstractDriverOptions;
 import org.openqa.selenium.remote.Browser;
 import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.LocalFileDetector;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.safari.SafariOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
-import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.InvalidParameterException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Level;
 
 public class DriverFactory {
 
+    private static final Dimension HEADLESS_WINDOW_SIZE = new Dimension(1920, 1080);
     private static final Logger LOGGER = LoggerFactory.getLogger(DriverFactory.class);
 
     private WebDriver driver;
@@ -47,14 +80,48 @@ public class DriverFactory {
     private boolean headless;
     private String downloadPath;
     private String locale;
+    private boolean recordScreencast;
+    private ScreencastRecorder screencastRecorder;
+    private LocalProxy localProxy;
+    private String profileDir;
+    private Path profileClone;
+    private DownloadManager downloadManager;
+    private boolean windowSized;
 
     public DriverFactory(DriverFactoryBuilder builder) {
+        this(builder, true);
+    }
+
+    private DriverFactory(DriverFactoryBuilder builder, boolean startDriver) {
         this.browser = builder.getBrowser();
         this.mode = builder.getTestMode();
         this.headless = builder.isHeadless();
         this.downloadPath = builder.getDownloadPath();
         this.locale = builder.getLocale();
-        this.driver = createDriver();
+        this.recordScreencast = Boolean.TRUE.equals(builder.isRecordScreencast());
+        this.profileDir = builder.getProfileDir();
+        if (startDriver) {
+            if (builder.needsLocalProxy()) {
+                startLocalProxy();
+            }
+            try {
+                this.driver = createDriver();
+            } catch (RuntimeException | Error e) {
+                if (localProxy != null) {
+                    localProxy.close();
+                }
+                if (profileClone != null) {
+                    ProfileTemplates.delete(profileClone);
+                }
+                if (downloadManager != null) {
+                    downloadManager.close();
+                }
+                throw e;
+            }
+            if (recordScreencast) {
+                startScreencast();
+            }
+        }
     }
 
     public static class DriverFactoryBuilder {
@@ -63,6 +130,9 @@ public class DriverFactory {
         private Boolean headless;
         private String downloadPath;
         private String locale;
+        private Boolean recordScreencast;
+        private BlockingRules blockingRules;
+        private String profileDir;
 
         public TestMode getTestMode() {
             return testMode;
@@ -109,20 +179,76 @@ public class DriverFactory {
             return this;
         }
 
+        public Boolean isRecordScreencast() {
+            return recordScreencast;
+        }
+
+        public DriverFactoryBuilder setRecordScreencast(Boolean recordScreencast) {
+            this.recordScreencast = recordScreencast;
+            return this;
+        }
+
+        public BlockingRules getBlockingRules() {
+            return blockingRules;
+        }
+
+        public DriverFactoryBuilder setBlockingRules(BlockingRules blockingRules) {
+            this.blockingRules = blockingRules;
+            return this;
+        }
+
+        public String getProfileDir() {
+            return profileDir;
+        }
+
+        /**
+         * @param profileDir User data directory a local session is started with as is, instead of a clone of the
+         *                   profile template
+         */
+        public DriverFactoryBuilder setProfileDir(String profileDir) {
+            this.profileDir = profileDir;
+            return this;
+        }
+
+        /**
+         * @return Whether the session needs a {@link LocalProxy}, which can only be set up when it is started
+         */
+        boolean needsLocalProxy() {
+            if (!TestMode.LOCAL.equals(testMode) || Browser.SAFARI.equals(browser)) {
+                return false;
+            }
+            return SeleniumConstants.PROXY_CACHE || StubMode.fromString(SeleniumConstants.STUB_MODE) != StubMode.OFF
+                || (blockingRules != null && !blockingRules.isEmpty() && !RequestBlocking.usesDevTools(browser));
+        }
+
+        /**
+         * @return Key of the settings a session is started with, sessions with the same key are interchangeable
+         */
+        public String getConfigurationKey() {
+            return String.join("|", browser == null ? "" : browser.browserName(), String.valueOf(testMode),
+                String.valueOf(headless), String.valueOf(locale), String.valueOf(downloadPath), needsLocalProxy() ? "proxy" : "", String.valueOf(profileDir));
+        }
+
         public DriverFactory build() {
             return new DriverFactory(this);
         }
+
+        /**
+         * @return The options a driver would be started with, without starting a session
+         */
+        public AbstractDriverOptions<?> buildOptions() {
+            return new DriverFactory(this, false).getDriverOptions();
+        }
     }
 
     private WebDriver createDriver() {
+        DriverCreationEvent event = new DriverCreationEvent();
+        event.begin();
         try {
             switch (mode) {
                 case REMOTE:
-                    String seleniumPort = SeleniumConstants.SELENIUM_GRID_PORT;
-                    String seleniumHost = SeleniumConstants.SELENIUM_GRID_HOST;
-                    LOGGER.debug("Starting driver on " + seleniumHost + ":" + seleniumPort);
-                    String server = "http://" + seleniumHost + ":" + seleniumPort + "/wd/hub";
-                    driver = getRemoteDriver(server);
+                    driver = SeleniumConstants.SESSION_QUEUE_TIMEOUT_SECONDS > 0
+                        ? SessionAcquirer.get().acquire(this::createRemoteDriver) : createRemoteDriver();
                     break;
                 case LOCAL:
                     driver = getLocalDriver();
@@ -130,43 +256,136 @@ public class DriverFactory {
                 default:
                     throw new InvalidParameterException("Unexpected test mode: " + mode);
             }
-        } catch (MalformedURLException e) {
-            throw new AssertionError(e.getMessage());
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.browser = browser.browserName();
+                event.mode = mode.name();
+                event.headless = headless;
+                event.success = driver != null;
+                event.commit();
+            }
         }
 
         return driver;
     }
 
+    private RemoteWebDriver createRemoteDriver() {
+        try {
+            if (StringUtils.isNotBlank(SeleniumConstants.GRID_URLS)) {
+                return getBalancedRemoteDriver(GridBalancer.get());
+            }
+            String seleniumPort = SeleniumConstants.SELENIUM_GRID_PORT;
+            String seleniumHost = SeleniumConstants.SELENIUM_GRID_HOST;
+            LOGGER.debug("Starting driver on " + seleniumHost + ":" + seleniumPort);
+            String server = "http://" + seleniumHost + ":" + seleniumPort + "/wd/hub";
+            return getRemoteDriver(server);
+        } catch (MalformedURLException e) {
+            throw new AssertionError(e.getMessage());
+        }
+    }
+
     private WebDriver getLocalDriver() {
         File downloaDir = new File(downloadPath);
         if (!downloaDir.exists()) {
             downloaDir.mkdir();
         }
+        if (SeleniumConstants.SESSION_DOWNLOAD_DIRS && (Browser.FIREFOX.equals(browser) || Browser.CHROME.equals(browser)
+            || Browser.EDGE.equals(browser))) {
+            startDownloadManager();
+        }
+        if (SeleniumConstants.BROWSER_CONTEXTS && profileDir == null && BrowserContexts.isSupported(browser)) {
+            // the tab of the context opens in the window of the shared browser, which was started in its final size
+            windowSized = getWindowSize().isPresent();
+            return register(BrowserContexts.newContext(browser.browserName() + "|" + headless + "|" + locale, browser,
+                this::startSharedBrowser, downloadPath, localProxy == null ? null : localProxy.toSeleniumProxy().getHttpProxy()));
+        }
+        if (profileDir == null && ProfileTemplates.isEnabled(browser)) {
+            profileClone = ProfileTemplates.clone(browser);
+            if (profileClone != null) {
+                profileDir = profileClone.toAbsolutePath().toString();
+            }
+        }
         AbstractDriverOptions options = getDriverOptions();
+        if (profileDir != null && options instanceof ChromiumOptions) {
+            ((ChromiumOptions<?>) options).addArguments("--user-data-dir=" + profileDir);
+        }
+        if (localProxy != null && options != null) {
+            options.setProxy(localProxy.toSeleniumProxy());
+            // browsers send requests to localhost past the proxy unless told otherwise
+            if (options instanceof ChromiumOptions) {
+                ((ChromiumOptions<?>) options).addArguments("--proxy-bypass-list=<-loopback>");
+            } else if (options instanceof FirefoxOptions) {
+                ((FirefoxOptions) options).addPreference("network.proxy.allow_hijacking_localhost", true);
+            }
+        }
         if (Browser.FIREFOX.equals(browser)) {
-            return new FirefoxDriver((FirefoxOptions) options);
+            return register(new FirefoxDriver((FirefoxOptions) options));
         } else if (Browser.CHROME.equals(browser)) {
-            return new ChromeDriver((ChromeOptions) options);
+            return register(new ChromeDriver((ChromeOptions) options));
         } else if (Browser.SAFARI.equals(browser)) {
             return new SafariDriver((SafariOptions) options);
         } else if (Browser.EDGE.equals(browser)) {
-            return new EdgeDriver((EdgeOptions) options);
+            return register(new EdgeDriver((EdgeOptions) options));
         } else if (Browser.HTMLUNIT.equals(browser)) {
-            return new HtmlUnitDriver();
+            HtmlUnitDriver htmlUnitDriver = new TunedHtmlUnitDriver();
+            if (localProxy != null) {
+                htmlUnitDriver.setProxySettings(localProxy.toSeleniumProxy());
+            }
+            return register(htmlUnitDriver);
         } else {
             throw new RuntimeException("Cannot start a webdriver session for browser: " + browser);
         }
     }
 
+    /**
+     * @return A browser the sessions of {@link BrowserContexts} share, started without the proxy and profile of a
+     * single session
+     */
+    private WebDriver startSharedBrowser() {
+        AbstractDriverOptions<?> options = getDriverOptions();
+        return Browser.EDGE.equals(browser) ? new EdgeDriver((EdgeOptions) options) : new ChromeDriver((ChromeOptions) options);
+    }
+
     private RemoteWebDriver getRemoteDriver(String server) throws MalformedURLException {
         LOGGER.info("server: " + server);
 
-        RemoteWebDriver result = new RemoteWebDriver(new URL(server), getDriverOptions());
+        RemoteWebDriver result = new RemoteWebDriver(getCommandExecutor(server), getDriverOptions());
 
         result.setFileDetector(new LocalFileDetector());
         return result;
     }
 
+    private RemoteWebDriver getBalancedRemoteDriver(GridBalancer balancer) throws MalformedURLException {
+        GridEndpoint endpoint = balancer.acquire();
+        LOGGER.info("server: " + endpoint.getUrl());
+        long start = System.nanoTime();
+        RemoteWebDriver result;
+        try {
+            result = new GridRemoteWebDriver(balancer, endpoint, getCommandExecutor(endpoint.getUrl()), getDriverOptions());
+        } catch (MalformedURLException | RuntimeException e) {
+            if (FailureClassifier.isUnsatisfiableCapabilities(e)) {
+                // a configuration error, the grid itself is fine
+                balancer.recordRejected(endpoint);
+            } else {
+                balancer.recordFailure(endpoint);
+            }
+            throw e;
+        }
+        balancer.recordSuccess(endpoint, System.nanoTime() - start);
+
+        result.setFileDetector(new LocalFileDetector());
+        return result;
+    }
+
+    private CommandExecutor getCommandExecutor(String server) throws MalformedURLException {
+        ClientConfig config = RemoteHttpClientFactory.clientConfig(server);
+        if (SeleniumConstants.COMMAND_TIMING) {
+            config = config.withFilter(new WireTimingFilter(browser.browserName(), mode.name()));
+        }
+        return new HttpCommandExecutor(Collections.emptyMap(), config, RemoteHttpClientFactory.shared());
+    }
+
     private AbstractDriverOptions getDriverOptions() {
         AbstractDriverOptions options = null;
         if (Browser.FIREFOX.equals(browser)) {
@@ -183,6 +402,11 @@ public class DriverFactory {
         } else if (Browser.EDGE.equals(browser)) {
             LOGGER.info("Starting SafariDriver........ ");
             options = createDefaultDriverOptions(EdgeOptions.class);
+            setWindowGeometry((EdgeOptions) options);
+            if (downloadPath != null) {
+                ((EdgeOptions) options).setExperimentalOption("prefs", Map.of("download.default_directory", downloadPath,
+                    "download.prompt_for_download", false));
+            }
         }
         return options;
 
@@ -221,24 +445,53 @@ public class DriverFactory {
         options.setUnhandledPromptBehaviour(UnexpectedAlertBehaviour.IGNORE);
 
         if (headless) {
-            // note: the window size in headless is not limited to the display size
-            options.addArguments("headless", "disable-gpu", "window-size=1920,1080");
+            options.addArguments("headless", "disable-gpu");
         }
+        setWindowGeometry(options);
 
         if (StringUtils.isNotEmpty(locale)) {
             options.addArguments("--lang=" + locale);
         }
     }
 
+    /**
+     * Starts the window in its final size, so the session does not need to be maximized once it is started
+     */
+    private void setWindowGeometry(ChromiumOptions<?> options) {
+        Optional<Dimension> windowSize = getWindowSize();
+        if (windowSize.isPresent()) {
+            options.addArguments("--window-position=0,0",
+                "--window-size=" + windowSize.get().getWidth() + "," + windowSize.get().getHeight());
+            windowSized = true;
+        }
+    }
+
+    /**
+     * @return Size of the window at start: fixed in headless, the screen size for a local browser with a window on
+     * linux or mac, where {@link MaximizeBrowserOnUnix} would size it to the screen afterwards; empty where the window
+     * is maximized
+     */
+    private Optional<Dimension> getWindowSize() {
+        if (headless) {
+            // note: the window size in headless is not limited to the display size, maximizing keeps the default 800x600
+            return Optional.of(HEADLESS_WINDOW_SIZE);
+        }
+        String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
+        if (!headless && TestMode.LOCAL.equals(mode) && (os.contains("linux") || os.contains("mac"))) {
+            return ScreenGeometry.get();
+        }
+        return Optional.empty();
+    }
+
     private void setDefaultFirefoxOptions(FirefoxOptions options) {
-        FirefoxProfile ffProfile = new FirefoxProfile();
+        Map<String, Object> prefs = new LinkedHashMap<>();
         // Set Custom Download Dir for downloads
         if (downloadPath != null) {
-            ffProfile.setPreference("browser.download.folderList", 2);
-            ffProfile.setPreference("browser.download.dir", downloadPath);
+            prefs.put("browser.download.folderList", 2);
+            prefs.put("browser.download.dir", downloadPath);
         }
-        ffProfile.setPreference("browser.download.manager.showWhenStarting", false);
-        ffProfile.setPreference("browser.helperApps.neverAsk.saveToDisk", "application/msword, application/csv, "
+        prefs.put("browser.download.manager.showWhenStarting", false);
+        prefs.put("browser.helperApps.neverAsk.saveToDisk", "application/msword, application/csv, "
             + "application/vnd.ms-powerpoint, application/ris, text/csv, image/png, application/pdf, "
             + "text/html, text/plain, application/zip, application/x-zip, application/x-zip-compressed, "
             + "application/download, application/octet-stream, application/xls, application/vnd.ms-excel, "
@@ -246,15 +499,92 @@ public class DriverFactory {
             + "application/x-excel");
 
         options.setHeadless(headless);
+        Optional<Dimension> windowSize = getWindowSize();
+        if (windowSize.isPresent()) {
+            options.addArguments("-width", String.valueOf(windowSize.get().getWidth()),
+                "-height", String.valueOf(windowSize.get().getHeight()));
+            windowSized = true;
+        }
         options.setLogLevel(FirefoxDriverLogLevel.fromLevel(SeleniumConstants.CONSOLE_LOG_LEVEL));
         options.setUnhandledPromptBehaviour(UnexpectedAlertBehaviour.IGNORE);
         if (StringUtils.isNotEmpty(locale)) {
-            ffProfile.setPreference("intl.accept_languages", locale);
+            prefs.put("intl.accept_languages", locale);
+        }
+        if (profileDir != null) {
+            // geckodriver writes the preferences into the profile directory it is given
+            options.addArguments("-profile", profileDir);
+            prefs.forEach(options::addPreference);
+        } else {
+            FirefoxProfile ffProfile = new FirefoxProfile();
+            prefs.forEach(ffProfile::setPreference);
+            options.setProfile(ffProfile);
+        }
+    }
+
+    private void startLocalProxy() {
+        try {
+            localProxy = new LocalProxy().start().addInterceptor(new BlockingInterceptor());
+            if (StubMode.fromString(SeleniumConstants.STUB_MODE) != StubMode.OFF) {
+                localProxy.addInterceptor(StubInterceptor.forSession());
+            }
+            if (SeleniumConstants.PROXY_CACHE) {
+                localProxy.addInterceptor(CachingInterceptor.shared());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to start local proxy, continuing without it", e);
+        }
+    }
+
+    /**
+     * Gives the session a download directory of its own, so parallel sessions do not see each other's downloads
+     */
+    private void startDownloadManager() {
+        try {
+            downloadManager = DownloadManager.create(Paths.get(downloadPath));
+            downloadPath = downloadManager.getDirectory().toAbsolutePath().toString();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to create a session download directory in {}, continuing with it", downloadPath, e);
+        }
+    }
+
+    private WebDriver register(WebDriver localDriver) {
+        if (localProxy != null) {
+            localProxy.register(localDriver);
+        }
+        if (profileClone != null) {
+            ProfileTemplates.register(localDriver, profileClone);
+        }
+        if (downloadManager != null) {
+            downloadManager.register(localDriver);
+        }
+        return localDriver;
+    }
+
+    private void startScreencast() {
+        if (!Browser.CHROME.equals(browser)) {
+            LOGGER.warn("Screencast recording is only supported for chrome, not for {}", browser.browserName());
+            return;
+        }
+        try {
+            screencastRecorder = ScreencastRecorder.start(driver, SeleniumConstants.SCREENCAST_SECONDS,
+                SeleniumConstants.SCREENCAST_MAX_MB, SeleniumConstants.SCREENCAST_FPS).orElse(null);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to start screencast recording, continuing without it", e);
         }
-        options.setProfile(ffProfile);
     }
 
     public WebDriver getDriver() {
         return driver;
     }
+
+    public ScreencastRecorder getScreencastRecorder() {
+        return screencastRecorder;
+    }
+
+    /**
+     * @return Whether the window was started in its final size, and does not need to be maximized
+     */
+    public boolean isWindowSized() {
+        return windowSized;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package io.nsingla.selenium;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+/**
+ * A {@link WebDriver} whose session is only started by its first command, so tests that never use the browser (skipped
+ * by an assumption, failing before, testing helpers) do not start one. Used when {@code lazyDriver} is enabled. It only
+ * implements the interfaces listed in {@link #create}, code needing others (e.g. {@code HasDevTools}) takes
+ * {@link SeleniumBase#getSessionDriver()}.
+ */
+public class LazyDriver implements InvocationHandler {
+
+    private final Supplier<WebDriver> starter;
+    private volatile WebDriver target;
+
+    private LazyDriver(Supplier<WebDriver> starter) {
+        this.starter = starter;
+    }
+
+    /**
+     * @param starter Starts the session, called once on the first command
+     * @return The lazy driver, which also implements {@link JavascriptExecutor}, {@link TakesScreenshot},
+     * {@link HasCapabilities}, {@link Interactive} and {@link WrapsDriver}
+     */
+    public static WebDriver create(Supplier<WebDriver> starter) {
+        return (WebDriver) Proxy.newProxyInstance(LazyDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class,
+            JavascriptExecutor.class, TakesScreenshot.class, HasCapabilities.class, Interactive.class, WrapsDriver.class},
+            new LazyDriver(starter));
+    }
+
+    /**
+     * @return Whether the driver has a session: it is not lazy, or a command started the session
+     */
+    public static boolean isStarted(WebDriver driver) {
+        if (driver == null) {
+            return false;
+        }
+        if (!Proxy.isProxyClass(driver.getClass()) || !(Proxy.getInvocationHandler(driver) instanceof LazyDriver)) {
+            return true;
+        }
+        return ((LazyDriver) Proxy.getInvocationHandler(driver)).target != null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return target == null ? "LazyDriver (no session)" : "LazyDriver (" + target + ")";
+            }
+        }
+        if (target == null && ("quit".equals(method.getName()) || "close".equals(method.getName()))) {
+            return null;
+        }
+        WebDriver driver = start();
+        if (method.getDeclaringClass() == WrapsDriver.class) {
+            return driver;
+        }
+        if (!method.getDeclaringClass().isInstance(driver)) {
+            throw new WebDriverException(driver.getClass().getSimpleName() + " does not implement "
+                + method.getDeclaringClass().getSimpleName());
+        }
+        try {
+            return method.invoke(driver, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private synchronized WebDriver start() {
+        if (target == null) {
+            target = starter.get();
+        }
+        return target;
+    }
+}
@@ -1,13 +1,8 @@
 package io.nsingla.selenium;
 
-import org.openqa.selenium.Dimension;
 import org.openqa.selenium.Point;
 import org.openqa.selenium.WebDriver;
 
-import java.awt.GraphicsDevice;
-import java.awt.GraphicsEnvironment;
-import java.awt.Toolkit;
-
 /**
  * Created by nsingla
  */
@@ -21,21 +16,8 @@ public class MaximizeBrowserOnUnix {
         Point targetPosition = new Point(0, 0);
         driver.manage().window().setPosition(targetPosition);
 
-        int width;
-        int height;
-
-        GraphicsDevice[] monitors = GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices();
-
-        if (monitors.length > 1) {
-            width = monitors[1].getDisplayMode().getWidth();
-            height = monitors[1].getDisplayMode().getHeight();
-        } else {
-            java.awt.Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-            width = (int) screenSize.getWidth();
-            height = (int) screenSize.getHeight();
-        }
-
-        driver.manage().window().setSize(new Dimension(width, height));
+        // without a display there is nothing to size the window to, the browser keeps its default size
+        ScreenGeometry.get().ifPresent(size -> driver.manage().window().setSize(size));
     }
 
 }
@@ -0,0 +1,43 @@
+package io.nsingla.selenium;
+
+import org.openqa.selenium.Dimension;
+
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Toolkit;
+import java.util.Optional;
+
+/**
+ * Size of the screen local browsers are maximized to, read from AWT once per JVM. Never called for headless
+ * browsers, which do not need a screen.
+ */
+public class ScreenGeometry {
+
+    private static volatile Optional<Dimension> screenSize;
+
+    /**
+     * @return Size of the second monitor if there is one, otherwise of the screen; empty without a display
+     */
+    public static Optional<Dimension> get() {
+        if (screenSize == null) {
+            synchronized (ScreenGeometry.class) {
+                if (screenSize == null) {
+                    screenSize = read();
+                }
+            }
+        }
+        return screenSize;
+    }
+
+    private static Optional<Dimension> read() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return Optional.empty();
+        }
+        GraphicsDevice[] monitors = GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices();
+        if (monitors.length > 1) {
+            return Optional.of(new Dimension(monitors[1].getDisplayMode().getWidth(), monitors[1].getDisplayMode().getHeight()));
+        }
+        java.awt.Dimension size = Toolkit.getDefaultToolkit().getScreenSize();
+        return Optional.of(new Dimension((int) size.getWidth(), (int) size.getHeight()));
+    }
+}
@@ -3,97 +3,278 @@ package io.nsingla.selenium;
 import io.nsingla.constants.SeleniumConstants;
 import io.nsingla.junit5.TestBase;
 import io.nsingla.junit5.utils.NamingUtils;
+import io.nsingla.selenium.auth.AuthSnapshots;
+import io.nsingla.selenium.auth.LoginFlow;
+import io.nsingla.selenium.download.DownloadManager;
 import io.nsingla.selenium.enums.TestMode;
 import io.nsingla.selenium.extensions.CloseDriverExtension;
+import io.nsingla.selenium.extensions.DurationExtension;
+import io.nsingla.selenium.extensions.RunReportExtension;
+import io.nsingla.selenium.extensions.ScreencastExtension;
 import io.nsingla.selenium.extensions.ScreenshotExtension;
+import io.nsingla.selenium.extensions.TracingExtension;
+import io.nsingla.selenium.jfr.JfrCommandListener;
+import io.nsingla.selenium.jfr.WindowMaximizeEvent;
 import io.nsingla.selenium.logger.ConsoleLogHandler;
+import io.nsingla.selenium.metrics.BootstrapMetrics;
+import io.nsingla.selenium.metrics.CommandMetrics;
+import io.nsingla.selenium.metrics.CommandTimingListener;
+import io.nsingla.selenium.metrics.RunReports;
+import io.nsingla.selenium.network.RequestBlocking;
+import io.nsingla.selenium.profile.ProfileTemplates;
+import io.nsingla.selenium.proxy.LocalProxy;
+import io.nsingla.selenium.recording.ScreencastRecorder;
+import io.nsingla.selenium.session.DriverConfigs;
+import io.nsingla.selenium.session.SessionCache;
+import io.nsingla.selenium.tracing.Tracer;
+import io.nsingla.selenium.tracing.TracingListener;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.openqa.selenium.Dimension;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.remote.Browser;
 import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.openqa.selenium.support.events.WebDriverListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+@ExtendWith(RunReportExtension.class)
+@ExtendWith(DurationExtension.class)
+@ExtendWith(TracingExtension.class)
 @ExtendWith(CloseDriverExtension.class)
 @ExtendWith(ScreenshotExtension.class)
+@ExtendWith(ScreencastExtension.class)
 public class SeleniumBase extends TestBase {
 
     private static final Logger logger = LoggerFactory.getLogger(SeleniumBase.class);
 
     private WebDriver driver;
+    private WebDriver sessionDriver;
+    private String configurationKey;
     private final TestMode mode;
-    private final Browser browser;
-    private final boolean headless;
+    private final Browser configuredBrowser;
+    private Browser browser;
+    private boolean headless;
     private String locale;
     private String downloadPath;
+    private final boolean recordScreencast;
+    private ScreencastRecorder screencastRecorder;
 
     public SeleniumBase() {
         mode = getTestMode();
-        browser = getBrowser();
+        configuredBrowser = getBrowser();
+        browser = configuredBrowser;
         headless = isHeadless();
         downloadPath = getDownloadPath();
         locale = getLocale();
+        recordScreencast = SeleniumConstants.RECORD_SCREENCAST;
     }
 
     @BeforeEach
     public void startDriver(TestInfo testInfo) {
-        DriverFactory df = new DriverFactory.DriverFactoryBuilder()
-            .setBrowser(browser)
-            .setTestMode(mode)
-            .setHeadless(headless)
-            .setLocale(locale)
-            .setDownloadPath(downloadPath)
-            .build();
-        this.driver = df.getDriver();
+        Tracer.trace("SeleniumBase.startDriver", Tracer.ACTION, () -> {
+            DriverFactory.DriverFactoryBuilder builder = DriverConfigs.resolve(getClass(), testInfo.getTestMethod(), configuredBrowser)
+                .setTestMode(mode)
+                .setRecordScreencast(recordScreencast);
+            browser = builder.getBrowser();
+            headless = builder.isHeadless();
+            locale = builder.getLocale();
+            downloadPath = builder.getDownloadPath();
+            configurationKey = builder.getConfigurationKey();
+            if (SeleniumConstants.BOOTSTRAP_TIMING) {
+                RunReports.register("Session bootstrap", () -> BootstrapMetrics.writeReport(Paths.get(SeleniumConstants.BOOTSTRAP_REPORT)));
+            }
+            if (SeleniumConstants.LAZY_DRIVER) {
+                driver = LazyDriver.create(() -> {
+                    WebDriver handle = driver;
+                    try {
+                        return Tracer.trace("SeleniumBase.startSession", Tracer.ACTION, () -> startSession(builder, testInfo));
+                    } finally {
+                        driver = handle;
+                    }
+                });
+            } else {
+                startSession(builder, testInfo);
+            }
+        });
+    }
+
+    /**
+     * Starts or continues the session of the test and decorates it
+     *
+     * @return The decorated driver, also assigned to {@code driver}
+     */
+    private WebDriver startSession(DriverFactory.DriverFactoryBuilder builder, TestInfo testInfo) {
+        Optional<WebDriver> cachedDriver = SeleniumConstants.REUSE_SESSION ? SessionCache.take(configurationKey) : Optional.empty();
+        if (cachedDriver.isPresent()) {
+            this.driver = cachedDriver.get();
+            BootstrapMetrics.time("reset reused session", this::resetReusedSession);
+        } else {
+            // a new session starts without cookies
+            DriverFactory df = BootstrapMetrics.time("create session", builder::build);
+            this.driver = df.getDriver();
+            this.screencastRecorder = df.getScreencastRecorder();
+            SessionCache.recordStarted();
+            if (!df.isWindowSized()) {
+                BootstrapMetrics.time("maximize", this::maximize);
+            }
+        }
+        this.sessionDriver = driver;
+        BootstrapMetrics.time("request blocking", () -> RequestBlocking.apply(sessionDriver, browser, builder.getBlockingRules()));
+        BootstrapMetrics.time("decorate", () -> decorate(testInfo));
+        logger.debug("Driver for {} started with hash: {}", NamingUtils.getTestName(testInfo), driver.hashCode());
+        return driver;
+    }
+
+    /**
+     * Wraps the driver with the listeners of the test. The command timing gets a decorator of its own, the others
+     * share one, as every decorator adds its cost to every command.
+     */
+    private void decorate(TestInfo testInfo) {
+        if (SeleniumConstants.COMMAND_TIMING) {
+            // Decorated first, so each command is timed on its own and the console log checks show up as Logs.get
+            RunReports.register("Command latency", () -> CommandMetrics.writeReport(Paths.get(SeleniumConstants.COMMAND_TIMING_REPORT)));
+            WebDriverListener timingListener = new CommandTimingListener(NamingUtils.getTestName(testInfo), browser.browserName(), mode.name());
+            driver = new EventFiringDecorator(timingListener).decorate(driver);
+        }
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (SeleniumConstants.JFR_COMMAND_EVENTS) {
+            listeners.add(new JfrCommandListener());
+        }
+        if (Tracer.isEnabled()) {
+            listeners.add(new TracingListener());
+        }
+        if (browser.is(Browser.CHROME.browserName())) {
+            logger.info("CONSOLE LOG LEVEL: " + SeleniumConstants.CONSOLE_LOG_LEVEL.getName());
+            listeners.add(new ConsoleLogHandler(SeleniumConstants.CONSOLE_LOG_LEVEL));
+        }
+        if (!listeners.isEmpty()) {
+            driver = new EventFiringDecorator(listeners.toArray(new WebDriverListener[0])).decorate(driver);
+        }
+    }
 
+    private void maximize() {
         String os = System.getProperty("os.name");
         logger.info("Current Operating System: " + os);
 
-        Dimension initialDimension = driver.manage().window().getSize();
+        WindowMaximizeEvent maximizeEvent = new WindowMaximizeEvent();
+        maximizeEvent.begin();
         if (!headless && mode.equals(TestMode.LOCAL) && (os.toLowerCase().contains("linux") || os.toLowerCase().contains("mac"))) {
             MaximizeBrowserOnUnix.maximizeOnUnixSystems(driver);
+            maximizeEvent.strategy = "screen size";
         } else {
             driver.manage().window().maximize();
+            maximizeEvent.strategy = "maximize";
         }
-        logger.info("Window size: {} and {} after maximize", initialDimension, driver.manage().window().getSize());
-        driver.manage().deleteAllCookies(); // Start clean driver session
-        if (browser.is(Browser.CHROME.browserName())) {
-            logger.info("CONSOLE LOG LEVEL: " + SeleniumConstants.CONSOLE_LOG_LEVEL.getName());
-            WebDriverListener listener = new ConsoleLogHandler(SeleniumConstants.CONSOLE_LOG_LEVEL);
-            driver = new EventFiringDecorator(listener).decorate(driver);
+        maximizeEvent.commit();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Window size after maximize: {}", driver.manage().window().getSize());
         }
-        logger.debug("Driver for {} started with hash: {}", NamingUtils.getTestName(testInfo), driver.hashCode());
+    }
+
+    /**
+     * Closes the windows a previous test left open and leaves the page, so the next test starts from a blank window
+     */
+    private void resetReusedSession() {
+        String mainWindow = driver.getWindowHandles().iterator().next();
+        for (String window : driver.getWindowHandles()) {
+            if (!window.equals(mainWindow)) {
+                driver.switchTo().window(window).close();
+            }
+        }
+        driver.switchTo().window(mainWindow);
+        // cookies of the page the previous test ended on, they cannot be deleted once the window left it
+        driver.manage().deleteAllCookies();
+        driver.get("about:blank");
+        DownloadManager.of(driver).ifPresent(DownloadManager::clear);
+        if (recordScreencast && Browser.CHROME.equals(browser)) {
+            try {
+                screencastRecorder = ScreencastRecorder.start(driver, SeleniumConstants.SCREENCAST_SECONDS,
+                    SeleniumConstants.SCREENCAST_MAX_MB, SeleniumConstants.SCREENCAST_FPS).orElse(null);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to start screencast recording, continuing without it", e);
+            }
+        }
+        logger.debug("Continuing with session {} of a previous test", driver.hashCode());
+    }
+
+    /**
+     * Quits the driver of the test, or keeps its session for the next test when {@code reuseSession} is enabled
+     *
+     * @param reusable Whether the session is in a state the next test can continue with, e.g. the test passed
+     */
+    public void releaseDriver(boolean reusable) {
+        if (!isSessionStarted()) {
+            // a lazy driver no command was sent to
+            driver = null;
+            return;
+        }
+        if (SeleniumConstants.REUSE_SESSION && reusable && sessionDriver != null) {
+            SessionCache.keep(configurationKey, sessionDriver);
+        } else {
+            try {
+                driver.quit();
+            } catch (WebDriverException e) {
+                // failed sessions are discarded, even if the browser is not reachable anymore
+                logger.warn("Failed to quit driver {}", driver.hashCode(), e);
+            }
+            LocalProxy.closeFor(sessionDriver);
+            ProfileTemplates.deleteFor(sessionDriver);
+            DownloadManager.closeFor(sessionDriver);
+        }
+        sessionDriver = null;
+    }
+
+    /**
+     * Opens {@code url} logged in as {@code role}, restoring the cookies and web storage of an earlier login of the role
+     * instead of logging in through the UI, see {@link AuthSnapshots}
+     *
+     * @param role User or role, e.g. "admin"
+     * @param url  Page to open logged in
+     * @param flow {@link LoginFlow} logging in through the UI, used when there is no valid snapshot of the role
+     */
+    protected void loginAs(String role, String url, LoginFlow flow) {
+        Tracer.trace("SeleniumBase.loginAs", Tracer.ACTION, () -> {
+            // restoring a snapshot needs DevTools, which the lazy driver does not implement
+            AuthSnapshots.login(getSessionDriver(), role, url, flow);
+        });
+    }
+
+    /**
+     * @return Download directory of the session, when started with {@code sessionDownloadDirs}
+     */
+    protected DownloadManager getDownloads() {
+        // the downloads are expected before the command starting them, which would start a lazy session
+        return DownloadManager.of(getSessionDriver())
+            .orElseThrow(() -> new IllegalStateException("The session has no download directory of its own, see sessionDownloadDirs"));
     }
 
     private TestMode getTestMode() {
         return Optional.of(TestMode.valueOf(SeleniumConstants.TEST_MODE)).orElseThrow(() -> new RuntimeException(SeleniumConstants.TEST_MODE + " is not a valid test mode option"));
     }
 
+    /**
+     * Browser of the tests of this class, override it to choose one in code. {@code @DriverConfig} and tiered tests
+     * take precedence, see {@link #getSessionBrowser()} for the browser a test runs on.
+     *
+     * @return The browser of the {@code browser} runtime parameter
+     */
     public Browser getBrowser() {
-        if (Browser.CHROME.is(SeleniumConstants.BROWSER.toLowerCase())) {
-            return Browser.CHROME;
-        } else if (Browser.IE.is(SeleniumConstants.BROWSER.toLowerCase())) {
-            return Browser.IE;
-        } else if (Browser.SAFARI.is(SeleniumConstants.BROWSER.toLowerCase())) {
-            return Browser.SAFARI;
-        } else if (Browser.EDGE.is(SeleniumConstants.BROWSER.toLowerCase())) {
-            return Browser.EDGE;
-        } else if (Browser.OPERA.is(SeleniumConstants.BROWSER.toLowerCase())) {
-            return Browser.OPERA;
-        } else if (Browser.HTMLUNIT.is(SeleniumConstants.BROWSER.toLowerCase())) {
-            return Browser.HTMLUNIT;
-        } else if (Browser.FIREFOX.is(SeleniumConstants.BROWSER.toLowerCase())) {
-            return Browser.FIREFOX;
-        } else {
-            throw new RuntimeException(SeleniumConstants.BROWSER + " is not a valid browser option");
-        }
+        return DriverConfigs.toBrowser(SeleniumConstants.BROWSER);
+    }
+
+    /**
+     * @return The browser the session of the current test runs on
+     */
+    public Browser getSessionBrowser() {
+        return browser;
     }
 
     private boolean isHeadless() {
@@ -117,4 +298,27 @@ public class SeleniumBase extends TestBase {
         return driver;
     }
 
+    /**
+     * @return The driver the session was started with, without the listeners of {@link #getDriver()}. Unlike a
+     * {@link LazyDriver} it implements the interfaces of the browser's driver, e.g. {@code HasDevTools}; a lazy session
+     * is started by this call
+     */
+    public WebDriver getSessionDriver() {
+        if (!isSessionStarted()) {
+            driver.getWindowHandle();
+        }
+        return sessionDriver;
+    }
+
+    public ScreencastRecorder getScreencastRecorder() {
+        return screencastRecorder;
+    }
+
+    /**
+     * @return Whether the test has a browser session, false if it never used its {@link LazyDriver}
+     */
+    public boolean isSessionStarted() {
+        return LazyDriver.isStarted(driver);
+    }
+
 }
@@ -1,5 +1,7 @@
 package io.nsingla.selenium.actions;
 
+import io.nsingla.selenium.tracing.Tracer;
+
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.NoSuchWindowException;
@@ -49,15 +51,17 @@ public class BooleanChecks {
      * @return True if the web element is displayed
      */
     public boolean isElementDisplayed(By by) {
-        boolean present = false;
-        try {
-            present = driver.findElement(by).isDisplayed();
-            logger.debug("{} is displayed on the page", by.toString());
-            return present;
-        } catch (NoSuchElementException e) {
-            logger.debug("{} is not displayed on the page", by.toString());
-            return present;
-        }
+        return Tracer.trace("BooleanChecks.isElementDisplayed", Tracer.CHECK, by, () -> {
+            boolean present = false;
+            try {
+                present = driver.findElement(by).isDisplayed();
+                logger.debug("{} is displayed on the page", by.toString());
+                return present;
+            } catch (NoSuchElementException e) {
+                logger.debug("{} is not displayed on the page", by.toString());
+                return present;
+            }
+        });
     }
 
     /**
@@ -67,15 +71,17 @@ public class BooleanChecks {
      * @return True if the web element is displayed
      */
     public boolean isElementDisplayed(WebElement element) {
-        boolean present = false;
-        try {
-            present = element.isDisplayed();
-            logger.debug("{} is displayed on the page", element.toString());
-            return present;
-        } catch (NoSuchElementException e) {
-            logger.debug("{} is not displayed on the page", element.toString());
-            return present;
-        }
+        return Tracer.trace("BooleanChecks.isElementDisplayed", Tracer.CHECK, element, () -> {
+            boolean present = false;
+            try {
+                present = element.isDisplayed();
+                logger.debug("{} is displayed on the page", element.toString());
+                return present;
+            } catch (NoSuchElementException e) {
+                logger.debug("{} is not displayed on the page", element.toString());
+                return present;
+            }
+        });
     }
 
     /**
@@ -85,14 +91,16 @@ public class BooleanChecks {
      * @return Returns true if the web element is enabled
      */
     public boolean isElementEnabled(By by) {
-        boolean enabled = driver.findElement(by).isEnabled();
-        if (enabled) {
-            logger.debug("{} is enabled", by.toString());
-            return true;
-        } else {
-            logger.debug("{} is not enabled", by.toString());
-            return false;
-        }
+        return Tracer.trace("BooleanChecks.isElementEnabled", Tracer.CHECK, by, () -> {
+            boolean enabled = driver.findElement(by).isEnabled();
+            if (enabled) {
+                logger.debug("{} is enabled", by.toString());
+                return true;
+            } else {
+                logger.debug("{} is not enabled", by.toString());
+                return false;
+            }
+        });
     }
 
     /**
@@ -102,14 +110,16 @@ public class BooleanChecks {
      * @return Returns true if the web element is enabled
      */
     public boolean isElementEnabled(WebElement element) {
-        boolean enabled = element.isEnabled();
-        if (enabled) {
-            logger.debug("{} is enabled", element.toString());
-            return true;
-        } else {
-            logger.debug("{} is not enabled", element.toString());
-            return false;
-        }
+        return Tracer.trace("BooleanChecks.isElementEnabled", Tracer.CHECK, element, () -> {
+            boolean enabled = element.isEnabled();
+            if (enabled) {
+                logger.debug("{} is enabled", element.toString());
+                return true;
+            } else {
+                logger.debug("{} is not enabled", element.toString());
+                return false;
+            }
+        });
     }
 
     /**
@@ -119,14 +129,16 @@ public class BooleanChecks {
      * @return Returns true if the web element is selected
      */
     public boolean isElementSelected(By by) {
-        boolean selected = driver.findElement(by).isSelected();
-        if (selected) {
-            logger.debug("{} is selected", by.toString());
-            return true;
-        } else {
-            logger.debug("{} is not selected", by.toString());
-            return false;
-        }
+        return Tracer.trace("BooleanChecks.isElementSelected", Tracer.CHECK, by, () -> {
+            boolean selected = driver.findElement(by).isSelected();
+            if (selected) {
+                logger.debug("{} is selected", by.toString());
+                return true;
+            } else {
+                logger.debug("{} is not selected", by.toString());
+                return false;
+            }
+        });
     }
 
     /**
@@ -136,14 +148,16 @@ public class BooleanChecks {
      * @return Returns true if the web element is selected
      */
     public boolean isElementSelected(WebElement element) {
-        boolean selected = element.isSelected();
-        if (selected) {
-            logger.debug("{} is selected", element.toString());
-            return true;
-        } else {
-            logger.debug("{} is not selected", element.toString());
-            return false;
-        }
+        return Tracer.trace("BooleanChecks.isElementSelected", Tracer.CHECK, element, () -> {
+            boolean selected = element.isSelected();
+            if (selected) {
+                logger.debug("{} is selected", element.toString());
+                return true;
+            } else {
+                logger.debug("{} is not selected", element.toString());
+                return false;
+            }
+        });
     }
 
     /**
@@ -153,14 +167,16 @@ public class BooleanChecks {
      * @return Returns true if the web element is found
      */
     public boolean doesElementExist(By by) {
-        boolean exists = driver.findElements(by).size() > 0;
-        if (exists) {
-            logger.debug("{} exists in page", by.toString());
-            return true;
-        } else {
-            logger.debug("{} does not exist in page", by.toString());
-            return false;
-        }
+        return Tracer.trace("BooleanChecks.doesElementExist", Tracer.CHECK, by, () -> {
+            boolean exists = driver.findElements(by).size() > 0;
+            if (exists) {
+                logger.debug("{} exists in page", by.toString());
+                return true;
+            } else {
+                logger.debug("{} does not exist in page", by.toString());
+                return false;
+            }
+        });
     }
 
     /**
@@ -199,7 +215,7 @@ public class BooleanChecks {
      * @return If a particular child is found in the parent element
      */
     public boolean hasChild(WebElement parent, By child) {
-        return doesElementExist(parent.findElements(child));
+        return Tracer.trace("BooleanChecks.hasChild", Tracer.CHECK, child, () -> doesElementExist(parent.findElements(child)));
     }
 
     /**
@@ -208,13 +224,15 @@ public class BooleanChecks {
      * @return True if an alert is currently displayed
      */
     public boolean isBrowserAlertDisplayed() {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(2));
-        try {
-            wait.until(ExpectedConditions.alertIsPresent());
-            return true;
-        } catch (TimeoutException ignore) {
-            return false;
-        }
+        return Tracer.trace("BooleanChecks.isBrowserAlertDisplayed", Tracer.CHECK, () -> {
+            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(2));
+            try {
+                wait.until(ExpectedConditions.alertIsPresent());
+                return true;
+            } catch (TimeoutException ignore) {
+                return false;
+            }
+        });
     }
 
     /**
@@ -223,12 +241,14 @@ public class BooleanChecks {
      * @return True if the browser is closed
      */
     public boolean isBrowserClosed() {
-        try {
-            return driver.getWindowHandles().isEmpty();
-        } catch (UnreachableBrowserException | NoSuchWindowException ignored) {
-            // if browser is closed, driver will throw this exception
-            return true;
-        }
+        return Tracer.trace("BooleanChecks.isBrowserClosed", Tracer.CHECK, () -> {
+            try {
+                return driver.getWindowHandles().isEmpty();
+            } catch (UnreachableBrowserException | NoSuchWindowException ignored) {
+                // if browser is closed, driver will throw this exception
+                return true;
+            }
+        });
     }
 
     /**
@@ -250,7 +270,8 @@ public class BooleanChecks {
      * @return True if the text is found in the element
      */
     public boolean isTextPresentInElement(WebElement element, String text) {
-        return doesTextContainText(element.getText(), text);
+        return Tracer.trace("BooleanChecks.isTextPresentInElement", Tracer.CHECK, element,
+            () -> doesTextContainText(element.getText(), text));
     }
 
     /**
@@ -272,8 +293,10 @@ public class BooleanChecks {
      * @return True if element contains text
      */
     public boolean doesElementContainText(By by, String text) {
-        WebElement inputText = driver.findElement(by);
-        return !inputText.getAttribute(text).isEmpty();
+        return Tracer.trace("BooleanChecks.doesElementContainText", Tracer.CHECK, by, () -> {
+            WebElement inputText = driver.findElement(by);
+            return !inputText.getAttribute(text).isEmpty();
+        });
     }
 
     /**
@@ -363,13 +386,15 @@ public class BooleanChecks {
      * @return If the attribute value exists in the element
      */
     public boolean doesElementHaveAttributeValue(WebElement element, String attributeName, String attributeValue) {
-        if (element.getAttribute(attributeName).contains(attributeValue)) {
-            logger.debug("'{}' was found within the {} attribute of the web element: {}", attributeValue, attributeName, element.toString());
-            return true;
-        } else {
-            logger.debug("'{}' was not found within the {} attribute of the web element: {}", attributeValue, attributeName, element.toString());
-            return false;
-        }
+        return Tracer.trace("BooleanChecks.doesElementHaveAttributeValue", Tracer.CHECK, element, () -> {
+            if (element.getAttribute(attributeName).contains(attributeValue)) {
+                logger.debug("'{}' was found within the {} attribute of the web element: {}", attributeValue, attributeName, element.toString());
+                return true;
+            } else {
+                logger.debug("'{}' was not found within the {} attribute of the web element: {}", attributeValue, attributeName, element.toString());
+                return false;
+            }
+        });
     }
 
     /**
@@ -393,14 +418,16 @@ public class BooleanChecks {
      * @return If the attribute value exists in one of the elements
      */
     public boolean doesAnElementHaveAttributeValue(List<WebElement> elements, String attributeName, String attributeValue) {
-        for (WebElement element : elements) {
-            if (element.getAttribute(attributeName).contains(attributeValue)) {
-                logger.debug("'{}' was found within the {} attribute of the web elements: {}", attributeValue, attributeName, element.toString());
-                return true;
+        return Tracer.trace("BooleanChecks.doesAnElementHaveAttributeValue", Tracer.CHECK, () -> {
+            for (WebElement element : elements) {
+                if (element.getAttribute(attributeName).contains(attributeValue)) {
+                    logger.debug("'{}' was found within the {} attribute of the web elements: {}", attributeValue, attributeName, element.toString());
+                    return true;
+                }
             }
-        }
-        logger.debug("'{}' was not found within the {} attribute of the web elements: {}", attributeValue, attributeName, elements.toString());
-        return false;
+            logger.debug("'{}' was not found within the {} attribute of the web elements: {}", attributeValue, attributeName, elements.toString());
+            return false;
+        });
     }
 
     /**
@@ -410,13 +437,15 @@ public class BooleanChecks {
      * @return true if the element is clickable
      */
     public boolean isClickable(By by) {
-        WaitActions waitActions = new WaitActions(driver);
-        try {
-            waitActions.waitForElementIsClickable(by);
-            return true;
-        } catch (Exception e) {
-            logger.debug("Waiting for element to be clickable threw ", e);
-            return false;
-        }
+        return Tracer.trace("BooleanChecks.isClickable", Tracer.CHECK, by, () -> {
+            WaitActions waitActions = new WaitActions(driver);
+            try {
+                waitActions.waitForElementIsClickable(by);
+                return true;
+            } catch (Exception e) {
+                logger.debug("Waiting for element to be clickable threw ", e);
+                return false;
+            }
+        });
     }
 }
@@ -1,5 +1,7 @@
 package io.nsingla.selenium.actions;
 
+import io.nsingla.selenium.tracing.Tracer;
+
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
@@ -37,14 +39,16 @@ public class JSActions {
      * @return {@link String} of the output
      */
     public String executeJQuery(String scriptText) {
-        JavascriptExecutor jsExec = getJavascriptExecutorDriver();
-        String output = "";
-        if (jsExec != null) {
-            logger.info("Following JavaScript is going to be executed against browser: {}", scriptText);
-            output = (String) jsExec.executeScript(scriptText);
-            logger.info("JavaScript execution is complete.");
-        }
-        return output;
+        return Tracer.trace("JSActions.executeJQuery", Tracer.SCRIPT, () -> {
+            JavascriptExecutor jsExec = getJavascriptExecutorDriver();
+            String output = "";
+            if (jsExec != null) {
+                logger.info("Following JavaScript is going to be executed against browser: {}", scriptText);
+                output = (String) jsExec.executeScript(scriptText);
+                logger.info("JavaScript execution is complete.");
+            }
+            return output;
+        });
     }
 
     /**
@@ -53,11 +57,13 @@ public class JSActions {
      * @param scriptText The script's text, which will be executed
      */
     public void executeScript(String scriptText) {
-        JavascriptExecutor jsExec = getJavascriptExecutorDriver();
-        if (jsExec != null) {
-            jsExec.executeScript(scriptText);
-            logger.info("Following JavaScript was executed against browser: {}", scriptText);
-        }
+        Tracer.trace("JSActions.executeScript", Tracer.SCRIPT, () -> {
+            JavascriptExecutor jsExec = getJavascriptExecutorDriver();
+            if (jsExec != null) {
+                jsExec.executeScript(scriptText);
+                logger.info("Following JavaScript was executed against browser: {}", scriptText);
+            }
+        });
     }
 
     /**
@@ -67,11 +73,13 @@ public class JSActions {
      * @param by         The selector, which the script will be executed against
      */
     public void executeScript(String scriptText, By by) {
-        JavascriptExecutor jsExec = getJavascriptExecutorDriver();
-        if (jsExec != null) {
-            jsExec.executeScript(scriptText, driver.findElement(by));
-            logger.info("Following JavaScript: '{}' was executed against: {}", scriptText, by.toString());
-        }
+        Tracer.trace("JSActions.executeScript", Tracer.SCRIPT, by, () -> {
+            JavascriptExecutor jsExec = getJavascriptExecutorDriver();
+            if (jsExec != null) {
+                jsExec.executeScript(scriptText, driver.findElement(by));
+                logger.info("Following JavaScript: '{}' was executed against: {}", scriptText, by.toString());
+            }
+        });
     }
 
     /**
@@ -81,11 +89,13 @@ public class JSActions {
      * @param element    The selector, which the script will be executed against
      */
     public void executeScript(String scriptText, WebElement element) {
-        JavascriptExecutor jsExec = getJavascriptExecutorDriver();
-        if (jsExec != null) {
-            jsExec.executeScript(scriptText, element);
-            logger.info("Following JavaScript: '{}' was executed against: {}", scriptText, element.toString());
-        }
+        Tracer.trace("JSActions.executeScript", Tracer.SCRIPT, element, () -> {
+            JavascriptExecutor jsExec = getJavascriptExecutorDriver();
+            if (jsExec != null) {
+                jsExec.executeScript(scriptText, element);
+                logger.info("Following JavaScript: '{}' was executed against: {}", scriptText, element.toString());
+            }
+        });
     }
 
     /**
@@ -96,13 +106,15 @@ public class JSActions {
      * @return {@link WebElement} against which the script was executed
      */
     public WebElement executeScript(String scriptText, String otherText) {
-        JavascriptExecutor jsExec = getJavascriptExecutorDriver();
-        WebElement element = null;
-        if (jsExec != null) {
-            element = (WebElement) jsExec.executeScript(scriptText, otherText);
-            logger.info("Following JavaScript: '{}' was executed against: {}", scriptText, otherText);
-        }
-        return element;
+        return Tracer.trace("JSActions.executeScript", Tracer.SCRIPT, otherText, () -> {
+            JavascriptExecutor jsExec = getJavascriptExecutorDriver();
+            WebElement element = null;
+            if (jsExec != null) {
+                element = (WebElement) jsExec.executeScript(scriptText, otherText);
+                logger.info("Following JavaScript: '{}' was executed against: {}", scriptText, otherText);
+            }
+            return element;
+        });
     }
 
     public void makeElementVisible(WebElement element) {
@@ -1,5 +1,7 @@
 package io.nsingla.selenium.actions;
 
+import io.nsingla.selenium.tracing.Tracer;
+
 import org.junit.jupiter.api.Assertions;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
@@ -17,10 +19,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PageActions {
 
     private static final Logger logger = LoggerFactory.getLogger(PageActions.class);
+    private static final Set<String> JS_LOCATORS = Set.of("css selector", "xpath", "id", "name", "class name", "tag name");
+    // the native value setter, as frameworks like React ignore values assigned through the element's own property
+    private static final String FILL_FORM_SCRIPT = "var missing = [];"
+        + "arguments[0].forEach(function (field) {"
+        + "  var el = field[0] === 'element' ? field[1]"
+        + "    : field[0] === 'id' ? document.getElementById(field[1])"
+        + "    : field[0] === 'name' ? document.getElementsByName(field[1])[0]"
+        + "    : field[0] === 'class name' ? document.getElementsByClassName(field[1])[0]"
+        + "    : field[0] === 'tag name' ? document.getElementsByTagName(field[1])[0]"
+        + "    : field[0] === 'xpath' ? document.evaluate(field[1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue"
+        + "    : document.querySelector(field[1]);"
+        + "  if (!el || el.disabled || el.readOnly) { missing.push(field[3]); return; }"
+        + "  if (el.type === 'checkbox' || el.type === 'radio') {"
+        + "    if (el.checked !== (field[2] === 'true')) { el.click(); }"
+        + "  } else {"
+        + "    var proto = Object.getPrototypeOf(el);"
+        + "    var setter = Object.getOwnPropertyDescriptor(proto, 'value');"
+        + "    if (setter && setter.set) { setter.set.call(el, field[2]); } else { el.value = field[2]; }"
+        + "    el.dispatchEvent(new Event('input', {bubbles: true}));"
+        + "    el.dispatchEvent(new Event('change', {bubbles: true}));"
+        + "  }"
+        + "  el.dispatchEvent(new FocusEvent('blur'));"
+        + "  el.dispatchEvent(new FocusEvent('focusout', {bubbles: true}));"
+        + "});"
+        + "return missing;";
 
     private final WebDriver driver;
     private final WaitActions waitActions;
@@ -38,8 +71,10 @@ public class PageActions {
      * @param text The text that is displayed in the link
      */
     public void clickOnLink(String text) {
-        driver.findElement(By.linkText(text)).click();
-        logger.info("{} link was clicked.", text);
+        Tracer.trace("PageActions.clickOnLink", Tracer.ACTION, text, () -> {
+            driver.findElement(By.linkText(text)).click();
+            logger.info("{} link was clicked.", text);
+        });
     }
 
     /**
@@ -48,8 +83,10 @@ public class PageActions {
      * @param text The partial text that is displayed in the link
      */
     public void clickOnPartialLink(String text) {
-        driver.findElement(By.partialLinkText(text)).click();
-        logger.info("{} partial link was clicked.", text);
+        Tracer.trace("PageActions.clickOnPartialLink", Tracer.ACTION, text, () -> {
+            driver.findElement(By.partialLinkText(text)).click();
+            logger.info("{} partial link was clicked.", text);
+        });
     }
 
     /**
@@ -63,22 +100,24 @@ public class PageActions {
      * @param timeout      intelligent (explicit) time to wait before failing the test
      */
     public void ifExistsPerformClick(By byType, Boolean failTestCase, long timeout) {
-        try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-            if (wait.until(ExpectedConditions.elementToBeClickable(byType)) != null) {
-                WebElement element = driver.findElement(byType);
-                ((JavascriptExecutor) driver).executeScript("window.scrollTo(0," + element.getLocation().y + ")");
-                Actions actions = new Actions(driver);
-                actions.moveToElement(element).click().perform();
-                logger.info("Clicking Element {}", byType);
-            }
-        } catch (Exception e) {
-            if (failTestCase) {
-                logger.info("TIMEOUT EXCEPTION element does not exist after explicit wait of {} seconds - {}", timeout, byType);
-                Assertions.fail(
-                    "TIMEOUT EXCEPTION element does not exist after waiting " + timeout + " seconds - " + byType);
+        Tracer.trace("PageActions.ifExistsPerformClick", Tracer.ACTION, byType, () -> {
+            try {
+                WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
+                if (wait.until(ExpectedConditions.elementToBeClickable(byType)) != null) {
+                    WebElement element = driver.findElement(byType);
+                    ((JavascriptExecutor) driver).executeScript("window.scrollTo(0," + element.getLocation().y + ")");
+                    Actions actions = new Actions(driver);
+                    actions.moveToElement(element).click().perform();
+                    logger.info("Clicking Element {}", byType);
+                }
+            } catch (Exception e) {
+                if (failTestCase) {
+                    logger.info("TIMEOUT EXCEPTION element does not exist after explicit wait of {} seconds - {}", timeout, byType);
+                    Assertions.fail(
+                        "TIMEOUT EXCEPTION element does not exist after waiting " + timeout + " seconds - " + byType);
+                }
             }
-        }
+        });
     }
 
     /**
@@ -87,8 +126,10 @@ public class PageActions {
      * @param by The selector to execute the Click on.
      */
     public void click(By by) {
-        click(driver.findElement(by));
-        logger.info("Clicking Element {}", by);
+        Tracer.trace("PageActions.click", Tracer.ACTION, by, () -> {
+            click(driver.findElement(by));
+            logger.info("Clicking Element {}", by);
+        });
     }
 
     /**
@@ -97,9 +138,11 @@ public class PageActions {
      * @param element The selector to execute the Click on.
      */
     public void click(WebElement element) {
-        waitActions.waitForElementIsClickable(element);
-        element.click();
-        logger.info("{} was clicked", element.toString());
+        Tracer.trace("PageActions.click", Tracer.ACTION, element, () -> {
+            waitActions.waitForElementIsClickable(element);
+            element.click();
+            logger.info("{} was clicked", element.toString());
+        });
     }
 
     /**
@@ -109,18 +152,20 @@ public class PageActions {
      * @param by The selector to search through and eventually click
      */
     public void clickOneOf(By by) {
-        waitActions.waitForElementPresent(by);
-        for (WebElement element : driver.findElements(by)) {
-            if (booleanChecks.isElementDisplayed(element)) {
-                if (booleanChecks.isElementEnabled(element)) {
-                    try {
-                        click(element);
-                    } catch (NoSuchElementException mseE) {
-                        logger.warn("Element was not found, continuing to loop through", mseE);
+        Tracer.trace("PageActions.clickOneOf", Tracer.ACTION, by, () -> {
+            waitActions.waitForElementPresent(by);
+            for (WebElement element : driver.findElements(by)) {
+                if (booleanChecks.isElementDisplayed(element)) {
+                    if (booleanChecks.isElementEnabled(element)) {
+                        try {
+                            click(element);
+                        } catch (NoSuchElementException mseE) {
+                            logger.warn("Element was not found, continuing to loop through", mseE);
+                        }
                     }
                 }
             }
-        }
+        });
     }
 
     /**
@@ -130,14 +175,16 @@ public class PageActions {
      * @param by The selector to find all elements of and click
      */
     public void clickAll(By by) {
-        waitActions.waitForElementPresent(by);
-        for (WebElement element : driver.findElements(by)) {
-            if (booleanChecks.isElementDisplayed(element)) {
-                if (booleanChecks.isElementEnabled(element)) {
-                    click(element);
+        Tracer.trace("PageActions.clickAll", Tracer.ACTION, by, () -> {
+            waitActions.waitForElementPresent(by);
+            for (WebElement element : driver.findElements(by)) {
+                if (booleanChecks.isElementDisplayed(element)) {
+                    if (booleanChecks.isElementEnabled(element)) {
+                        click(element);
+                    }
                 }
             }
-        }
+        });
     }
 
     /**
@@ -146,10 +193,12 @@ public class PageActions {
      * @param by The selector to execute the Left Click on.
      */
     public void leftClick(By by) {
-        waitActions.waitForElementIsClickable(by);
-        Actions builder = new Actions(driver);
-        builder.click(driver.findElement(by)).perform();
-        logger.info("{} was left clicked", by.toString());
+        Tracer.trace("PageActions.leftClick", Tracer.ACTION, by, () -> {
+            waitActions.waitForElementIsClickable(by);
+            Actions builder = new Actions(driver);
+            builder.click(driver.findElement(by)).perform();
+            logger.info("{} was left clicked", by.toString());
+        });
     }
 
     /**
@@ -158,26 +207,32 @@ public class PageActions {
      * @param by The selector to execute the Tab against.
      */
     public void pressTab(By by) {
-        driver.findElement(by).sendKeys(Keys.TAB);
-        logger.info("Test has entered a TAB key");
+        Tracer.trace("PageActions.pressTab", Tracer.ACTION, by, () -> {
+            driver.findElement(by).sendKeys(Keys.TAB);
+            logger.info("Test has entered a TAB key");
+        });
     }
 
     /**
      * Performs a Tab action without an object.
      */
     public void pressTab() {
-        Actions tab = new Actions(driver);
-        tab.sendKeys(Keys.TAB).build().perform();
-        logger.info("Test has entered a TAB key");
+        Tracer.trace("PageActions.pressTab", Tracer.ACTION, () -> {
+            Actions tab = new Actions(driver);
+            tab.sendKeys(Keys.TAB).build().perform();
+            logger.info("Test has entered a TAB key");
+        });
     }
 
     /**
      * Performs an Enter action without an object.
      */
     public void pressEnter() {
-        Actions enter = new Actions(driver);
-        enter.sendKeys(Keys.ENTER).build().perform();
-        logger.info("Test has pressed the ENTER key");
+        Tracer.trace("PageActions.pressEnter", Tracer.ACTION, () -> {
+            Actions enter = new Actions(driver);
+            enter.sendKeys(Keys.ENTER).build().perform();
+            logger.info("Test has pressed the ENTER key");
+        });
     }
 
     /**
@@ -186,17 +241,21 @@ public class PageActions {
      * @param by The selector to execute the Enter against.
      */
     public void pressEnter(By by) {
-        driver.findElement(by).sendKeys(Keys.ENTER);
-        logger.info("Test has entered a ENTER key");
+        Tracer.trace("PageActions.pressEnter", Tracer.ACTION, by, () -> {
+            driver.findElement(by).sendKeys(Keys.ENTER);
+            logger.info("Test has entered a ENTER key");
+        });
     }
 
     /**
      * Performs an Return action without an object.
      */
     public void pressReturn() {
-        Actions returnPress = new Actions(driver);
-        returnPress.sendKeys(Keys.RETURN).build().perform();
-        logger.info("Test has pressed the RETURN key");
+        Tracer.trace("PageActions.pressReturn", Tracer.ACTION, () -> {
+            Actions returnPress = new Actions(driver);
+            returnPress.sendKeys(Keys.RETURN).build().perform();
+            logger.info("Test has pressed the RETURN key");
+        });
     }
 
     /**
@@ -205,8 +264,10 @@ public class PageActions {
      * @param by The selector to execute the Return against.
      */
     public void pressReturn(By by) {
-        driver.findElement(by).sendKeys(Keys.RETURN);
-        logger.info("Test has entered a RETURN key");
+        Tracer.trace("PageActions.pressReturn", Tracer.ACTION, by, () -> {
+            driver.findElement(by).sendKeys(Keys.RETURN);
+            logger.info("Test has entered a RETURN key");
+        });
     }
 
     /**
@@ -218,10 +279,12 @@ public class PageActions {
      * @param by          The selector to choose from the Context Menu.
      */
     public void rightClick(WebElement contextMenu, By by) {
-        logger.info("Attempting Right Click on {} menu choice", contextMenu);
-        Actions builder = new Actions(driver);
-        builder.contextClick(contextMenu).click(driver.findElement(by)).perform();
-        logger.info("Test has opened {} and clicked", contextMenu);
+        Tracer.trace("PageActions.rightClick", Tracer.ACTION, by, () -> {
+            logger.info("Attempting Right Click on {} menu choice", contextMenu);
+            Actions builder = new Actions(driver);
+            builder.contextClick(contextMenu).click(driver.findElement(by)).perform();
+            logger.info("Test has opened {} and clicked", contextMenu);
+        });
     }
 
     /**
@@ -230,8 +293,10 @@ public class PageActions {
      * @param by The selector to clear.
      */
     public void clearTextArea(By by) {
-        driver.findElement(by).clear();
-        logger.info("Cleared Text Area");
+        Tracer.trace("PageActions.clearTextArea", Tracer.ACTION, by, () -> {
+            driver.findElement(by).clear();
+            logger.info("Cleared Text Area");
+        });
     }
 
     /**
@@ -241,8 +306,51 @@ public class PageActions {
      * @param text The text to type into the selector.
      */
     public void typeText(By by, String text) {
-        driver.findElement(by).sendKeys(text);
-        logger.info("\"{}\" has been typed into {}", text, by.toString());
+        Tracer.trace("PageActions.typeText", Tracer.ACTION, by, () -> {
+            driver.findElement(by).sendKeys(text);
+            logger.info("\"{}\" has been typed into {}", text, by.toString());
+        });
+    }
+
+    /**
+     * Sets the values of a form in one script instead of typing into every field, dispatching the input, change and
+     * blur events a user would cause. Checkboxes and radio buttons take "true" or "false".
+     *
+     * @param values Values by selector, filled in the order of the map
+     * @param typed  Fields of {@code values} typed into after the others are set, e.g. fields reacting to key events
+     * @throws NoSuchElementException if a field does not exist or is disabled or read-only
+     */
+    public void fillForm(Map<By, String> values, By... typed) {
+        Tracer.trace("PageActions.fillForm", Tracer.ACTION, () -> {
+            Set<By> keystrokes = new HashSet<>(Arrays.asList(typed));
+            List<List<Object>> fields = new ArrayList<>();
+            for (Map.Entry<By, String> value : values.entrySet()) {
+                By by = value.getKey();
+                if (keystrokes.contains(by)) {
+                    continue;
+                }
+                By.Remotable.Parameters locator = by instanceof By.Remotable ? ((By.Remotable) by).getRemoteParameters() : null;
+                if (locator != null && JS_LOCATORS.contains(locator.using())) {
+                    fields.add(Arrays.asList(locator.using(), locator.value(), value.getValue(), by.toString()));
+                } else {
+                    // e.g. link text, located by the driver
+                    fields.add(Arrays.asList("element", driver.findElement(by), value.getValue(), by.toString()));
+                }
+            }
+            if (!fields.isEmpty()) {
+                List<?> missing = (List<?>) ((JavascriptExecutor) driver).executeScript(FILL_FORM_SCRIPT, fields);
+                if (!missing.isEmpty()) {
+                    throw new NoSuchElementException("Cannot fill form fields " + missing + ", they do not exist or are not editable");
+                }
+                logger.info("Filled {} form fields", fields.size());
+            }
+            for (Map.Entry<By, String> value : values.entrySet()) {
+                if (keystrokes.contains(value.getKey())) {
+                    clearTextArea(value.getKey());
+                    typeText(value.getKey(), value.getValue());
+                }
+            }
+        });
     }
 
     /**
@@ -260,20 +368,22 @@ public class PageActions {
      *                  exist
      */
     public void ifExistsType(By byType, String text, long timeout, int delayTime) {
-        waitActions.pauseTest(delayTime);
-        try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-            if (wait.until(ExpectedConditions.visibilityOfElementLocated(byType)) != null) {
-                WebElement element = driver.findElement(byType);
-                element.clear();
-                element.sendKeys(text);
-                logger.info("Sending text to Element {}", byType);
+        Tracer.trace("PageActions.ifExistsType", Tracer.ACTION, byType, () -> {
+            waitActions.pauseTest(delayTime);
+            try {
+                WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
+                if (wait.until(ExpectedConditions.visibilityOfElementLocated(byType)) != null) {
+                    WebElement element = driver.findElement(byType);
+                    element.clear();
+                    element.sendKeys(text);
+                    logger.info("Sending text to Element {}", byType);
+                }
+            } catch (Exception e) {
+                logger.info("TIMEOUT EXCEPTION element does not exist after explicit wait of {} seconds - {}", timeout, byType);
+                Assertions.fail("TIMEOUT EXCEPTION element does not exist after explicit wait of " + timeout + " seconds - "
+                    + byType);
             }
-        } catch (Exception e) {
-            logger.info("TIMEOUT EXCEPTION element does not exist after explicit wait of {} seconds - {}", timeout, byType);
-            Assertions.fail("TIMEOUT EXCEPTION element does not exist after explicit wait of " + timeout + " seconds - "
-                + byType);
-        }
+        });
     }
 
     /**
@@ -283,13 +393,17 @@ public class PageActions {
      * @param text The text to be selected.
      */
     public void selectByText(By by, String text) {
-        waitActions.waitForElementPresent(by);
-        new Select(driver.findElement(by)).selectByVisibleText(text);
+        Tracer.trace("PageActions.selectByText", Tracer.ACTION, by, () -> {
+            waitActions.waitForElementPresent(by);
+            new Select(driver.findElement(by)).selectByVisibleText(text);
+        });
     }
 
     public void hoverOverElement(By by) {
-        WebElement element = driver.findElement(by);
-        hoverOverElement(element);
+        Tracer.trace("PageActions.hoverOverElement", Tracer.ACTION, by, () -> {
+            WebElement element = driver.findElement(by);
+            hoverOverElement(element);
+        });
     }
 
     /**
@@ -298,35 +412,42 @@ public class PageActions {
      * @param element The selector, which will be hovered over
      */
     public void hoverOverElement(WebElement element) {
-        Actions builder = new Actions(driver);
-        Actions hoverOverElement = builder.moveToElement(element);
-        hoverOverElement.perform();
-        // If it is IE then there is an issue where the hover over keeps
-        // flickering
-        // https://code.google.com/p/selenium/wiki/InternetExplorerDriver#Hovering_Over_Elements
-        if (driver instanceof InternetExplorerDriver) {
-            // move away to avoid the flicker
-            Actions moveAway = builder.moveByOffset(200, 0);
-            moveAway.perform();
-        }
+        Tracer.trace("PageActions.hoverOverElement", Tracer.ACTION, element, () -> {
+            Actions builder = new Actions(driver);
+            Actions hoverOverElement = builder.moveToElement(element);
+            hoverOverElement.perform();
+            // If it is IE then there is an issue where the hover over keeps
+            // flickering
+            // https://code.google.com/p/selenium/wiki/InternetExplorerDriver#Hovering_Over_Elements
+            if (driver instanceof InternetExplorerDriver) {
+                // move away to avoid the flicker
+                Actions moveAway = builder.moveByOffset(200, 0);
+                moveAway.perform();
+            }
+        });
     }
 
     public void moveToThenClickOnElement(By by) {
-        moveToThenClickOnElement(driver.findElement(by));
+        Tracer.trace("PageActions.moveToThenClickOnElement", Tracer.ACTION, by, () -> moveToThenClickOnElement(driver.findElement(by)));
     }
 
     public void moveToThenClickOnElement(WebElement element) {
-        Actions myAction = new Actions(driver);
-        myAction.moveToElement(element).click().perform();
+        Tracer.trace("PageActions.moveToThenClickOnElement", Tracer.ACTION, element, () -> {
+            Actions myAction = new Actions(driver);
+            myAction.moveToElement(element).click().perform();
+        });
     }
 
     public void moveToThenDoubleClickOnElement(By by) {
-        moveToThenDoubleClickOnElement(driver.findElement(by));
+        Tracer.trace("PageActions.moveToThenDoubleClickOnElement", Tracer.ACTION, by,
+            () -> moveToThenDoubleClickOnElement(driver.findElement(by)));
     }
 
     public void moveToThenDoubleClickOnElement(WebElement element) {
-        Actions myAction = new Actions(driver);
-        myAction.moveToElement(element).doubleClick().perform();
+        Tracer.trace("PageActions.moveToThenDoubleClickOnElement", Tracer.ACTION, element, () -> {
+            Actions myAction = new Actions(driver);
+            myAction.moveToElement(element).doubleClick().perform();
+        });
     }
 
     /**
@@ -338,11 +459,13 @@ public class PageActions {
      * @param by the selector representing the element to scroll to.
      */
     public void scrollToThenClickElement(By by) {
-        WebElement element = driver.findElement(by);
-        int elementPosition = element.getLocation().getY();
-        String js = String.format("window.scroll(0, %s)", elementPosition);
-        ((JavascriptExecutor) driver).executeScript(js);
-        element.click();
+        Tracer.trace("PageActions.scrollToThenClickElement", Tracer.ACTION, by, () -> {
+            WebElement element = driver.findElement(by);
+            int elementPosition = element.getLocation().getY();
+            String js = String.format("window.scroll(0, %s)", elementPosition);
+            ((JavascriptExecutor) driver).executeScript(js);
+            element.click();
+        });
     }
 
     /**
@@ -354,11 +477,13 @@ public class PageActions {
      * @param offset the offset, in pixels, to shift up by.
      */
     public void scrollToThenClickElement(By by, int offset) {
-        WebElement element = driver.findElement(by);
-        int elementPosition = (element.getLocation().getY() - offset);
-        String js = String.format("window.scroll(0, %s)", elementPosition);
-        ((JavascriptExecutor) driver).executeScript(js);
-        element.click();
+        Tracer.trace("PageActions.scrollToThenClickElement", Tracer.ACTION, by, () -> {
+            WebElement element = driver.findElement(by);
+            int elementPosition = (element.getLocation().getY() - offset);
+            String js = String.format("window.scroll(0, %s)", elementPosition);
+            ((JavascriptExecutor) driver).executeScript(js);
+            element.click();
+        });
     }
 
     /**
@@ -368,13 +493,15 @@ public class PageActions {
      * @param text the item to select
      */
     public void selectMenuItem(By by, String text) {
-        WebElement menu = driver.findElement(by);
-        Select dropDown = new Select(menu);
-        try {
-            dropDown.selectByVisibleText(text);
-        } catch (NoSuchElementException e) {
-            dropDown.selectByValue(text);
-        }
+        Tracer.trace("PageActions.selectMenuItem", Tracer.ACTION, by, () -> {
+            WebElement menu = driver.findElement(by);
+            Select dropDown = new Select(menu);
+            try {
+                dropDown.selectByVisibleText(text);
+            } catch (NoSuchElementException e) {
+                dropDown.selectByValue(text);
+            }
+        });
     }
 
     /**
@@ -383,14 +510,18 @@ public class PageActions {
      * @param index The number, which element will be selected from the dropdown
      */
     public void selectMenuByIndex(By by, int index) {
-        WebElement menu = driver.findElement(by);
-        Select dropDown = new Select(menu);
-        dropDown.selectByIndex(index);
+        Tracer.trace("PageActions.selectMenuByIndex", Tracer.ACTION, by, () -> {
+            WebElement menu = driver.findElement(by);
+            Select dropDown = new Select(menu);
+            dropDown.selectByIndex(index);
+        });
     }
 
     public void submitForm(By by) {
-        WebElement formElem = driver.findElement(by);
-        formElem.submit();
+        Tracer.trace("PageActions.submitForm", Tracer.ACTION, by, () -> {
+            WebElement formElem = driver.findElement(by);
+            formElem.submit();
+        });
     }
 
     /**
@@ -400,12 +531,14 @@ public class PageActions {
      * @param target The selector, to which will be dropped
      */
     public void dragAndDrop(By source, By target) {
-        Actions builder = new Actions(driver);
+        Tracer.trace("PageActions.dragAndDrop", Tracer.ACTION, source, () -> {
+            Actions builder = new Actions(driver);
 
-        Action dragAndDrop = builder.clickAndHold(driver.findElement(source)).moveToElement(driver.findElement(target))
-            .release(driver.findElement(target)).build();
+            Action dragAndDrop = builder.clickAndHold(driver.findElement(source)).moveToElement(driver.findElement(target))
+                .release(driver.findElement(target)).build();
 
-        dragAndDrop.perform();
+            dragAndDrop.perform();
+        });
     }
 
     /**
@@ -418,16 +551,18 @@ public class PageActions {
      * @param target the selector of the target area
      */
     public void dragAndThenDrop(By source, By target) {
-        Actions builder = new Actions(driver);
-
-        // Select and hold, then drag, and then hover an element over a target
-        Action drag = builder.clickAndHold(driver.findElement(source)).moveToElement(driver.findElement(target)).build();
-        drag.perform();
-
-        // While hovering get the target element again and then perform the
-        // release
-        Action drop = builder.release(driver.findElement(target)).build();
-        drop.perform();
+        Tracer.trace("PageActions.dragAndThenDrop", Tracer.ACTION, source, () -> {
+            Actions builder = new Actions(driver);
+
+            // Select and hold, then drag, and then hover an element over a target
+            Action drag = builder.clickAndHold(driver.findElement(source)).moveToElement(driver.findElement(target)).build();
+            drag.perform();
+
+            // While hovering get the target element again and then perform the
+            // release
+            Action drop = builder.release(driver.findElement(target)).build();
+            drop.perform();
+        });
     }
 
 }
@@ -6,6 +6,11 @@ import static org.openqa.selenium.support.ui.ExpectedConditions.not;
 import static org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated;
 import static org.openqa.selenium.support.ui.ExpectedConditions.textToBePresentInElementLocated;
 
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.jfr.WaitEvent;
+import io.nsingla.selenium.tracing.Span;
+import io.nsingla.selenium.tracing.Tracer;
+
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
@@ -22,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class WaitActions {
 
@@ -54,13 +60,15 @@ public class WaitActions {
      * @param seconds To wait
      */
     public void pauseTest(int seconds) {
-        logger.debug("Pausing test execution for {} seconds", seconds);
-        try {
-            Thread.sleep(seconds * 1000L);
-        } catch (InterruptedException e) {
-            logger.error("InterruptedException occurred when pausing test", e);
-        }
-        logger.debug("Resuming test playback.");
+        Tracer.trace("WaitActions.pauseTest", Tracer.WAIT, () -> {
+            logger.debug("Pausing test execution for {} seconds", seconds);
+            try {
+                Thread.sleep(seconds * 1000L);
+            } catch (InterruptedException e) {
+                logger.error("InterruptedException occurred when pausing test", e);
+            }
+            logger.debug("Resuming test playback.");
+        });
     }
 
     /**
@@ -70,10 +78,12 @@ public class WaitActions {
      * @return {@link WebElement}
      */
     public WebElement waitForElementPresent(By by) {
-        logger.debug("Waiting for {} to be present on the page...", by.toString());
-        ExpectedCondition<WebElement> condition = ExpectedConditions.presenceOfElementLocated(by);
-        return waitWithCondition(condition, defaultWait, "Element by " + by.toString() + " still not present " +
-            "after " + defaultWait + " seconds wait");
+        return Tracer.trace("WaitActions.waitForElementPresent", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for {} to be present on the page...", by.toString());
+            ExpectedCondition<WebElement> condition = ExpectedConditions.presenceOfElementLocated(by);
+            return waitWithCondition(condition, defaultWait, "Element by " + by.toString() + " still not present " +
+                "after " + defaultWait + " seconds wait");
+        });
     }
 
     /**
@@ -83,10 +93,12 @@ public class WaitActions {
      * @return {@link WebElement}
      */
     public WebElement waitForElementPresent(WebElement webElement) {
-        logger.debug("Waiting for {} to be present on the page...", webElement.toString());
-        ExpectedCondition<WebElement> condition = ExpectedConditions.visibilityOf(webElement);
-        return waitWithCondition(condition, defaultWait, "Element by " + webElement.toString() + " still not present " +
-            "after " + defaultWait + " seconds wait");
+        return Tracer.trace("WaitActions.waitForElementPresent", Tracer.WAIT, webElement, () -> {
+            logger.debug("Waiting for {} to be present on the page...", webElement.toString());
+            ExpectedCondition<WebElement> condition = ExpectedConditions.visibilityOf(webElement);
+            return waitWithCondition(condition, defaultWait, "Element by " + webElement.toString() + " still not present " +
+                "after " + defaultWait + " seconds wait");
+        });
     }
 
     /**
@@ -97,10 +109,12 @@ public class WaitActions {
      * @return {@link WebElement}
      */
     public WebElement waitForElementPresent(WebElement webElement, int waitTime) {
-        logger.debug("Waiting for {} to be present on the page...", webElement.toString());
-        ExpectedCondition<WebElement> condition = ExpectedConditions.visibilityOf(webElement);
-        return waitWithCondition(condition, waitTime, "Element by " + webElement.toString() + " still not present " +
-            "after " + waitTime + " seconds wait");
+        return Tracer.trace("WaitActions.waitForElementPresent", Tracer.WAIT, webElement, () -> {
+            logger.debug("Waiting for {} to be present on the page...", webElement.toString());
+            ExpectedCondition<WebElement> condition = ExpectedConditions.visibilityOf(webElement);
+            return waitWithCondition(condition, waitTime, "Element by " + webElement.toString() + " still not present " +
+                "after " + waitTime + " seconds wait");
+        });
     }
 
     /**
@@ -110,10 +124,12 @@ public class WaitActions {
      * @return {@link WebElement}
      */
     public WebElement waitForElementToBeVisible(By by) {
-        logger.debug("Waiting for {} to be present on the page...", by.toString());
-        ExpectedCondition<WebElement> condition = ExpectedConditions.visibilityOfElementLocated(by);
-        return waitWithCondition(condition, defaultWait, "Element by " + by.toString() + " still not present " +
-            "after " + defaultWait + " seconds wait");
+        return Tracer.trace("WaitActions.waitForElementToBeVisible", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for {} to be present on the page...", by.toString());
+            ExpectedCondition<WebElement> condition = ExpectedConditions.visibilityOfElementLocated(by);
+            return waitWithCondition(condition, defaultWait, "Element by " + by.toString() + " still not present " +
+                "after " + defaultWait + " seconds wait");
+        });
     }
 
     /**
@@ -122,9 +138,11 @@ public class WaitActions {
      * @param by The selector to wait for
      */
     public void waitForElementNotPresent(By by) {
-        logger.debug("Waiting for {} to not be present on the page.", by.toString());
-        waitWithCondition(not(presenceOfElementLocated(by)), defaultWait, "Element by " + by.toString() + " still present " +
-            "after " + defaultWait + " seconds wait");
+        Tracer.trace("WaitActions.waitForElementNotPresent", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for {} to not be present on the page.", by.toString());
+            waitWithCondition(not(presenceOfElementLocated(by)), defaultWait, "Element by " + by.toString() + " still present " +
+                "after " + defaultWait + " seconds wait");
+        });
     }
 
     /**
@@ -134,10 +152,12 @@ public class WaitActions {
      * @return {@link WebElement}
      */
     public WebElement waitForElementIsClickable(By by) {
-        logger.debug("Waiting for {} to be clickable...  Waiting for {} seconds", by.toString(), defaultWait);
-        ExpectedCondition<WebElement> condition = ExpectedConditions.elementToBeClickable(by);
-        return waitWithCondition(condition, defaultWait, "Element by " + by.toString() + " still not clickable " +
-            "after " + defaultWait + " seconds wait");
+        return Tracer.trace("WaitActions.waitForElementIsClickable", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for {} to be clickable...  Waiting for {} seconds", by.toString(), defaultWait);
+            ExpectedCondition<WebElement> condition = ExpectedConditions.elementToBeClickable(by);
+            return waitWithCondition(condition, defaultWait, "Element by " + by.toString() + " still not clickable " +
+                "after " + defaultWait + " seconds wait");
+        });
     }
 
     /**
@@ -147,10 +167,12 @@ public class WaitActions {
      * @return {@link WebElement}
      */
     public WebElement waitForElementIsClickable(WebElement webElement) {
-        logger.debug("Waiting for {} to be clickable...  Waiting for {} seconds", webElement.toString(), defaultWait);
-        ExpectedCondition<WebElement> condition = ExpectedConditions.elementToBeClickable(webElement);
-        return waitWithCondition(condition, defaultWait, "Element by " + webElement.toString() + " still not clickable " +
-            "after " + defaultWait + " seconds wait");
+        return Tracer.trace("WaitActions.waitForElementIsClickable", Tracer.WAIT, webElement, () -> {
+            logger.debug("Waiting for {} to be clickable...  Waiting for {} seconds", webElement.toString(), defaultWait);
+            ExpectedCondition<WebElement> condition = ExpectedConditions.elementToBeClickable(webElement);
+            return waitWithCondition(condition, defaultWait, "Element by " + webElement.toString() + " still not clickable " +
+                "after " + defaultWait + " seconds wait");
+        });
     }
 
     /**
@@ -159,10 +181,12 @@ public class WaitActions {
      * @param by - The selector to wait for
      */
     public void waitForElementIsNotClickable(By by) {
-        logger.debug("Waiting for {} to not be clickable.", by.toString());
-        ExpectedCondition<Boolean> condition = ExpectedConditions.not(elementToBeClickable(by));
-        waitWithCondition(condition, defaultWait, "Element by " + by.toString() + " still clickable " +
-            "after " + defaultWait + " seconds wait");
+        Tracer.trace("WaitActions.waitForElementIsNotClickable", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for {} to not be clickable.", by.toString());
+            ExpectedCondition<Boolean> condition = ExpectedConditions.not(elementToBeClickable(by));
+            waitWithCondition(condition, defaultWait, "Element by " + by.toString() + " still clickable " +
+                "after " + defaultWait + " seconds wait");
+        });
     }
 
     /**
@@ -171,10 +195,12 @@ public class WaitActions {
      * @param webElement - The selector to wait for
      */
     public void waitForElementIsNotClickable(WebElement webElement) {
-        logger.debug("Waiting for {} to not be clickable.", webElement.toString());
-        ExpectedCondition<Boolean> condition = ExpectedConditions.not(elementToBeClickable(webElement));
-        waitWithCondition(condition, defaultWait, "Element by " + webElement.toString() + " still clickable " +
-            "after " + defaultWait + " seconds wait");
+        Tracer.trace("WaitActions.waitForElementIsNotClickable", Tracer.WAIT, webElement, () -> {
+            logger.debug("Waiting for {} to not be clickable.", webElement.toString());
+            ExpectedCondition<Boolean> condition = ExpectedConditions.not(elementToBeClickable(webElement));
+            waitWithCondition(condition, defaultWait, "Element by " + webElement.toString() + " still clickable " +
+                "after " + defaultWait + " seconds wait");
+        });
     }
 
     /**
@@ -183,9 +209,11 @@ public class WaitActions {
      * @param by The selector to wait for
      */
     public void waitForElementToBeNotVisible(By by) {
-        logger.debug("Waiting for {} to be visible on the page..", by.toString());
-        waitWithCondition(invisibilityOfElementLocated(by), defaultWait, "Element by " + by.toString() + " still visible after " + defaultWait + " " +
-            "seconds wait");
+        Tracer.trace("WaitActions.waitForElementToBeNotVisible", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for {} to be visible on the page..", by.toString());
+            waitWithCondition(invisibilityOfElementLocated(by), defaultWait, "Element by " + by.toString() + " still visible after " + defaultWait + " " +
+                "seconds wait");
+        });
     }
 
     /**
@@ -196,10 +224,12 @@ public class WaitActions {
      * @param text The String to wait for
      */
     public void waitForTextPresentInElement(By by, String text) {
-        logger.debug("Waiting for text '{}' to be present in {}", text, by.toString());
-        logger.trace("By.xpath html/body represents the entire document");
-        waitWithCondition(not(textToBePresentInElementLocated(by, text)), defaultWait, "Element " + by.toString() + " with text: " + text + " not " +
-            "present even after waiting for " + defaultWait + " seconds");
+        Tracer.trace("WaitActions.waitForTextPresentInElement", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for text '{}' to be present in {}", text, by.toString());
+            logger.trace("By.xpath html/body represents the entire document");
+            waitWithCondition(not(textToBePresentInElementLocated(by, text)), defaultWait, "Element " + by.toString() + " with text: " + text + " not " +
+                "present even after waiting for " + defaultWait + " seconds");
+        });
     }
 
     /**
@@ -210,10 +240,12 @@ public class WaitActions {
      * @param text The String to wait for
      */
     public void waitForTextNotPresentInElement(By by, String text) {
-        logger.debug("Waiting for text '{}' to be present in {}", text, by.toString());
-        logger.trace("By.xpath html/body represents the entire document");
-        waitWithCondition(not(textToBePresentInElementLocated(by, text)), defaultWait, "Element by: " + by.toString() + " still contains text: " +
-            text + " after waiting for " + defaultWait + " seconds");
+        Tracer.trace("WaitActions.waitForTextNotPresentInElement", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for text '{}' to be present in {}", text, by.toString());
+            logger.trace("By.xpath html/body represents the entire document");
+            waitWithCondition(not(textToBePresentInElementLocated(by, text)), defaultWait, "Element by: " + by.toString() + " still contains text: " +
+                text + " after waiting for " + defaultWait + " seconds");
+        });
     }
 
     public void waitForFrameThenSwitchToIt(By by) {
@@ -225,8 +257,10 @@ public class WaitActions {
     }
 
     public void waitForFrame(String frame) {
-        logger.info("Switching to frame {}", frame);
-        waitWithCondition(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frame), defaultWait, "Frame with name : " + frame + " not found");
+        Tracer.trace("WaitActions.waitForFrame", Tracer.WAIT, frame, () -> {
+            logger.info("Switching to frame {}", frame);
+            waitWithCondition(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frame), defaultWait, "Frame with name : " + frame + " not found");
+        });
     }
 
     /**
@@ -236,19 +270,24 @@ public class WaitActions {
      * @param seconds The amount to wait
      */
     public void waitForFrame(By by, int seconds) {
-        logger.debug("Waiting for {} to be visible on the page for {} seconds", by.toString(), seconds);
-        waitWithCondition(ExpectedConditions.frameToBeAvailableAndSwitchToIt(by), seconds, "Frame with name selector : " + by.toString() + " not found");
-
+        Tracer.trace("WaitActions.waitForFrame", Tracer.WAIT, by, () -> {
+            logger.debug("Waiting for {} to be visible on the page for {} seconds", by.toString(), seconds);
+            waitWithCondition(ExpectedConditions.frameToBeAvailableAndSwitchToIt(by), seconds, "Frame with name selector : " + by.toString() + " not found");
+        });
     }
 
     public void waitForAlert(int timeout) {
-        logger.debug("Waiting for alert to be present");
-        waitWithCondition(ExpectedConditions.alertIsPresent(), defaultWait, "Alert not found");
+        Tracer.trace("WaitActions.waitForAlert", Tracer.WAIT, () -> {
+            logger.debug("Waiting for alert to be present");
+            waitWithCondition(ExpectedConditions.alertIsPresent(), defaultWait, "Alert not found");
+        });
     }
 
     public void waitForAlert() {
-        logger.debug("Waiting for alert to be present");
-        waitWithCondition(ExpectedConditions.alertIsPresent(), defaultWait, "Alert not found");
+        Tracer.trace("WaitActions.waitForAlert", Tracer.WAIT, () -> {
+            logger.debug("Waiting for alert to be present");
+            waitWithCondition(ExpectedConditions.alertIsPresent(), defaultWait, "Alert not found");
+        });
     }
 
     /**
@@ -257,12 +296,14 @@ public class WaitActions {
      * @param cssLocator The element's css locator
      */
     public void waitUntilAnimationIsDone(String cssLocator) {
-        ExpectedCondition<Boolean> expectation = driver -> {
-            assert driver != null;
-            return ((JavascriptExecutor) driver).executeScript("return jQuery(\"" + cssLocator + "\").is(':animated')").toString()
-                .equalsIgnoreCase("false");
-        };
-        waitWithCondition(expectation, defaultWait, "Animation still present even after waiting for " + defaultWait + " seconds");
+        Tracer.trace("WaitActions.waitUntilAnimationIsDone", Tracer.WAIT, cssLocator, () -> {
+            ExpectedCondition<Boolean> expectation = driver -> {
+                assert driver != null;
+                return ((JavascriptExecutor) driver).executeScript("return jQuery(\"" + cssLocator + "\").is(':animated')").toString()
+                    .equalsIgnoreCase("false");
+            };
+            waitWithCondition(expectation, defaultWait, "Animation still present even after waiting for " + defaultWait + " seconds");
+        });
     }
 
     /**
@@ -273,20 +314,24 @@ public class WaitActions {
      * @return {@link WebElement}
      */
     public WebElement waitForChildElementToAppear(WebElement parentElement, By childLocator) {
-        return waitWithCondition(ExpectedConditions.visibilityOf(parentElement.findElement(childLocator)), defaultWait, "Child element" +
-            childLocator.toString() + " didnot appear even after a wait of " + defaultWait + " seconds");
+        return Tracer.trace("WaitActions.waitForChildElementToAppear", Tracer.WAIT, childLocator, () -> {
+            return waitWithCondition(ExpectedConditions.visibilityOf(parentElement.findElement(childLocator)), defaultWait, "Child element" +
+                childLocator.toString() + " didnot appear even after a wait of " + defaultWait + " seconds");
+        });
     }
 
     /**
      * Wait for the "document.readyState" to become complete (which means DOM is ready)
      */
     public void waitForPageToLoad() {
-        ExpectedCondition<Boolean> expectation = driver -> {
-            assert driver != null;
-            return ((JavascriptExecutor) driver).executeScript("return document.readyState").toString()
-                .equalsIgnoreCase("complete");
-        };
-        waitWithCondition(expectation, defaultWait, "Page haven't loaded in " + defaultWait + " seconds");
+        Tracer.trace("WaitActions.waitForPageToLoad", Tracer.WAIT, () -> {
+            ExpectedCondition<Boolean> expectation = driver -> {
+                assert driver != null;
+                return ((JavascriptExecutor) driver).executeScript("return document.readyState").toString()
+                    .equalsIgnoreCase("complete");
+            };
+            waitWithCondition(expectation, defaultWait, "Page haven't loaded in " + defaultWait + " seconds");
+        });
     }
 
     /**
@@ -314,20 +359,43 @@ public class WaitActions {
      * @return T of given Class
      */
     public <T> T waitWithCondition(ExpectedCondition<T> condition, int timeout, String messageForException) {
-        int cycles = 12;
-        int count = 0;
-        while (count < cycles) {
-            try {
-                FluentWait<WebDriver> wait = new WebDriverWait(driver, Duration.ofSeconds(timeout / cycles)).pollingEvery(Duration.ofMillis(200));
-                return wait.until(condition);
-            } catch (StaleElementReferenceException e) {
-                logger.debug("Trying to recover from a stale element reference exception");
-                count = count + 1;
-            } catch (TimeoutException | NoSuchElementException e) {
-                count = count + 1;
+        WaitEvent event = new WaitEvent();
+        event.begin();
+        event.outcome = "error";
+        AtomicInteger polls = new AtomicInteger();
+        ExpectedCondition<T> polled = event.isEnabled() ? input -> {
+            polls.incrementAndGet();
+            return condition.apply(input);
+        } : condition;
+        Span span = Tracer.start("WaitActions.waitWithCondition", Tracer.WAIT, condition);
+        try {
+            int cycles = 12;
+            int count = 0;
+            while (count < cycles) {
+                try {
+                    FluentWait<WebDriver> wait = new WebDriverWait(driver, Duration.ofSeconds(timeout / cycles)).pollingEvery(Duration.ofMillis(SeleniumConstants.WAIT_POLL_MILLIS));
+                    T result = wait.until(polled);
+                    event.outcome = "success";
+                    return result;
+                } catch (StaleElementReferenceException e) {
+                    logger.debug("Trying to recover from a stale element reference exception");
+                    count = count + 1;
+                } catch (TimeoutException | NoSuchElementException e) {
+                    count = count + 1;
+                }
+            }
+            event.outcome = "timeout";
+            throw new Error(messageForException + ": " + condition);
+        } finally {
+            span.close();
+            event.end();
+            if (event.shouldCommit()) {
+                event.condition = String.valueOf(condition);
+                event.timeoutSeconds = timeout;
+                event.polls = polls.get();
+                event.commit();
             }
         }
-        throw new Error(messageForException + ": " + condition);
     }
 
 }
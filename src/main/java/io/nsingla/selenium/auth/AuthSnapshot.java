@@ -0,0 +1,92 @@
+package io.nsingla.selenium.auth;
+
+import org.openqa.selenium.Cookie;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cookies, localStorage and sessionStorage of an origin after a login.
+ */
+public class AuthSnapshot {
+
+    private final String origin;
+    private final List<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final long createdMillis;
+
+    public AuthSnapshot(String origin, List<Cookie> cookies, Map<String, String> localStorage,
+                        Map<String, String> sessionStorage, long createdMillis) {
+        this.origin = origin;
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.sessionStorage = sessionStorage;
+        this.createdMillis = createdMillis;
+    }
+
+    /**
+     * @return Whether the snapshot is younger than the ttl and none of its cookies expired
+     */
+    public boolean isValid(long now, long ttlMillis) {
+        if (now - createdMillis > ttlMillis) {
+            return false;
+        }
+        return cookies.stream().noneMatch(cookie -> cookie.getExpiry() != null && cookie.getExpiry().getTime() <= now);
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public List<Cookie> getCookies() {
+        return cookies;
+    }
+
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    public Map<String, String> getSessionStorage() {
+        return sessionStorage;
+    }
+
+    Map<String, Object> toJson() {
+        List<Map<String, Object>> jsonCookies = new ArrayList<>();
+        for (Cookie cookie : cookies) {
+            Map<String, Object> jsonCookie = new LinkedHashMap<>(cookie.toJson());
+            if (cookie.getExpiry() != null) {
+                jsonCookie.put("expiry", cookie.getExpiry().getTime() / 1000);
+            }
+            jsonCookies.add(jsonCookie);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("origin", origin);
+        json.put("created", createdMillis);
+        json.put("cookies", jsonCookies);
+        json.put("localStorage", localStorage);
+        json.put("sessionStorage", sessionStorage);
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    static AuthSnapshot fromJson(Map<String, Object> json) {
+        List<Cookie> cookies = new ArrayList<>();
+        for (Map<String, Object> cookie : (List<Map<String, Object>>) json.get("cookies")) {
+            Object expiry = cookie.get("expiry");
+            cookies.add(new Cookie.Builder((String) cookie.get("name"), (String) cookie.get("value"))
+                .domain((String) cookie.get("domain"))
+                .path((String) cookie.get("path"))
+                .expiresOn(expiry == null ? null : new Date(((Number) expiry).longValue() * 1000))
+                .isSecure(Boolean.TRUE.equals(cookie.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(cookie.get("httpOnly")))
+                .sameSite((String) cookie.get("sameSite"))
+                .build());
+        }
+        return new AuthSnapshot((String) json.get("origin"), cookies, (Map<String, String>) json.get("localStorage"),
+            (Map<String, String>) json.get("sessionStorage"), ((Number) json.get("created")).longValue());
+    }
+}
@@ -0,0 +1,241 @@
+package io.nsingla.selenium.auth;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.devtools.DevToolsHelper;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs in once per role and restores the captured cookies and web storage into later sessions, instead of going
+ * through the login UI in every test. Snapshots are kept in memory and in {@code authSnapshotDir} for
+ * {@code authSnapshotTtlMinutes}.
+ */
+public class AuthSnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthSnapshots.class);
+    private static final Map<String, AuthSnapshot> snapshots = new ConcurrentHashMap<>();
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private static final String CAPTURE_STORAGE_SCRIPT = "function read(storage) {"
+        + "  var items = {};"
+        + "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); items[key] = storage.getItem(key); }"
+        + "  return items;"
+        + "}"
+        + "return {local: read(window.localStorage), session: read(window.sessionStorage)};";
+    private static final String RESTORE_STORAGE_SCRIPT = "var snapshot = %s;"
+        + "if (location.origin === snapshot.origin) {"
+        + "  Object.keys(snapshot.local).forEach(function (key) { localStorage.setItem(key, snapshot.local[key]); });"
+        + "  Object.keys(snapshot.session).forEach(function (key) { sessionStorage.setItem(key, snapshot.session[key]); });"
+        + "}";
+
+    /**
+     * Opens {@code url} logged in as {@code role}: restores the snapshot of the role if there is a valid one and the app
+     * accepts it, otherwise logs in with the flow and takes a new snapshot
+     *
+     * @param driver The driver of the test
+     * @param role   User or role the snapshot is kept for
+     * @param url    Page to open logged in, its origin is the origin of the snapshot
+     * @param flow   {@link LoginFlow}
+     */
+    public static void login(WebDriver driver, String role, String url, LoginFlow flow) {
+        AuthSnapshot rejected = null;
+        while (true) {
+            // restoring runs in parallel, only logging in through the UI is done once per role at a time
+            Optional<AuthSnapshot> snapshot = get(role);
+            if (snapshot.isPresent() && snapshot.get() != rejected) {
+                restore(driver, snapshot.get(), url);
+                if (flow.isLoggedIn(driver)) {
+                    logger.debug("Restored login of {}", role);
+                    return;
+                }
+                logger.info("Login snapshot of {} was rejected by the app, logging in again", role);
+                rejected = snapshot.get();
+                driver.manage().deleteAllCookies();
+                ((JavascriptExecutor) driver).executeScript("localStorage.clear(); sessionStorage.clear();");
+            }
+            synchronized (locks.computeIfAbsent(role, key -> new Object())) {
+                snapshot = get(role);
+                if (snapshot.isPresent() && snapshot.get() != rejected) {
+                    // another test logged in while this one waited, its snapshot is restored outside the lock
+                    continue;
+                }
+                if (rejected != null) {
+                    invalidate(role);
+                } else {
+                    driver.get(url);
+                }
+                flow.login(driver);
+                put(role, capture(driver));
+            }
+            if (!driver.getCurrentUrl().equals(url)) {
+                driver.get(url);
+            }
+            return;
+        }
+    }
+
+    /**
+     * @return Cookies of the current domain and the web storage of the current page
+     */
+    @SuppressWarnings("unchecked")
+    public static AuthSnapshot capture(WebDriver driver) {
+        Map<String, Map<String, String>> storage = (Map<String, Map<String, String>>)
+            ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+        return new AuthSnapshot(origin(driver.getCurrentUrl()), new ArrayList<>(driver.manage().getCookies()),
+            new LinkedHashMap<>(storage.get("local")), new LinkedHashMap<>(storage.get("session")), System.currentTimeMillis());
+    }
+
+    /**
+     * Restores the snapshot and opens {@code url}. With DevTools the cookies and storage are set before the first
+     * navigation, otherwise the origin is visited once to set them.
+     */
+    public static void restore(WebDriver driver, AuthSnapshot snapshot, String url) {
+        Optional<DevTools> devTools = DevToolsHelper.createSession(driver);
+        if (devTools.isPresent()) {
+            restoreWithDevTools(devTools.get(), driver, snapshot, url);
+            return;
+        }
+        driver.get(snapshot.getOrigin() + SeleniumConstants.AUTH_RESTORE_PATH);
+        snapshot.getCookies().forEach(cookie -> driver.manage().addCookie(cookie));
+        ((JavascriptExecutor) driver).executeScript(restoreScript(snapshot));
+        driver.get(url);
+    }
+
+    private static void restoreWithDevTools(DevTools devTools, WebDriver driver, AuthSnapshot snapshot, String url) {
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : snapshot.getCookies()) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("name", cookie.getName());
+            params.put("value", cookie.getValue());
+            if (cookie.getDomain() != null) {
+                params.put("domain", cookie.getDomain());
+            } else {
+                params.put("url", snapshot.getOrigin());
+            }
+            params.put("path", cookie.getPath() == null ? "/" : cookie.getPath());
+            params.put("secure", cookie.isSecure());
+            params.put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getSameSite() != null) {
+                params.put("sameSite", cookie.getSameSite());
+            }
+            if (cookie.getExpiry() != null) {
+                params.put("expires", cookie.getExpiry().getTime() / 1000);
+            }
+            cookies.add(params);
+        }
+        Map<String, Object> setCookies = new HashMap<>();
+        setCookies.put("cookies", cookies);
+        devTools.send(DevToolsHelper.command("Network.setCookies", setCookies));
+
+        // the storage script runs before the scripts of the page, and only for this one navigation
+        Map<String, Object> addScript = new HashMap<>();
+        addScript.put("source", restoreScript(snapshot));
+        Map<String, Object> script = devTools.send(DevToolsHelper.query("Page.addScriptToEvaluateOnNewDocument", addScript));
+        try {
+            driver.get(url);
+        } finally {
+            Map<String, Object> removeScript = new HashMap<>();
+            removeScript.put("identifier", script.get("identifier"));
+            devTools.send(DevToolsHelper.command("Page.removeScriptToEvaluateOnNewDocument", removeScript));
+        }
+    }
+
+    private static String restoreScript(AuthSnapshot snapshot) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("origin", snapshot.getOrigin());
+        data.put("local", snapshot.getLocalStorage());
+        data.put("session", snapshot.getSessionStorage());
+        return String.format(RESTORE_STORAGE_SCRIPT, new Json().toJson(data));
+    }
+
+    /**
+     * @return The valid snapshot of the role, from memory or disk
+     */
+    public static Optional<AuthSnapshot> get(String role) {
+        long ttlMillis = TimeUnit.MINUTES.toMillis(SeleniumConstants.AUTH_SNAPSHOT_TTL_MINUTES);
+        long now = System.currentTimeMillis();
+        AuthSnapshot snapshot = snapshots.get(role);
+        if (snapshot == null) {
+            snapshot = read(role);
+            if (snapshot != null) {
+                snapshots.put(role, snapshot);
+            }
+        }
+        if (snapshot != null && !snapshot.isValid(now, ttlMillis)) {
+            invalidate(role);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    public static void put(String role, AuthSnapshot snapshot) {
+        snapshots.put(role, snapshot);
+        if (SeleniumConstants.AUTH_SNAPSHOT_DIR.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file(role).getParent());
+            Files.write(file(role), new Json().toJson(snapshot.toJson()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Failed to save login snapshot of {}", role, e);
+        }
+    }
+
+    /**
+     * Discards the snapshot of the role, e.g. after the password changed
+     */
+    public static void invalidate(String role) {
+        snapshots.remove(role);
+        if (SeleniumConstants.AUTH_SNAPSHOT_DIR.isEmpty()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file(role));
+        } catch (IOException e) {
+            logger.warn("Failed to delete login snapshot of {}", role, e);
+        }
+    }
+
+    private static AuthSnapshot read(String role) {
+        if (SeleniumConstants.AUTH_SNAPSHOT_DIR.isEmpty() || !Files.exists(file(role))) {
+            return null;
+        }
+        try {
+            String json = new String(Files.readAllBytes(file(role)), StandardCharsets.UTF_8);
+            return AuthSnapshot.fromJson(new Json().toType(json, Json.MAP_TYPE));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable login snapshot of {}", role, e);
+            return null;
+        }
+    }
+
+    private static Path file(String role) {
+        return Paths.get(SeleniumConstants.AUTH_SNAPSHOT_DIR, role.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    static String origin(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+    }
+}
@@ -0,0 +1,20 @@
+package io.nsingla.selenium.auth;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Logs a user in through the UI, for {@link AuthSnapshots#login}.
+ */
+public interface LoginFlow {
+
+    /**
+     * Logs in, starting from the page the snapshot is restored for
+     */
+    void login(WebDriver driver);
+
+    /**
+     * @return Whether the app accepted the session on the current page, e.g. the user menu is shown. A restored
+     * snapshot that is not accepted is discarded and the user logs in again.
+     */
+    boolean isLoggedIn(WebDriver driver);
+}
@@ -0,0 +1,89 @@
+package io.nsingla.selenium.context;
+
+import io.nsingla.constants.SeleniumConstants;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Browser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs several sessions as isolated browser contexts (like incognito windows, with their own cookies, storage and
+ * cache) in one shared chrome or edge process, instead of a browser process per session. Every context is a
+ * {@link WebDriver} of its own, attached to the shared browser. Used when {@code browserContexts} is enabled.
+ */
+public class BrowserContexts {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContexts.class);
+    private static final Map<String, List<SharedBrowser>> browsers = new HashMap<>();
+
+    /**
+     * @return Whether sessions of the browser can be started as browser contexts
+     */
+    public static boolean isSupported(Browser browser) {
+        return Browser.CHROME.equals(browser) || Browser.EDGE.equals(browser);
+    }
+
+    /**
+     * Starts a session in a new browser context of a shared browser with free contexts, or of a new shared browser
+     *
+     * @param configurationKey Settings of the shared browser, sessions only share a browser with the same settings
+     * @param browser          Chrome or edge
+     * @param hostFactory      Starts a new shared browser
+     * @param downloadPath     Download directory of the context
+     * @param proxy            Proxy of the context as host:port, or null
+     * @return The driver of the context, quitting it closes the context
+     */
+    public static WebDriver newContext(String configurationKey, Browser browser, Supplier<WebDriver> hostFactory,
+                                       String downloadPath, String proxy) {
+        SharedBrowser.Context context = reserve(configurationKey, browser, hostFactory);
+        try {
+            return context.create(downloadPath, proxy);
+        } catch (RuntimeException e) {
+            context.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Quits all shared browsers, called at the end of the run
+     */
+    public static synchronized void quitAll() {
+        browsers.values().forEach(shared -> shared.forEach(SharedBrowser::quit));
+        browsers.clear();
+    }
+
+    private static synchronized SharedBrowser.Context reserve(String configurationKey, Browser browser, Supplier<WebDriver> hostFactory) {
+        List<SharedBrowser> shared = browsers.computeIfAbsent(configurationKey, key -> new ArrayList<>());
+        shared.removeIf(sharedBrowser -> {
+            if (sharedBrowser.contexts == 0 && !sharedBrowser.isAlive()) {
+                sharedBrowser.quit();
+                return true;
+            }
+            return false;
+        });
+        SharedBrowser sharedBrowser = shared.stream()
+            .filter(candidate -> candidate.contexts < SeleniumConstants.BROWSER_CONTEXTS_PER_BROWSER)
+            .findFirst()
+            .orElse(null);
+        if (sharedBrowser == null) {
+            logger.info("Starting shared {} number {} for browser contexts", browser.browserName(), shared.size() + 1);
+            sharedBrowser = new SharedBrowser(browser, hostFactory.get());
+            shared.add(sharedBrowser);
+        }
+        return sharedBrowser.reserve();
+    }
+
+    /**
+     * Gives the place of a context back, only called by {@link SharedBrowser.Context#close()}
+     */
+    static synchronized void release(SharedBrowser sharedBrowser) {
+        sharedBrowser.contexts--;
+    }
+}
@@ -0,0 +1,240 @@
+package io.nsingla.selenium.context;
+
+import io.nsingla.selenium.devtools.DevToolsHelper;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.remote.Browser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A chrome or edge process shared by the sessions of {@link BrowserContexts}. Every session is a browser context with
+ * a tab of its own, driven by a driver attached to the browser through its debugger address.
+ */
+class SharedBrowser {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedBrowser.class);
+
+    private final Browser browser;
+    private final WebDriver host;
+    private final DevTools devTools;
+    private final String debuggerAddress;
+    // guarded by BrowserContexts
+    int contexts;
+
+    SharedBrowser(Browser browser, WebDriver host) {
+        this.browser = browser;
+        this.host = host;
+        try {
+            this.devTools = DevToolsHelper.createSession(host)
+                .orElseThrow(() -> new SessionNotCreatedException("Browser contexts need DevTools"));
+            String optionsKey = Browser.EDGE.equals(browser) ? EdgeOptions.CAPABILITY : ChromeOptions.CAPABILITY;
+            Object options = ((HasCapabilities) host).getCapabilities().getCapability(optionsKey);
+            this.debuggerAddress = options instanceof Map ? (String) ((Map<?, ?>) options).get("debuggerAddress") : null;
+            if (debuggerAddress == null) {
+                throw new SessionNotCreatedException("No debugger address in the capabilities of " + browser.browserName());
+            }
+        } catch (RuntimeException e) {
+            host.quit();
+            throw e;
+        }
+    }
+
+    /**
+     * @return A place for a session, taken from the free contexts by {@link BrowserContexts}
+     */
+    Context reserve() {
+        contexts++;
+        return new Context();
+    }
+
+    /**
+     * @return Ids of the tabs and windows of the context, including the ones the page opened
+     */
+    @SuppressWarnings("unchecked")
+    Set<String> targetsOf(String contextId) {
+        List<Map<String, Object>> targets = (List<Map<String, Object>>) devTools.send(
+            DevToolsHelper.query("Target.getTargets", new HashMap<>())).get("targetInfos");
+        return targets.stream()
+            .filter(target -> contextId.equals(target.get("browserContextId")) && "page".equals(target.get("type")))
+            .map(target -> (String) target.get("targetId"))
+            .collect(Collectors.toSet());
+    }
+
+    private void dispose(String contextId) {
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("browserContextId", contextId);
+            devTools.send(DevToolsHelper.command("Target.disposeBrowserContext", params));
+        } catch (WebDriverException e) {
+            logger.debug("Failed to dispose browser context {}", contextId, e);
+        }
+    }
+
+    boolean isAlive() {
+        try {
+            host.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    void quit() {
+        try {
+            host.quit();
+        } catch (WebDriverException e) {
+            logger.debug("Failed to quit shared browser", e);
+        }
+    }
+
+    private ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setExperimentalOption("debuggerAddress", debuggerAddress);
+        return options;
+    }
+
+    private EdgeOptions edgeOptions() {
+        EdgeOptions options = new EdgeOptions();
+        options.setExperimentalOption("debuggerAddress", debuggerAddress);
+        return options;
+    }
+
+    /**
+     * Place of a session in the shared browser. Closing it disposes the browser context, if it was created, and gives
+     * the place back; only the first close does, whether the session failed to start or its driver was quit.
+     */
+    class Context {
+        private volatile String contextId;
+        private boolean closed;
+
+        WebDriver create(String downloadPath, String proxy) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("disposeOnDetach", false);
+            if (proxy != null) {
+                params.put("proxyServer", "http://" + proxy);
+                params.put("proxyBypassList", "<-loopback>");
+            }
+            String id = (String) devTools.send(DevToolsHelper.query("Target.createBrowserContext", params)).get("browserContextId");
+            contextId = id;
+            if (downloadPath != null) {
+                Map<String, Object> download = new HashMap<>();
+                download.put("behavior", "allow");
+                download.put("browserContextId", id);
+                download.put("downloadPath", downloadPath);
+                devTools.send(DevToolsHelper.command("Browser.setDownloadBehavior", download));
+            }
+            Map<String, Object> target = new HashMap<>();
+            target.put("url", "about:blank");
+            target.put("browserContextId", id);
+            String targetId = (String) devTools.send(DevToolsHelper.query("Target.createTarget", target)).get("targetId");
+
+            WebDriver driver = Browser.EDGE.equals(browser)
+                ? new ContextEdgeDriver(this, edgeOptions())
+                : new ContextChromeDriver(this, chromeOptions());
+            try {
+                driver.switchTo().window(driver.getWindowHandles().stream()
+                    .filter(handle -> handle.endsWith(targetId))
+                    .findFirst()
+                    .orElseThrow(() -> new SessionNotCreatedException("Tab of browser context " + id + " not found")));
+            } catch (RuntimeException e) {
+                driver.quit();
+                throw e;
+            }
+            return driver;
+        }
+
+        /**
+         * @return The handles of the windows of this context among all windows of the shared browser
+         */
+        private Set<String> windowHandles(Set<String> handles) {
+            Set<String> targets = targetsOf(contextId);
+            return handles.stream()
+                .filter(handle -> targets.stream().anyMatch(handle::endsWith))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+
+        void close() {
+            String id;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                id = contextId;
+            }
+            try {
+                if (id != null) {
+                    dispose(id);
+                }
+            } finally {
+                BrowserContexts.release(SharedBrowser.this);
+            }
+        }
+    }
+
+    /**
+     * Sees only the windows of its context, and closes the context when it is quit. Quitting a driver attached
+     * through the debugger address leaves the shared browser running.
+     */
+    private static class ContextChromeDriver extends ChromeDriver {
+        private final Context context;
+
+        ContextChromeDriver(Context context, ChromeOptions options) {
+            super(options);
+            this.context = context;
+        }
+
+        @Override
+        public Set<String> getWindowHandles() {
+            return context.windowHandles(super.getWindowHandles());
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static class ContextEdgeDriver extends EdgeDriver {
+        private final Context context;
+
+        ContextEdgeDriver(Context context, EdgeOptions options) {
+            super(options);
+            this.context = context;
+        }
+
+        @Override
+        public Set<String> getWindowHandles() {
+            return context.windowHandles(super.getWindowHandles());
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                context.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.nsingla.selenium.devtools;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Thin helpers around the raw Chrome DevTools protocol, so that features do not depend on
+ * one of the versioned CDP domains bundled with selenium (which must match the browser version).
+ */
+public class DevToolsHelper {
+
+    private static final Logger logger = LoggerFactory.getLogger(DevToolsHelper.class);
+
+    /**
+     * Opens (or reuses) a DevTools session for the given driver
+     *
+     * @param driver The {@link WebDriver} to connect to, local or remote
+     * @return {@link DevTools} with an active session, or empty if the driver does not support CDP
+     */
+    public static Optional<DevTools> createSession(WebDriver driver) {
+        WebDriver target = driver;
+        if (!(target instanceof HasDevTools) && target instanceof RemoteWebDriver) {
+            target = new Augmenter().augment(target);
+        }
+        if (!(target instanceof HasDevTools)) {
+            logger.debug("Driver {} does not support DevTools", driver.getClass().getSimpleName());
+            return Optional.empty();
+        }
+        DevTools devTools = ((HasDevTools) target).getDevTools();
+        try {
+            // the tab of the session, the browser may have tabs of other sessions, see BrowserContexts
+            devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+        } catch (DevToolsException e) {
+            devTools.createSessionIfThereIsNotOne();
+        }
+        return Optional.of(devTools);
+    }
+
+    /**
+     * Creates a CDP command whose result is ignored
+     *
+     * @param method The CDP method, e.g. "Page.enable"
+     * @param params The parameters of the command
+     * @return {@link Command}
+     */
+    public static Command<Void> command(String method, Map<String, Object> params) {
+        return new Command<>(method, params);
+    }
+
+    /**
+     * Creates a CDP command whose result is read as a json object
+     *
+     * @param method The CDP method, e.g. "Target.createTarget"
+     * @param params The parameters of the command
+     * @return {@link Command}
+     */
+    public static Command<Map<String, Object>> query(String method, Map<String, Object> params) {
+        return new Command<>(method, params, input -> input.read(Json.MAP_TYPE));
+    }
+
+    /**
+     * Creates a CDP event whose parameters are read as a json object
+     *
+     * @param method The CDP event, e.g. "Page.screencastFrame"
+     * @return {@link Event}
+     */
+    public static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
@@ -0,0 +1,386 @@
+package io.nsingla.selenium.download;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Download directory of its own for a session, watched with a {@link WatchService}: a download is complete once the
+ * browser renamed its partial file ({@code .crdownload} of chromium, {@code .part} of firefox) to the final name.
+ * Partial files are hashed while they grow, so the checksum of a large download is ready when it completes. Files are
+ * only read outside the lock of the manager, so a test expecting a download does not wait for the hashing.
+ */
+public class DownloadManager implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownloadManager.class);
+    private static final List<String> PARTIAL_SUFFIXES = List.of(".crdownload", ".part", ".download", ".tmp");
+    private static final Map<WebDriver, DownloadManager> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    // safety net for file systems whose watch service polls, e.g. on macOS
+    private static final long RESCAN_MILLIS = 1000;
+
+    private final Path directory;
+    private final WatchService watchService;
+    private final Thread watcher;
+    private final List<Expectation> expectations = new ArrayList<>();
+    private final Set<Path> completed = new HashSet<>();
+    private final Set<Path> claimed = new HashSet<>();
+    private final Map<String, PartialDigest> partialDigests = new HashMap<>();
+    private final Map<Path, Long> emptySince = new ConcurrentHashMap<>();
+
+    private DownloadManager(Path directory) throws IOException {
+        this.directory = directory;
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE);
+        this.watcher = new Thread(this::watch, "downloads-" + directory.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Creates a new download directory in {@code parent} and starts watching it
+     *
+     * @param parent E.g. {@code downloadPath}
+     * @return {@link DownloadManager}
+     */
+    public static DownloadManager create(Path parent) throws IOException {
+        Files.createDirectories(parent);
+        return new DownloadManager(Files.createTempDirectory(parent, "session-"));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Links the manager to the session, so it can be found by {@link #of(WebDriver)} and is closed with
+     * {@link #closeFor(WebDriver)}
+     */
+    public void register(WebDriver driver) {
+        sessions.put(driver, this);
+    }
+
+    /**
+     * @return The download manager of the session, if it was started with one
+     */
+    public static Optional<DownloadManager> of(WebDriver driver) {
+        return Optional.ofNullable(sessions.get(driver));
+    }
+
+    public static void closeFor(WebDriver driver) {
+        DownloadManager manager = sessions.remove(driver);
+        if (manager != null) {
+            manager.close();
+        }
+    }
+
+    /**
+     * Expects a download, call it before the action that starts the download
+     *
+     * @param glob   Name of the file, e.g. {@code report-*.csv}
+     * @param sha256 Expected SHA-256 as hex, or null to accept any content
+     * @return Completes with the downloaded file; exceptionally with an {@link AssertionError} if the checksum does
+     * not match
+     */
+    public CompletableFuture<Path> expect(String glob, String sha256) {
+        Expectation expectation = new Expectation(FileSystems.getDefault().getPathMatcher("glob:" + glob), sha256);
+        Optional<Path> ready;
+        synchronized (this) {
+            // the download may have completed before it was expected
+            ready = completed.stream()
+                .filter(file -> !claimed.contains(file) && expectation.matcher.matches(file.getFileName()))
+                .sorted()
+                .findFirst();
+            if (ready.isPresent()) {
+                claimed.add(ready.get());
+            } else {
+                expectations.add(expectation);
+            }
+        }
+        ready.ifPresent(file -> verify(expectation, file));
+        return expectation.future;
+    }
+
+    public CompletableFuture<Path> expect(String glob) {
+        return expect(glob, null);
+    }
+
+    /**
+     * Waits for a download expected with {@link #expect(String, String)}
+     *
+     * @return The downloaded file
+     * @throws AssertionError if it was not downloaded in time or its checksum does not match
+     */
+    public static Path await(CompletableFuture<Path> download, Duration timeout) {
+        try {
+            return download.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new AssertionError("No download completed within " + timeout);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AssertionError) {
+                throw (AssertionError) e.getCause();
+            }
+            throw new AssertionError("Download failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while waiting for a download", e);
+        }
+    }
+
+    /**
+     * Deletes the downloads of a previous test, when the session is reused
+     */
+    public synchronized void clear() {
+        expectations.forEach(expectation -> expectation.future.cancel(false));
+        expectations.clear();
+        completed.clear();
+        claimed.clear();
+        partialDigests.clear();
+        emptySince.clear();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to clear download directory {}", directory, e);
+        }
+    }
+
+    /**
+     * Stops watching and deletes the download directory
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close watch service of {}", directory, e);
+        }
+        clear();
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            logger.debug("Failed to delete download directory {}", directory, e);
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.poll(RESCAN_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path && event.kind() != StandardWatchEventKinds.ENTRY_DELETE) {
+                            onChange(directory.resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                }
+                rescan();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed with the session
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void onChange(Path file) {
+        String name = file.getFileName().toString();
+        if (isPartial(name)) {
+            PartialDigest digest;
+            synchronized (this) {
+                digest = partialDigests.computeIfAbsent(name, key -> new PartialDigest());
+            }
+            // reads what the browser wrote since the last event
+            digest.update(file);
+        } else if (isComplete(file)) {
+            Expectation expectation;
+            synchronized (this) {
+                if (!completed.add(file)) {
+                    return;
+                }
+                expectation = claim(file);
+            }
+            if (expectation != null) {
+                verify(expectation, file);
+            }
+        }
+    }
+
+    private void rescan() {
+        synchronized (this) {
+            if (expectations.isEmpty()) {
+                return;
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(this::onChange);
+        } catch (IOException e) {
+            logger.debug("Failed to list download directory {}", directory, e);
+        }
+    }
+
+    private boolean isComplete(Path file) {
+        String name = file.getFileName().toString();
+        if (!Files.isRegularFile(file) || name.startsWith(".")) {
+            return false;
+        }
+        // firefox creates the final file empty while it writes the partial one
+        if (PARTIAL_SUFFIXES.stream().anyMatch(suffix -> Files.exists(file.resolveSibling(name + suffix)))) {
+            return false;
+        }
+        // the partial file may not have been created yet, an empty download completes once it stayed empty a while
+        try {
+            if (Files.size(file) > 0) {
+                emptySince.remove(file);
+                return true;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        return now - emptySince.computeIfAbsent(file, key -> now) >= RESCAN_MILLIS;
+    }
+
+    private static boolean isPartial(String name) {
+        return name.startsWith("Unconfirmed ") || PARTIAL_SUFFIXES.stream().anyMatch(name::endsWith);
+    }
+
+    /**
+     * @return The first expectation matching the completed file, removed from the pending ones, or null if none does
+     */
+    private synchronized Expectation claim(Path file) {
+        for (Iterator<Expectation> iterator = expectations.iterator(); iterator.hasNext(); ) {
+            Expectation expectation = iterator.next();
+            if (expectation.matcher.matches(file.getFileName())) {
+                iterator.remove();
+                claimed.add(file);
+                return expectation;
+            }
+        }
+        return null;
+    }
+
+    private void verify(Expectation expectation, Path file) {
+        if (expectation.sha256 == null) {
+            expectation.future.complete(file);
+            return;
+        }
+        try {
+            String actual = digestOf(file);
+            if (actual.equalsIgnoreCase(expectation.sha256)) {
+                expectation.future.complete(file);
+            } else {
+                expectation.future.completeExceptionally(new AssertionError(
+                    "SHA-256 of " + file.getFileName() + " is " + actual + ", expected " + expectation.sha256));
+            }
+        } catch (IOException e) {
+            expectation.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * @return SHA-256 of the file, continuing the digest of its partial file if it was watched while it grew
+     */
+    private String digestOf(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        PartialDigest digest;
+        synchronized (this) {
+            digest = PARTIAL_SUFFIXES.stream()
+                .map(suffix -> partialDigests.remove(name + suffix))
+                .filter(partial -> partial != null)
+                .findFirst()
+                .orElseGet(PartialDigest::new);
+        }
+        digest.update(file);
+        return digest.toHex();
+    }
+
+    private static class Expectation {
+        private final PathMatcher matcher;
+        private final String sha256;
+        private final CompletableFuture<Path> future = new CompletableFuture<>();
+
+        private Expectation(PathMatcher matcher, String sha256) {
+            this.matcher = matcher;
+            this.sha256 = sha256;
+        }
+    }
+
+    private static class PartialDigest {
+        private final MessageDigest digest;
+        private long position;
+
+        private PartialDigest() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private synchronized void update(Path file) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() < position) {
+                    // rewritten from the start
+                    digest.reset();
+                    position = 0;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                channel.position(position);
+                int read;
+                while ((read = channel.read(buffer)) > 0) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                    position += read;
+                }
+            } catch (IOException e) {
+                // renamed or deleted meanwhile, the final file is read from the current position
+            }
+        }
+
+        private synchronized String toHex() {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        }
+    }
+}
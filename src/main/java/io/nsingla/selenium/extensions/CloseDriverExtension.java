@@ -1,37 +1,62 @@
 package io.nsingla.selenium.extensions;
 
+import io.nsingla.constants.SeleniumConstants;
 import io.nsingla.junit5.utils.NamingUtils;
 import io.nsingla.selenium.SeleniumBase;
+import io.nsingla.selenium.context.BrowserContexts;
 import io.nsingla.selenium.logger.ConsoleLogger;
+import io.nsingla.selenium.session.SessionCache;
 
 import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.logging.Logs;
 import org.openqa.selenium.remote.Browser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class CloseDriverExtension implements AfterEachCallback {
+public class CloseDriverExtension implements BeforeAllCallback, AfterEachCallback {
 
     private static final Logger logger = LoggerFactory.getLogger(CloseDriverExtension.class);
 
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (SeleniumConstants.REUSE_SESSION) {
+            // sessions kept for reuse are quit once all tests of the run have finished
+            context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(SessionCache.class, key -> (ExtensionContext.Store.CloseableResource) SessionCache::quitAll,
+                    ExtensionContext.Store.CloseableResource.class);
+        }
+        if (SeleniumConstants.BROWSER_CONTEXTS) {
+            // browsers shared by the sessions of browser contexts are quit once all tests of the run have finished
+            context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(BrowserContexts.class, key -> (ExtensionContext.Store.CloseableResource) BrowserContexts::quitAll,
+                    ExtensionContext.Store.CloseableResource.class);
+        }
+    }
+
     @Override
     public void afterEach(ExtensionContext context) {
         SeleniumBase base = ((SeleniumBase) context.getTestInstance()
             .orElseThrow(() -> new RuntimeException("Selenium base is not present.")));
         WebDriver driver = base.getDriver();
-        if (driver != null) {
-            if (base.getBrowser().is(Browser.CHROME.browserName())) {
-                Logs logs = driver.manage().logs();
+        if (driver != null && !base.isSessionStarted()) {
+            logger.debug("No session was started for {}", NamingUtils.getTestName(context));
+            base.releaseDriver(true);
+        } else if (driver != null) {
+            if (base.getSessionBrowser().is(Browser.CHROME.browserName())) {
                 try {
+                    Logs logs = driver.manage().logs();
                     ConsoleLogger.printConsoleEntries(logs, NamingUtils.getTestName(context));
-                } catch (NullPointerException ex) {
+                } catch (NullPointerException | WebDriverException ex) {
+                    // also when the session died, e.g. because of an infrastructure failure
                     logger.error("No console logs were available.");
                 }
             }
             logger.debug("Closing driver for {}: {}", NamingUtils.getTestName(context), driver.hashCode());
-            driver.quit();
+            base.releaseDriver(!context.getExecutionException().isPresent());
         } else {
             logger.debug("Driver object was not created");
         }
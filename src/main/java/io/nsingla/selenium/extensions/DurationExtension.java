@@ -0,0 +1,39 @@
+package io.nsingla.selenium.extensions;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.metrics.RunReports;
+import io.nsingla.selenium.sharding.DurationHistory;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Paths;
+
+/**
+ * Records the duration of every test, including driver start and close, into the history used for sharding.
+ * Registered before the other extensions of {@link io.nsingla.selenium.SeleniumBase}, so it runs first before and
+ * last after each test.
+ */
+public class DurationExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(DurationExtension.class);
+    private static final String START = "start";
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!SeleniumConstants.RECORD_DURATIONS) {
+            return;
+        }
+        RunReports.register("Test durations", () -> DurationHistory.write(Paths.get(SeleniumConstants.DURATION_HISTORY)));
+        context.getStore(NAMESPACE).put(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Long start = context.getStore(NAMESPACE).remove(START, Long.class);
+        if (start != null) {
+            DurationHistory.record(context.getUniqueId(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.nsingla.selenium.extensions;
+
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Invocations of a test template created one at a time, the next one only once an invocation asked for it, e.g. for a
+ * retry. JUnit asks for the next invocation right after it submitted the previous one, so the test template has to run
+ * its invocations in the same thread ({@code @Execution(ExecutionMode.SAME_THREAD)}) to ask after it has finished.
+ *
+ * @param <T> What the next invocation is created from
+ */
+public abstract class OnDemandInvocations<T> implements Iterator<TestTemplateInvocationContext> {
+
+    private T next;
+    private boolean exhausted;
+
+    /**
+     * @param first What the first invocation is created from
+     */
+    protected OnDemandInvocations(T first) {
+        this.next = first;
+    }
+
+    /**
+     * @param value What the next invocation is created from
+     * @return The invocation
+     */
+    protected abstract TestTemplateInvocationContext create(T value);
+
+    /**
+     * Asks for another invocation, call it before the failure of the current one is reported as aborted
+     *
+     * @param value What the next invocation is created from
+     * @return Whether the invocation will run, false if JUnit already stopped asking for invocations, e.g. because it
+     * ran the current one concurrently
+     */
+    protected synchronized boolean request(T value) {
+        if (exhausted) {
+            return false;
+        }
+        next = value;
+        return true;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        if (next == null) {
+            exhausted = true;
+        }
+        return !exhausted;
+    }
+
+    @Override
+    public synchronized TestTemplateInvocationContext next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T value = next;
+        next = null;
+        return create(value);
+    }
+
+    /**
+     * @return Lazy stream of the invocations, for
+     * {@link org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider#provideTestTemplateInvocationContexts}
+     */
+    public Stream<TestTemplateInvocationContext> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false);
+    }
+}
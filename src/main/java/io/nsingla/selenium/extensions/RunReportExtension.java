@@ -0,0 +1,26 @@
+package io.nsingla.selenium.extensions;
+
+import io.nsingla.selenium.metrics.RunReports;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Writes the {@link RunReports} once all tests of the run have finished. The root store closes its resources
+ * at the very end of the run, which is the only hook jupiter offers for that.
+ */
+public class RunReportExtension implements BeforeAllCallback {
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+            .getOrComputeIfAbsent(RunReportExtension.class, key -> new ReportWriter(), ReportWriter.class);
+    }
+
+    private static class ReportWriter implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            RunReports.writeAll();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.nsingla.selenium.extensions;
+
+import io.nsingla.selenium.SeleniumBase;
+import io.nsingla.selenium.recording.ScreencastRecorder;
+
+import io.qameta.allure.Attachment;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class ScreencastExtension implements AfterEachCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreencastExtension.class);
+
+    /**
+     * Reads the byte arrays of the input {@code screencast} so it can be attached to the report
+     *
+     * @param screencast The recorded gif
+     * @param fileName   The name of the attachment
+     * @return byte
+     */
+    @Attachment(value = "{1}", type = "image/gif", fileExtension = ".gif")
+    public static byte[] saveScreencastAttach(File screencast, String fileName) {
+        try {
+            return Files.readAllBytes(screencast.toPath());
+        } catch (IOException e) {
+            logger.error("Could not read screencast {}", screencast, e);
+        }
+        return new byte[0];
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        SeleniumBase base = ((SeleniumBase) context.getTestInstance()
+            .orElseThrow(() -> new RuntimeException("Selenium base is not present.")));
+        ScreencastRecorder recorder = base.getScreencastRecorder();
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.stop();
+            if (context.getExecutionException().isPresent()) {
+                String className = context.getTestClass()
+                    .orElseThrow(() -> new RuntimeException("Class canonical name could not be set")).getCanonicalName();
+                String methodName = context.getDisplayName();
+                File screencastDir = new File("." + File.separator + "screenshots");
+                if (!screencastDir.exists()) {
+                    boolean screencastDirCreated = screencastDir.mkdirs();
+                    logger.info("Directory for screencasts on location {} has been created (y/n? {}).", screencastDir, screencastDirCreated);
+                }
+                File screencast = new File(screencastDir, "screencast-" + className + "-" + methodName + ".gif");
+                recorder.writeGif(screencast);
+                saveScreencastAttach(screencast, className + "." + methodName);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to save screencast", e);
+        } finally {
+            logger.debug("Screencast overhead: {}", recorder.getStatistics());
+            recorder.close();
+        }
+    }
+
+}
@@ -46,9 +46,11 @@ public class ScreenshotExtension implements AfterEachCallback {
 
     @Override
     public void afterEach(ExtensionContext context) throws Exception {
-        if (context.getExecutionException().isPresent()) {
-            WebDriver driver = ((SeleniumBase) context.getTestInstance()
-                .orElseThrow(() -> new RuntimeException("Web driver is not present"))).getDriver();
+        SeleniumBase base = (SeleniumBase) context.getTestInstance()
+            .orElseThrow(() -> new RuntimeException("Web driver is not present"));
+        // nothing to take a screenshot of if the test failed before it used the browser
+        if (context.getExecutionException().isPresent() && base.isSessionStarted()) {
+            WebDriver driver = base.getDriver();
             String className = context.getTestClass()
                 .orElseThrow(() -> new RuntimeException("Class canonical name could not be set")).getCanonicalName();
             String methodName = context.getDisplayName();
@@ -0,0 +1,40 @@
+package io.nsingla.selenium.extensions;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.junit5.utils.NamingUtils;
+import io.nsingla.selenium.metrics.RunReports;
+import io.nsingla.selenium.tracing.Span;
+import io.nsingla.selenium.tracing.Tracer;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Paths;
+
+/**
+ * Opens the root span of every test, so driver start, page actions and commands of the test nest under it.
+ */
+public class TracingExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TracingExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!Tracer.isEnabled()) {
+            return;
+        }
+        RunReports.register("Trace", () -> Tracer.export(Paths.get(SeleniumConstants.TRACE_FILE)));
+        Span span = Tracer.start(NamingUtils.getTestName(context), Tracer.TEST);
+        context.getStore(NAMESPACE).put(Span.class, span);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Span span = context.getStore(NAMESPACE).remove(Span.class, Span.class);
+        if (span != null) {
+            context.getExecutionException().ifPresent(e -> span.setAttribute("failure", e.getClass().getSimpleName()));
+            span.close();
+        }
+    }
+}
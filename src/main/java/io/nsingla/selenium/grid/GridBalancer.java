@@ -0,0 +1,176 @@
+package io.nsingla.selenium.grid;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.metrics.LatencyHistogram;
+import io.nsingla.selenium.metrics.RunReports;
+
+import org.openqa.selenium.SessionNotCreatedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads the sessions of a REMOTE run over several selenium grids, see {@link SeleniumConstants#GRID_URLS}.
+ * Grids that fail to create sessions are skipped for a while (circuit breaker), grids that report no free slot or are
+ * not ready are only used when no other grid is left.
+ */
+public class GridBalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridBalancer.class);
+    private static GridBalancer instance;
+
+    public enum Strategy {
+        LEAST_OUTSTANDING, WEIGHTED_ROUND_ROBIN;
+
+        public static Strategy fromString(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final List<GridEndpoint> endpoints;
+    private final Strategy strategy;
+
+    GridBalancer(List<GridEndpoint> endpoints, Strategy strategy) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("No grid endpoint configured");
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.strategy = strategy;
+    }
+
+    /**
+     * @return The balancer of the run, created from the runtime parameters on first use
+     */
+    public static synchronized GridBalancer get() {
+        if (instance == null) {
+            long openMillis = TimeUnit.SECONDS.toMillis(SeleniumConstants.GRID_CIRCUIT_OPEN_SECONDS);
+            List<GridEndpoint> endpoints = Arrays.stream(SeleniumConstants.GRID_URLS.split(","))
+                .filter(definition -> !definition.trim().isEmpty())
+                .map(definition -> GridEndpoint.parse(definition, SeleniumConstants.GRID_CIRCUIT_FAILURES, openMillis))
+                .collect(Collectors.toList());
+            instance = new GridBalancer(endpoints, Strategy.fromString(SeleniumConstants.GRID_BALANCING));
+            logger.info("Balancing sessions over grids {} by {}", endpoints, instance.strategy);
+            if (SeleniumConstants.GRID_STATUS_POLL_SECONDS > 0) {
+                new GridStatusPoller(endpoints).start(SeleniumConstants.GRID_STATUS_POLL_SECONDS);
+            }
+            RunReports.register("Grid endpoints", () -> instance.writeReport(Paths.get(SeleniumConstants.GRID_REPORT)));
+        }
+        return instance;
+    }
+
+    /**
+     * Picks a grid for a new session and counts the session as outstanding on it, until it is
+     * {@link #release(GridEndpoint) released} or {@link #recordFailure(GridEndpoint) failed}.
+     *
+     * @throws SessionNotCreatedException if the circuit of every grid is open
+     */
+    public synchronized GridEndpoint acquire() {
+        long now = System.currentTimeMillis();
+        List<GridEndpoint> available = endpoints.stream().filter(endpoint -> endpoint.isAvailable(now)).collect(Collectors.toList());
+        if (available.isEmpty()) {
+            throw new SessionNotCreatedException("No grid accepts sessions, all failed recently: " + endpoints);
+        }
+        List<GridEndpoint> healthy = available.stream().filter(GridEndpoint::isHealthy).collect(Collectors.toList());
+        GridEndpoint endpoint = select(healthy.isEmpty() ? available : healthy);
+        endpoint.acquire(now);
+        return endpoint;
+    }
+
+    private GridEndpoint select(List<GridEndpoint> candidates) {
+        if (strategy == Strategy.WEIGHTED_ROUND_ROBIN) {
+            // smooth weighted round robin, spreads the picks of a heavy grid instead of sending them in a burst
+            int totalWeight = 0;
+            GridEndpoint selected = null;
+            for (GridEndpoint candidate : candidates) {
+                candidate.currentWeight += candidate.getWeight();
+                totalWeight += candidate.getWeight();
+                if (selected == null || candidate.currentWeight > selected.currentWeight) {
+                    selected = candidate;
+                }
+            }
+            selected.currentWeight -= totalWeight;
+            return selected;
+        }
+        GridEndpoint selected = null;
+        for (GridEndpoint candidate : candidates) {
+            if (selected == null
+                || (long) candidate.getOutstanding() * selected.getWeight() < (long) selected.getOutstanding() * candidate.getWeight()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return Whether a grid accepts sessions and, as far as its last {@code /status} tells, has a free slot
+     */
+    public boolean hasCapacity() {
+        long now = System.currentTimeMillis();
+        return endpoints.stream().anyMatch(endpoint -> endpoint.isAvailable(now) && endpoint.isHealthy());
+    }
+
+    public void recordSuccess(GridEndpoint endpoint, long nanos) {
+        endpoint.recordSuccess(nanos);
+    }
+
+    /**
+     * Records a failed session creation and releases the session
+     */
+    public void recordFailure(GridEndpoint endpoint) {
+        endpoint.recordFailure(System.currentTimeMillis());
+        if (endpoint.isCircuitOpen(System.currentTimeMillis())) {
+            logger.warn("Grid {} failed to create {} sessions in a row, skipping it for {} seconds", endpoint,
+                SeleniumConstants.GRID_CIRCUIT_FAILURES, SeleniumConstants.GRID_CIRCUIT_OPEN_SECONDS);
+        }
+    }
+
+    /**
+     * Releases a session the grid rejected for its capabilities, which does not count as a failure of the grid
+     */
+    public void recordRejected(GridEndpoint endpoint) {
+        endpoint.recordRejected();
+    }
+
+    /**
+     * Releases a session that has been quit
+     */
+    public void release(GridEndpoint endpoint) {
+        endpoint.release();
+    }
+
+    public List<GridEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Writes sessions, failures and session creation latency of every grid as a markdown table
+     *
+     * @param file The report file
+     */
+    public void writeReport(Path file) throws IOException {
+        StringBuilder report = new StringBuilder("# Grid endpoints\n\n")
+            .append("| Grid | Weight | Sessions | Failures | Circuit opened | p50 (ms) | p95 (ms) | max (ms) |\n")
+            .append("|---|---|---|---|---|---|---|---|\n");
+        for (GridEndpoint endpoint : new ArrayList<>(endpoints)) {
+            LatencyHistogram latency = endpoint.getCreationLatency();
+            report.append(String.format(Locale.ROOT, "| %s | %d | %d | %d | %d | %.0f | %.0f | %.0f |%n", endpoint.getUrl(),
+                endpoint.getWeight(), endpoint.getSessions(), endpoint.getFailures(), endpoint.getCircuitOpened(),
+                latency.getPercentileMillis(50), latency.getPercentileMillis(95), latency.getMaxMillis()));
+        }
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Files.write(absolute, report.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,156 @@
+package io.nsingla.selenium.grid;
+
+import io.nsingla.selenium.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A selenium grid hub with its load, health from {@code /status} and circuit breaker state.
+ */
+public class GridEndpoint {
+
+    private final String url;
+    private final int weight;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong sessions = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong circuitOpened = new AtomicLong();
+    private final LatencyHistogram creationLatency = new LatencyHistogram();
+    private final int failureThreshold;
+    private final long openMillis;
+
+    // written by the status poller
+    private volatile boolean ready = true;
+    private volatile int freeSlots = -1;
+
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean trialInProgress;
+
+    // smooth weighted round robin, guarded by the balancer
+    int currentWeight;
+
+    GridEndpoint(String url, int weight, int failureThreshold, long openMillis) {
+        this.url = url;
+        this.weight = weight;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @param definition {@code url} or {@code url|weight}
+     */
+    static GridEndpoint parse(String definition, int failureThreshold, long openMillis) {
+        String[] parts = definition.trim().split("\\|");
+        int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+        if (weight < 1) {
+            throw new IllegalArgumentException("Weight of grid endpoint must be positive: " + definition);
+        }
+        return new GridEndpoint(parts[0].trim(), weight, failureThreshold, openMillis);
+    }
+
+    /**
+     * @return Whether a session may be requested, false while the circuit is open. Once the open period is over a
+     * single trial request is let through.
+     */
+    synchronized boolean isAvailable(long now) {
+        if (consecutiveFailures < failureThreshold) {
+            return true;
+        }
+        return now >= openUntil && !trialInProgress;
+    }
+
+    synchronized void acquire(long now) {
+        if (consecutiveFailures >= failureThreshold && now >= openUntil) {
+            trialInProgress = true;
+        }
+        outstanding.incrementAndGet();
+    }
+
+    synchronized void recordSuccess(long nanos) {
+        consecutiveFailures = 0;
+        trialInProgress = false;
+        sessions.incrementAndGet();
+        creationLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    synchronized void recordFailure(long now) {
+        outstanding.decrementAndGet();
+        failures.incrementAndGet();
+        consecutiveFailures++;
+        trialInProgress = false;
+        if (consecutiveFailures >= failureThreshold) {
+            openUntil = now + openMillis;
+            circuitOpened.incrementAndGet();
+        }
+    }
+
+    synchronized void recordRejected() {
+        outstanding.decrementAndGet();
+        // a trial request ended without telling whether the grid recovered, the next request is the trial
+        trialInProgress = false;
+    }
+
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    void updateStatus(boolean ready, int freeSlots) {
+        this.ready = ready;
+        this.freeSlots = freeSlots;
+    }
+
+    /**
+     * @return Whether the last {@code /status} reported the grid as ready with free slots (or without slot details)
+     */
+    boolean isHealthy() {
+        return ready && freeSlots != 0;
+    }
+
+    synchronized boolean isCircuitOpen(long now) {
+        return consecutiveFailures >= failureThreshold && now < openUntil;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public long getSessions() {
+        return sessions.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getCircuitOpened() {
+        return circuitOpened.get();
+    }
+
+    public LatencyHistogram getCreationLatency() {
+        return creationLatency;
+    }
+
+    public int getFreeSlots() {
+        return freeSlots;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
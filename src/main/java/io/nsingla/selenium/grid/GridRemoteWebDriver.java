@@ -0,0 +1,39 @@
+package io.nsingla.selenium.grid;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * {@link RemoteWebDriver} that gives its session back to the {@link GridBalancer} when it quits.
+ */
+public class GridRemoteWebDriver extends RemoteWebDriver {
+
+    private final GridBalancer balancer;
+    private final GridEndpoint endpoint;
+    private boolean released;
+
+    public GridRemoteWebDriver(GridBalancer balancer, GridEndpoint endpoint, CommandExecutor executor, Capabilities capabilities) {
+        super(executor, capabilities);
+        this.balancer = balancer;
+        this.endpoint = endpoint;
+    }
+
+    public GridEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public void quit() {
+        try {
+            super.quit();
+        } finally {
+            synchronized (this) {
+                if (!released) {
+                    released = true;
+                    balancer.release(endpoint);
+                }
+            }
+        }
+    }
+}
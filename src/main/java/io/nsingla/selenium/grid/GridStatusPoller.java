@@ -0,0 +1,98 @@
+package io.nsingla.selenium.grid;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls {@code /status} of every grid in the background, so that saturated or unhealthy hubs are skipped.
+ */
+class GridStatusPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridStatusPoller.class);
+
+    private final List<GridEndpoint> endpoints;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "grid-status-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    GridStatusPoller(List<GridEndpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    void start(int intervalSeconds) {
+        executor.scheduleWithFixedDelay(this::pollAll, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void pollAll() {
+        for (GridEndpoint endpoint : endpoints) {
+            poll(endpoint);
+        }
+    }
+
+    private void poll(GridEndpoint endpoint) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(statusUri(endpoint.getUrl())).timeout(Duration.ofSeconds(5)).GET().build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            Map<String, Object> status = new Json().toType(response.body(), Json.MAP_TYPE);
+            Object value = status.get("value");
+            if (!(value instanceof Map)) {
+                endpoint.updateStatus(response.statusCode() == 200, -1);
+                return;
+            }
+            Map<?, ?> grid = (Map<?, ?>) value;
+            endpoint.updateStatus(Boolean.TRUE.equals(grid.get("ready")), freeSlots(grid.get("nodes")));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.debug("Status of grid {} is not available", endpoint, e);
+            endpoint.updateStatus(false, -1);
+        }
+    }
+
+    /**
+     * @return Free slots of all nodes of a grid 4 status, -1 if the status has no slot details (e.g. grid 3)
+     */
+    static int freeSlots(Object nodes) {
+        if (!(nodes instanceof List)) {
+            return -1;
+        }
+        int free = 0;
+        for (Object node : (List<?>) nodes) {
+            if (!(node instanceof Map) || !"UP".equals(((Map<?, ?>) node).get("availability"))) {
+                continue;
+            }
+            Object slots = ((Map<?, ?>) node).get("slots");
+            if (slots instanceof List) {
+                for (Object slot : (List<?>) slots) {
+                    if (slot instanceof Map && ((Map<?, ?>) slot).get("session") == null) {
+                        free++;
+                    }
+                }
+            }
+        }
+        return free;
+    }
+
+    static URI statusUri(String url) {
+        String base = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        if (base.endsWith("/wd/hub")) {
+            base = base.substring(0, base.length() - "/wd/hub".length());
+        }
+        return URI.create(base + "/status");
+    }
+}
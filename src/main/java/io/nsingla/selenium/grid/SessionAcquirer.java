@@ -0,0 +1,205 @@
+package io.nsingla.selenium.grid;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.metrics.LatencyHistogram;
+import io.nsingla.selenium.metrics.RunReports;
+import io.nsingla.selenium.retry.FailureClassifier;
+
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Requests grid sessions in the background and backs off exponentially while the grid is saturated, until the session
+ * queue deadline, instead of failing the test after one blocked request. The test thread waits as a
+ * {@link ForkJoinPool#managedBlock managed blocker}, so with parallel execution JUnit can run other tests (HtmlUnit,
+ * reused sessions) in the meantime.
+ */
+public class SessionAcquirer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionAcquirer.class);
+    private static SessionAcquirer instance;
+
+    // a thread per session being created, as creating one blocks for up to remoteReadTimeout
+    private final ExecutorService creators = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "session-acquirer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // only hands the attempts to the creators once their backoff is over
+    private final ScheduledExecutorService backoff = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-backoff");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long timeoutMillis;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Supplier<Boolean> capacity;
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram creation = new LatencyHistogram();
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong waitsForSlot = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    SessionAcquirer(long timeoutMillis, long initialBackoffMillis, long maxBackoffMillis, Supplier<Boolean> capacity) {
+        this.timeoutMillis = timeoutMillis;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return The acquirer of the run, created from the runtime parameters on first use
+     */
+    public static synchronized SessionAcquirer get() {
+        if (instance == null) {
+            Supplier<Boolean> capacity = () -> true;
+            if (SeleniumConstants.GRID_URLS != null && !SeleniumConstants.GRID_URLS.trim().isEmpty()) {
+                GridBalancer balancer = GridBalancer.get();
+                capacity = balancer::hasCapacity;
+            }
+            instance = new SessionAcquirer(TimeUnit.SECONDS.toMillis(SeleniumConstants.SESSION_QUEUE_TIMEOUT_SECONDS),
+                SeleniumConstants.SESSION_BACKOFF_MILLIS, SeleniumConstants.SESSION_MAX_BACKOFF_MILLIS, capacity);
+            RunReports.register("Session queue", () -> instance.writeReport(Paths.get(SeleniumConstants.SESSION_QUEUE_REPORT)));
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a session, retrying while the grid has no capacity, and waits for it without holding a worker of a
+     * parallel test run
+     *
+     * @param creator Creates the session, e.g. {@code new RemoteWebDriver(...)}
+     * @return The created session
+     * @throws SessionNotCreatedException if no session could be created before the deadline
+     */
+    public <T extends WebDriver> T acquire(Supplier<T> creator) {
+        long requested = System.nanoTime();
+        CompletableFuture<T> session = new CompletableFuture<>();
+        creators.execute(() -> attempt(creator, session, requested, initialBackoffMillis));
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    try {
+                        session.get();
+                    } catch (ExecutionException e) {
+                        // rethrown below
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return session.isDone();
+                }
+            });
+            return session.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            session.cancel(false);
+            throw new SessionNotCreatedException("Interrupted while waiting for a grid session");
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <T extends WebDriver> void attempt(Supplier<T> creator, CompletableFuture<T> session, long requested, long backoffMillis) {
+        if (session.isDone()) {
+            return;
+        }
+        if (!capacity.get()) {
+            waitsForSlot.incrementAndGet();
+            retryLater(creator, session, requested, backoffMillis, null);
+            return;
+        }
+        attempts.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            T created = creator.get();
+            creation.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            queueWait.record(start - requested, TimeUnit.NANOSECONDS);
+            if (!session.complete(created)) {
+                logger.warn("Quitting a session that was created after its request had been given up");
+                created.quit();
+            }
+        } catch (RuntimeException | Error e) {
+            if (!isRetryable(e)) {
+                session.completeExceptionally(e);
+                return;
+            }
+            logger.info("Grid has no capacity for a new session, trying again in {} ms: {}", backoffMillis, e.getMessage());
+            retryLater(creator, session, requested, backoffMillis, e);
+        }
+    }
+
+    private <T extends WebDriver> void retryLater(Supplier<T> creator, CompletableFuture<T> session, long requested, long backoffMillis,
+                                Throwable lastFailure) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requested);
+        if (elapsedMillis + backoffMillis > timeoutMillis) {
+            timeouts.incrementAndGet();
+            SessionNotCreatedException timeout = new SessionNotCreatedException(
+                "No grid session within " + TimeUnit.MILLISECONDS.toSeconds(timeoutMillis) + " seconds");
+            if (lastFailure != null) {
+                timeout.addSuppressed(lastFailure);
+            }
+            session.completeExceptionally(timeout);
+            return;
+        }
+        // full jitter, so that tests waiting for the same grid do not retry in lock step
+        long delay = ThreadLocalRandom.current().nextLong(backoffMillis / 2, backoffMillis + 1);
+        long nextBackoff = Math.min(backoffMillis * 2, maxBackoffMillis);
+        backoff.schedule(() -> creators.execute(() -> attempt(creator, session, requested, nextBackoff)), delay, TimeUnit.MILLISECONDS);
+    }
+
+    static boolean isRetryable(Throwable failure) {
+        return FailureClassifier.isInfrastructure(failure) && !FailureClassifier.isUnsatisfiableCapabilities(failure);
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * Writes how long tests waited for a session, to size the grid, as a markdown table
+     *
+     * @param file The report file
+     */
+    public void writeReport(Path file) throws IOException {
+        String report = "# Session queue\n\n"
+            + "| Sessions | Attempts | Waits for a free slot | Timeouts | wait p50 (ms) | wait p95 (ms) | wait max (ms) | wait total (s) | creation p50 (ms) | creation p95 (ms) |\n"
+            + "|---|---|---|---|---|---|---|---|---|---|\n"
+            + String.format(Locale.ROOT, "| %d | %d | %d | %d | %.0f | %.0f | %.0f | %.1f | %.0f | %.0f |%n", queueWait.getCount(),
+            attempts.get(), waitsForSlot.get(), timeouts.get(), queueWait.getPercentileMillis(50), queueWait.getPercentileMillis(95),
+            queueWait.getMaxMillis(), queueWait.getTotalMillis() / 1000, creation.getPercentileMillis(50), creation.getPercentileMillis(95));
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Files.write(absolute, report.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package io.nsingla.selenium.htmlunit;
+
+import io.nsingla.constants.SeleniumConstants;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.gargoylesoftware.htmlunit.Cache;
+import com.gargoylesoftware.htmlunit.WebClient;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HtmlUnitDriver} configured by the {@code htmlUnit*} runtime parameters. All instances share one HtmlUnit
+ * {@link Cache}, which holds the compiled scripts and parsed stylesheets besides the responses, so a bundle is
+ * compiled once per run instead of once per session.
+ */
+public class TunedHtmlUnitDriver extends HtmlUnitDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TunedHtmlUnitDriver.class);
+    private static final Cache SHARED_CACHE = new Cache();
+
+    static {
+        SHARED_CACHE.setMaxSize(SeleniumConstants.HTMLUNIT_CACHE_SIZE);
+    }
+
+    public TunedHtmlUnitDriver() {
+        super(browserVersion(SeleniumConstants.HTMLUNIT_BROWSER_VERSION), SeleniumConstants.HTMLUNIT_JAVASCRIPT);
+    }
+
+    @Override
+    protected WebClient newWebClient(BrowserVersion version) {
+        WebClient client = new SharedCacheWebClient(version);
+        client.setCache(SHARED_CACHE);
+        client.getOptions().setCssEnabled(SeleniumConstants.HTMLUNIT_CSS);
+        return client;
+    }
+
+    /**
+     * @return Entries of the shared cache: responses, compiled scripts and parsed stylesheets
+     */
+    public static int getSharedCacheSize() {
+        return SHARED_CACHE.getSize();
+    }
+
+    /**
+     * @param name chrome, firefox, firefox-esr, edge, ie or best
+     * @return The HtmlUnit browser version of the name
+     */
+    public static BrowserVersion browserVersion(String name) {
+        switch (name.toLowerCase()) {
+            case "chrome":
+                return BrowserVersion.CHROME;
+            case "firefox":
+                return BrowserVersion.FIREFOX;
+            case "firefox-esr":
+                return BrowserVersion.FIREFOX_ESR;
+            case "edge":
+                return BrowserVersion.EDGE;
+            case "ie":
+                return BrowserVersion.INTERNET_EXPLORER;
+            case "best":
+                return BrowserVersion.BEST_SUPPORTED;
+            default:
+                logger.warn("Unknown HtmlUnit browser version {}, using the best supported one", name);
+                return BrowserVersion.BEST_SUPPORTED;
+        }
+    }
+
+    /**
+     * Leaves the shared cache to the other sessions when closed: {@link WebClient#close()} clears the cache of the
+     * client, so the client gets a cache of its own first
+     */
+    private static class SharedCacheWebClient extends WebClient {
+        private static final long serialVersionUID = 1L;
+
+        private SharedCacheWebClient(BrowserVersion version) {
+            super(version);
+        }
+
+        @Override
+        public void close() {
+            setCache(new Cache());
+            super.close();
+        }
+    }
+}
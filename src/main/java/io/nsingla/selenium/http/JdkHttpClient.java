@@ -0,0 +1,117 @@
+package io.nsingla.selenium.http;
+
+import org.openqa.selenium.Credentials;
+import org.openqa.selenium.UsernameAndPassword;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Selenium {@link HttpClient} executing requests on a shared JDK client. Closing it leaves the shared connections open.
+ * Web sockets (DevTools, BiDi) are opened with the default selenium client.
+ */
+class JdkHttpClient implements HttpClient {
+
+    // set by the JDK client itself, it refuses to send them
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final ClientConfig config;
+    private final java.net.http.HttpClient client;
+    private final HttpHandler handler;
+    private HttpClient webSocketClient;
+
+    JdkHttpClient(ClientConfig config, java.net.http.HttpClient client) {
+        this.config = config;
+        this.client = client;
+        this.handler = ((HttpHandler) this::send).with(config.filter());
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request) {
+        return handler.execute(request);
+    }
+
+    private HttpResponse send(HttpRequest request) {
+        java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(toUri(request))
+            .timeout(config.readTimeout());
+        for (String name : request.getHeaderNames()) {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                request.getHeaders(name).forEach(value -> builder.header(name, value));
+            }
+        }
+        Credentials credentials = config.credentials();
+        if (credentials instanceof UsernameAndPassword) {
+            UsernameAndPassword user = (UsernameAndPassword) credentials;
+            String token = user.username() + ":" + user.password();
+            builder.header("Authorization", "Basic " + Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)));
+        }
+        if (request.getMethod() == HttpMethod.GET || request.getMethod() == HttpMethod.DELETE) {
+            builder.method(request.getMethod().name(), BodyPublishers.noBody());
+        } else {
+            builder.method(request.getMethod().name(), BodyPublishers.ofByteArray(Contents.bytes(request.getContent())));
+        }
+
+        java.net.http.HttpResponse<byte[]> response;
+        try {
+            response = client.send(builder.build(), BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException(e.getMessage()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        HttpResponse result = new HttpResponse().setStatus(response.statusCode());
+        response.headers().map().forEach((name, values) -> values.forEach(value -> result.addHeader(name, value)));
+        result.setContent(Contents.bytes(response.body()));
+        result.setTargetHost(response.uri().getHost());
+        return result;
+    }
+
+    private URI toUri(HttpRequest request) {
+        String uri = request.getUri();
+        if (!uri.startsWith("http:") && !uri.startsWith("https:")) {
+            String base = config.baseUri().toString();
+            uri = (base.endsWith("/") ? base.substring(0, base.length() - 1) : base) + uri;
+        }
+        StringJoiner query = new StringJoiner("&");
+        for (String name : request.getQueryParameterNames()) {
+            for (String value : request.getQueryParameters(name)) {
+                query.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return URI.create(query.length() == 0 ? uri : uri + (uri.contains("?") ? "&" : "?") + query);
+    }
+
+    @Override
+    public synchronized WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+        if (webSocketClient == null) {
+            webSocketClient = HttpClient.Factory.createDefault().createClient(config);
+        }
+        return webSocketClient.openSocket(request, listener);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (webSocketClient != null) {
+            webSocketClient.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.nsingla.selenium.http;
+
+import io.nsingla.constants.SeleniumConstants;
+
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.ProxySelector;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link HttpClient.Factory} for {@link org.openqa.selenium.remote.RemoteWebDriver} sessions, backed by the JDK http
+ * client. All sessions with the same connection settings share one client and so its pool of keep-alive connections,
+ * instead of paying connection setup per session. HTTP/2 is used where the grid supports it (https with ALPN).
+ */
+public class RemoteHttpClientFactory implements HttpClient.Factory {
+
+    private static final RemoteHttpClientFactory shared = new RemoteHttpClientFactory(
+        java.net.http.HttpClient.Version.valueOf(SeleniumConstants.REMOTE_HTTP_VERSION.trim().toUpperCase(Locale.ROOT)));
+
+    private final java.net.http.HttpClient.Version version;
+    private final Map<ConnectionKey, java.net.http.HttpClient> clients = new ConcurrentHashMap<>();
+
+    public RemoteHttpClientFactory(java.net.http.HttpClient.Version version) {
+        this.version = version;
+    }
+
+    public static RemoteHttpClientFactory shared() {
+        return shared;
+    }
+
+    /**
+     * @param server Address of the grid
+     * @return The client settings of the runtime parameters
+     */
+    public static ClientConfig clientConfig(String server) throws MalformedURLException {
+        return ClientConfig.defaultConfig()
+            .baseUrl(new URL(server))
+            .connectionTimeout(Duration.ofSeconds(SeleniumConstants.REMOTE_CONNECT_TIMEOUT_SECONDS))
+            .readTimeout(Duration.ofSeconds(SeleniumConstants.REMOTE_READ_TIMEOUT_SECONDS));
+    }
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        java.net.http.HttpClient client = clients.computeIfAbsent(new ConnectionKey(config), this::newClient);
+        return new JdkHttpClient(config, client);
+    }
+
+    private java.net.http.HttpClient newClient(ConnectionKey key) {
+        java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+            .version(version)
+            .connectTimeout(key.connectTimeout)
+            .followRedirects(java.net.http.HttpClient.Redirect.NEVER);
+        if (key.proxy != null && key.proxy.address() instanceof InetSocketAddress) {
+            builder.proxy(ProxySelector.of((InetSocketAddress) key.proxy.address()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Settings that need a client of their own, the read timeout is set per request
+     */
+    private static class ConnectionKey {
+
+        private final Duration connectTimeout;
+        private final java.net.Proxy proxy;
+
+        ConnectionKey(ClientConfig config) {
+            this.connectTimeout = config.connectionTimeout();
+            this.proxy = config.proxy();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConnectionKey)) {
+                return false;
+            }
+            ConnectionKey that = (ConnectionKey) o;
+            return connectTimeout.equals(that.connectTimeout) && Objects.equals(proxy, that.proxy);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(connectTimeout, proxy);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.nsingla.selenium.http;
+
+import io.nsingla.selenium.metrics.CommandMetrics;
+
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.Set;
+
+/**
+ * Records the time every WebDriver command spends on the wire, from sending the request until the response has been
+ * read, into {@link CommandMetrics}. Compared with the command latency seen by the test it shows how much of a command
+ * is network and grid, and how much is client overhead.
+ */
+public class WireTimingFilter implements Filter {
+
+    // path segments followed by an id or name, which is replaced to keep the number of commands small
+    private static final Set<String> ID_SEGMENTS = Set.of("session", "element", "shadow", "cookie", "attribute", "property", "css");
+
+    private final String browser;
+    private final String mode;
+
+    public WireTimingFilter(String browser, String mode) {
+        this.browser = browser;
+        this.mode = mode;
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return request -> {
+            long start = System.nanoTime();
+            String suffix = " (error)";
+            try {
+                HttpResponse response = next.execute(request);
+                if (response.isSuccessful()) {
+                    suffix = "";
+                }
+                return response;
+            } finally {
+                CommandMetrics.record(commandName(request) + suffix, "*", browser, mode, System.nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * @return Method and path of the request with ids replaced, e.g. {@code wire POST /session/{id}/element/{id}/click}
+     */
+    static String commandName(HttpRequest request) {
+        String path = request.getUri();
+        int sessionStart = path.indexOf("/session");
+        if (sessionStart > 0) {
+            path = path.substring(sessionStart);
+        }
+        StringBuilder name = new StringBuilder("wire ").append(request.getMethod()).append(' ');
+        String[] segments = path.split("/");
+        for (int i = 1; i < segments.length; i++) {
+            name.append('/');
+            boolean isId = ID_SEGMENTS.contains(segments[i - 1]) && !"active".equals(segments[i]);
+            name.append(isId ? "{id}" : segments[i]);
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package io.nsingla.selenium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.nsingla.selenium.ConsoleCheck")
+@Label("Console Check")
+@Description("Check of the browser console log by ConsoleLogHandler")
+@Category({"Selenium", "Console"})
+@Enabled(false)
+@StackTrace(false)
+public class ConsoleCheckEvent extends Event {
+
+    @Label("Entries")
+    @Description("Number of console entries read from the browser")
+    public int entries;
+
+    @Label("Failing Entries")
+    @Description("Number of entries at or above the configured level, after filtering")
+    public int failingEntries;
+
+    @Label("Level")
+    public String level;
+}
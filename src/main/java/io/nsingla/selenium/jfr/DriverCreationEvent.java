@@ -0,0 +1,30 @@
+package io.nsingla.selenium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.nsingla.selenium.DriverCreation")
+@Label("Driver Creation")
+@Description("Creation of a WebDriver session by DriverFactory")
+@Category({"Selenium", "Session"})
+@Enabled(false)
+@StackTrace(false)
+public class DriverCreationEvent extends Event {
+
+    @Label("Browser")
+    public String browser;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Headless")
+    public boolean headless;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,49 @@
+package io.nsingla.selenium.jfr;
+
+import io.nsingla.selenium.metrics.CommandTimingListener;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Emits a {@link WebDriverCommandEvent} for every call made through the decorated driver.
+ */
+public class JfrCommandListener implements WebDriverListener {
+
+    private static final ThreadLocal<Deque<WebDriverCommandEvent>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        WebDriverCommandEvent event = new WebDriverCommandEvent();
+        event.begin();
+        open.get().push(event);
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        commit(target, method, null);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        commit(target, method, e.getTargetException().getClass().getSimpleName());
+    }
+
+    private void commit(Object target, Method method, String error) {
+        Deque<WebDriverCommandEvent> events = open.get();
+        if (events.isEmpty()) {
+            return;
+        }
+        WebDriverCommandEvent event = events.pop();
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = CommandTimingListener.commandName(target, method);
+            event.error = error;
+            event.commit();
+        }
+    }
+}
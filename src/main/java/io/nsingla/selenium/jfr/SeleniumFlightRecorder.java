@@ -0,0 +1,53 @@
+package io.nsingla.selenium.jfr;
+
+import jdk.jfr.Configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Access to the JFR settings profile shipped with the framework, which enables its events.
+ */
+public class SeleniumFlightRecorder {
+
+    public static final String SETTINGS_RESOURCE = "/io/nsingla/selenium/jfr/selenium.jfc";
+
+    /**
+     * @return The framework event settings
+     */
+    public static Configuration configuration() {
+        try (InputStream stream = SeleniumFlightRecorder.class.getResourceAsStream(SETTINGS_RESOURCE);
+             Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR settings " + SETTINGS_RESOURCE, e);
+        }
+    }
+
+    /**
+     * Settings of a JDK profile with the framework events added, to be used with {@code new Recording(settings)}
+     *
+     * @param jdkProfile "default" or "profile"
+     * @return The merged settings
+     */
+    public static Map<String, String> settings(String jdkProfile) {
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(jdkProfile).getSettings());
+            settings.putAll(configuration().getSettings());
+            return settings;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JDK profile " + jdkProfile, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.nsingla.selenium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.nsingla.selenium.Wait")
+@Label("Wait")
+@Description("A wait for an ExpectedCondition in WaitActions")
+@Category({"Selenium", "Wait"})
+@Enabled(false)
+@StackTrace(false)
+public class WaitEvent extends Event {
+
+    @Label("Condition")
+    public String condition;
+
+    @Label("Timeout Seconds")
+    public int timeoutSeconds;
+
+    @Label("Polls")
+    @Description("How often the condition was evaluated")
+    public int polls;
+
+    @Label("Outcome")
+    @Description("success, timeout or error")
+    public String outcome;
+}
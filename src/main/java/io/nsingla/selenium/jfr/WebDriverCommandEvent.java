@@ -0,0 +1,25 @@
+package io.nsingla.selenium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.nsingla.selenium.WebDriverCommand")
+@Label("WebDriver Command")
+@Description("A call on the WebDriver, one of its elements or option objects")
+@Category({"Selenium", "Command"})
+@Enabled(false)
+@StackTrace(false)
+public class WebDriverCommandEvent extends Event {
+
+    @Label("Command")
+    public String command;
+
+    @Label("Error")
+    @Description("Simple name of the exception, if the command failed")
+    public String error;
+}
@@ -0,0 +1,22 @@
+package io.nsingla.selenium.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("io.nsingla.selenium.WindowMaximize")
+@Label("Window Maximize")
+@Description("Maximizing the browser window when a session starts")
+@Category({"Selenium", "Session"})
+@Enabled(false)
+@StackTrace(false)
+public class WindowMaximizeEvent extends Event {
+
+    @Label("Strategy")
+    @Description("maximize or the screen size based resize used on unix systems")
+    public String strategy;
+}
@@ -1,5 +1,7 @@
 package io.nsingla.selenium.logger;
 
+import io.nsingla.selenium.jfr.ConsoleCheckEvent;
+
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -61,6 +63,8 @@ public class ConsoleLogHandler implements WebDriverListener {
     }
 
     private void checkBrowserConsoleLogForErrors(WebDriver driver) {
+        ConsoleCheckEvent event = new ConsoleCheckEvent();
+        event.begin();
         Logs logs = driver.manage().logs();
         LogEntries logEntries = logs.get(LogType.BROWSER);
 
@@ -69,6 +73,13 @@ public class ConsoleLogHandler implements WebDriverListener {
             .collect(Collectors.toList());
 
         List<LogEntry> filteredErrorEntries = filterBlacklistedURLs(errorEntries);
+        event.end();
+        if (event.shouldCommit()) {
+            event.entries = logEntries.getAll().size();
+            event.failingEntries = filteredErrorEntries.size();
+            event.level = levelOfThrowingAssertion.getName();
+            event.commit();
+        }
         if (!filteredErrorEntries.isEmpty()) {
             for (LogEntry logEntry : filteredErrorEntries) {
                 throw new ConsoleLogError("Browser console ERROR: \n" + logEntry.getMessage());
@@ -0,0 +1,57 @@
+package io.nsingla.selenium.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Time spent in every step of starting the session of a test in {@link io.nsingla.selenium.SeleniumBase}, before the
+ * test itself runs. Used when {@code bootstrapTiming} is enabled.
+ */
+public class BootstrapMetrics {
+
+    // in the order the steps first ran
+    private static final Map<String, LatencyHistogram> steps = new LinkedHashMap<>();
+
+    public static <T> T time(String step, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            histogram(step).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public static void time(String step, Runnable action) {
+        time(step, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static synchronized LatencyHistogram histogram(String step) {
+        return steps.computeIfAbsent(step, key -> new LatencyHistogram());
+    }
+
+    public static synchronized void writeReport(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.println("# Session bootstrap");
+            writer.println();
+            writer.println("| Step | Count | p50 (ms) | p95 (ms) | max (ms) | total (s) |");
+            writer.println("|---|---|---|---|---|---|");
+            steps.forEach((step, histogram) -> writer.println(String.format(Locale.ROOT, "| %s | %d | %.1f | %.1f | %.1f | %.1f |",
+                step, histogram.getCount(), histogram.getPercentileMillis(50), histogram.getPercentileMillis(95),
+                histogram.getMaxMillis(), histogram.getTotalMillis() / 1000)));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.nsingla.selenium.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of per command latency histograms, tagged with test, browser and mode.
+ */
+public class CommandMetrics {
+
+    private static final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public static void record(String command, String test, String browser, String mode, long nanos) {
+        histograms.computeIfAbsent(new Key(command, test, browser, mode), key -> new LatencyHistogram())
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static Map<Key, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Writes p50/p95/p99 tables to {@code file}: one per command over the whole run, one per test and command
+     *
+     * @param file The report file
+     * @throws IOException if the report could not be written
+     */
+    public static void writeReport(Path file) throws IOException {
+        Map<Key, LatencyHistogram> perCommand = new TreeMap<>(Key.ORDER);
+        Map<Key, LatencyHistogram> perTest = new TreeMap<>(Key.ORDER);
+        histograms.forEach((key, histogram) -> {
+            perCommand.computeIfAbsent(new Key(key.command, "*", key.browser, key.mode), k -> new LatencyHistogram()).add(histogram);
+            perTest.put(key, histogram);
+        });
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.println("# WebDriver command latency");
+            writer.println();
+            writer.println("## Per command");
+            writeTable(writer, perCommand);
+            writer.println();
+            writer.println("## Per test");
+            writeTable(writer, perTest);
+        }
+    }
+
+    private static void writeTable(PrintWriter writer, Map<Key, LatencyHistogram> rows) {
+        writer.println();
+        writer.println("| command | test | browser | mode | count | total ms | mean ms | p50 ms | p95 ms | p99 ms | max ms |");
+        writer.println("|---|---|---|---|---:|---:|---:|---:|---:|---:|---:|");
+        rows.forEach((key, histogram) -> writer.printf("| %s | %s | %s | %s | %d | %.1f | %.2f | %.2f | %.2f | %.2f | %.2f |%n",
+            key.command, key.test, key.browser, key.mode, histogram.getCount(), histogram.getTotalMillis(), histogram.getMeanMillis(),
+            histogram.getPercentileMillis(50), histogram.getPercentileMillis(95), histogram.getPercentileMillis(99),
+            histogram.getMaxMillis()));
+    }
+
+    public static class Key {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing((Key key) -> key.command)
+            .thenComparing(key -> key.test).thenComparing(key -> key.browser).thenComparing(key -> key.mode);
+
+        private final String command;
+        private final String test;
+        private final String browser;
+        private final String mode;
+
+        public Key(String command, String test, String browser, String mode) {
+            this.command = command;
+            this.test = test;
+            this.browser = browser;
+            this.mode = mode;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public String getTest() {
+            return test;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return command.equals(key.command) && test.equals(key.test) && browser.equals(key.browser) && mode.equals(key.mode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(command, test, browser, mode);
+        }
+    }
+}
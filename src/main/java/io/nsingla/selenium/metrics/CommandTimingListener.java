@@ -0,0 +1,84 @@
+package io.nsingla.selenium.metrics;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Records the latency of every call made through an {@link org.openqa.selenium.support.events.EventFiringDecorator}
+ * into {@link CommandMetrics}. Works for every browser, as it only relies on the generic listener callbacks.
+ */
+public class CommandTimingListener implements WebDriverListener {
+
+    private static final ThreadLocal<StartTimes> startTimes = ThreadLocal.withInitial(StartTimes::new);
+
+    private final String test;
+    private final String browser;
+    private final String mode;
+
+    public CommandTimingListener(String test, String browser, String mode) {
+        this.test = test;
+        this.browser = browser;
+        this.mode = mode;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        record(target, method, "");
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        record(target, method, " (error)");
+    }
+
+    private void record(Object target, Method method, String suffix) {
+        StartTimes times = startTimes.get();
+        if (times.isEmpty()) {
+            return;
+        }
+        long duration = System.nanoTime() - times.pop();
+        CommandMetrics.record(commandName(target, method) + suffix, test, browser, mode, duration);
+    }
+
+    public static String commandName(Object target, Method method) {
+        if (target instanceof WebDriver) {
+            return "WebDriver." + method.getName();
+        } else if (target instanceof WebElement) {
+            return "WebElement." + method.getName();
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    /**
+     * Calls can nest, e.g. when a listener calls the driver, so start times are kept on a stack
+     */
+    private static class StartTimes {
+        private long[] values = new long[8];
+        private int size;
+
+        void push(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long pop() {
+            return values[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
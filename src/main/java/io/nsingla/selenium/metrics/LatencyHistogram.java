@@ -0,0 +1,133 @@
+package io.nsingla.selenium.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock free latency histogram with log-linear buckets: exact below 64 microseconds and 32 sub buckets per power of
+ * two above, which keeps the relative error of the reported percentiles around 3%. The buckets are allocated lazily,
+ * one chunk of 32 per power of two, as most histograms (one per command and test) only see a few of them.
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BITS = 6;
+    private static final int MAX_EXPONENT = 42;
+    private static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - LINEAR_BITS + 1) * SUB_BUCKETS;
+    private static final int CHUNKS = BUCKETS / SUB_BUCKETS;
+
+    private final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(CHUNKS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long duration, TimeUnit unit) {
+        long micros = Math.max(0, unit.toMicros(duration));
+        int bucket = bucketOf(micros);
+        chunk(bucket).incrementAndGet(bucket & (SUB_BUCKETS - 1));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Adds all values of {@code other} to this histogram
+     *
+     * @param other {@link LatencyHistogram}
+     */
+    public void add(LatencyHistogram other) {
+        for (int c = 0; c < CHUNKS; c++) {
+            AtomicLongArray values = other.chunks.get(c);
+            if (values == null) {
+                continue;
+            }
+            for (int i = 0; i < SUB_BUCKETS; i++) {
+                long value = values.get(i);
+                if (value > 0) {
+                    chunk(c * SUB_BUCKETS).addAndGet(i, value);
+                }
+            }
+        }
+        count.addAndGet(other.count.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanMillis() {
+        long samples = count.get();
+        return samples == 0 ? 0 : totalMicros.get() / 1000.0 / samples;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    public double getTotalMillis() {
+        return totalMicros.get() / 1000.0;
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return The latency in milliseconds below which {@code percentile}% of the values fall
+     */
+    public double getPercentileMillis(double percentile) {
+        long samples = count.get();
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(samples * percentile / 100.0));
+        long seen = 0;
+        for (int c = 0; c < CHUNKS; c++) {
+            AtomicLongArray values = chunks.get(c);
+            if (values == null) {
+                continue;
+            }
+            for (int i = 0; i < SUB_BUCKETS; i++) {
+                seen += values.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(c * SUB_BUCKETS + i), maxMicros.get()) / 1000.0;
+                }
+            }
+        }
+        return getMaxMillis();
+    }
+
+    private AtomicLongArray chunk(int bucket) {
+        int index = bucket / SUB_BUCKETS;
+        AtomicLongArray chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, new AtomicLongArray(SUB_BUCKETS));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        if (exponent == MAX_EXPONENT && micros >>> (MAX_EXPONENT + 1) != 0) {
+            subBucket = SUB_BUCKETS - 1;
+        }
+        return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return (1L << exponent) + ((long) (subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
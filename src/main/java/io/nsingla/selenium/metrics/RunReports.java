@@ -0,0 +1,47 @@
+package io.nsingla.selenium.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports that are written once at the end of the test run, see
+ * {@link io.nsingla.selenium.extensions.RunReportExtension}.
+ */
+public class RunReports {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunReports.class);
+    private static final Map<String, RunReport> reports = new LinkedHashMap<>();
+
+    /**
+     * Registers a report, registering the same name again is ignored
+     *
+     * @param name   Name of the report, used for logging
+     * @param report {@link RunReport}
+     */
+    public static synchronized void register(String name, RunReport report) {
+        reports.putIfAbsent(name, report);
+    }
+
+    /**
+     * Writes all registered reports, a failing report does not prevent the others from being written
+     */
+    public static synchronized void writeAll() {
+        for (Map.Entry<String, RunReport> entry : reports.entrySet()) {
+            try {
+                entry.getValue().write();
+                logger.info("{} report has been written", entry.getKey());
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write {} report", entry.getKey(), e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface RunReport {
+        void write() throws IOException;
+    }
+}
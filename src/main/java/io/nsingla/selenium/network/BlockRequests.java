@@ -0,0 +1,29 @@
+package io.nsingla.selenium.network;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Blocks requests the tests of a class or method do not need, in addition to the {@code blockUrls} and
+ * {@code blockResourceTypes} runtime parameters. A method annotation is applied on top of the class one.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface BlockRequests {
+
+    /**
+     * @return Url patterns, {@code *} matches any characters, e.g. {@code *google-analytics.com*}
+     */
+    String[] urls() default {};
+
+    ResourceType[] resourceTypes() default {};
+
+    /**
+     * @return false to load everything, also what the runtime parameters or the class would block
+     */
+    boolean enabled() default true;
+}
@@ -0,0 +1,56 @@
+package io.nsingla.selenium.network;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the requests blocked in the run, by resource type.
+ */
+public class BlockedRequests {
+
+    /**
+     * Type of blocked requests whose resource type is not known, e.g. https requests blocked by a proxy
+     */
+    public static final String OTHER = "Other";
+
+    private static final Map<String, AtomicLong> byType = new ConcurrentHashMap<>();
+    private static final AtomicLong total = new AtomicLong();
+
+    public static void record(String resourceType) {
+        total.incrementAndGet();
+        byType.computeIfAbsent(resourceType == null ? OTHER : resourceType, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    public static long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return Blocked requests by DevTools resource type, e.g. Image or Script
+     */
+    public static Map<String, Long> getByType() {
+        Map<String, Long> counts = new TreeMap<>();
+        byType.forEach((type, count) -> counts.put(type, count.get()));
+        return counts;
+    }
+
+    /**
+     * Writes the counters as a markdown table
+     *
+     * @param file The report file
+     */
+    public static void writeReport(Path file) throws IOException {
+        StringBuilder report = new StringBuilder("# Blocked requests\n\n| Resource type | Blocked |\n|---|---|\n");
+        getByType().forEach((type, count) -> report.append("| ").append(type).append(" | ").append(count).append(" |\n"));
+        report.append("| Total | ").append(total.get()).append(" |\n");
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Files.write(absolute, report.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,45 @@
+package io.nsingla.selenium.network;
+
+import io.nsingla.selenium.proxy.ProxyInterceptor;
+import io.nsingla.selenium.proxy.ProxyRequest;
+import io.nsingla.selenium.proxy.ProxyResponse;
+
+import java.util.Optional;
+
+/**
+ * Blocks requests in a {@link io.nsingla.selenium.proxy.LocalProxy}, for browsers without DevTools. The resource type
+ * is guessed from the url and the Accept header. https requests can only be blocked by url patterns, which are then
+ * matched against {@code https://host/}.
+ */
+public class BlockingInterceptor implements ProxyInterceptor {
+
+    private volatile BlockingRules rules = BlockingRules.NONE;
+
+    public void setRules(BlockingRules rules) {
+        this.rules = rules;
+    }
+
+    @Override
+    public ProxyResponse onRequest(ProxyRequest request) {
+        BlockingRules current = rules;
+        if (current.isEmpty()) {
+            return null;
+        }
+        Optional<ResourceType> type = ResourceType.guess(request.getUrl(), request.getHeader("Accept"));
+        if (current.blocksUrl(request.getUrl()) || type.map(current::blocksType).orElse(false)) {
+            BlockedRequests.record(type.map(ResourceType::getDevToolsName).orElse(BlockedRequests.OTHER));
+            return ProxyResponse.of(403, null, new byte[0]);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean allowTunnel(String host, int port) {
+        String url = "https://" + host + (port == 443 ? "" : ":" + port) + "/";
+        if (rules.blocksUrl(url)) {
+            BlockedRequests.record(BlockedRequests.OTHER);
+            return false;
+        }
+        return true;
+    }
+}
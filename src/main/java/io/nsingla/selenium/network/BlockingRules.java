@@ -0,0 +1,97 @@
+package io.nsingla.selenium.network;
+
+import io.nsingla.constants.SeleniumConstants;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Url patterns and resource types whose requests are blocked.
+ */
+public class BlockingRules {
+
+    public static final BlockingRules NONE = new BlockingRules(Collections.emptySet(), EnumSet.noneOf(ResourceType.class));
+
+    private final Set<String> urlPatterns;
+    private final Set<ResourceType> resourceTypes;
+    private final List<Pattern> regexes;
+
+    public BlockingRules(Set<String> urlPatterns, Set<ResourceType> resourceTypes) {
+        this.urlPatterns = Collections.unmodifiableSet(new LinkedHashSet<>(urlPatterns));
+        this.resourceTypes = resourceTypes.isEmpty() ? EnumSet.noneOf(ResourceType.class) : EnumSet.copyOf(resourceTypes);
+        this.regexes = this.urlPatterns.stream().map(BlockingRules::toRegex).collect(Collectors.toList());
+    }
+
+    /**
+     * @param testClass  Class of the test
+     * @param testMethod Test method, if known
+     * @return The rules of the runtime parameters with the {@link BlockRequests} of class and method applied
+     */
+    public static BlockingRules resolve(Class<?> testClass, Optional<Method> testMethod) {
+        BlockingRules rules = new BlockingRules(split(SeleniumConstants.BLOCK_URLS),
+            split(SeleniumConstants.BLOCK_RESOURCE_TYPES).stream().map(ResourceType::fromString)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(ResourceType.class))));
+        rules = rules.with(testClass == null ? null : testClass.getAnnotation(BlockRequests.class));
+        return rules.with(testMethod.map(method -> method.getAnnotation(BlockRequests.class)).orElse(null));
+    }
+
+    private BlockingRules with(BlockRequests annotation) {
+        if (annotation == null) {
+            return this;
+        }
+        if (!annotation.enabled()) {
+            return NONE;
+        }
+        Set<String> urls = new LinkedHashSet<>(urlPatterns);
+        urls.addAll(Arrays.asList(annotation.urls()));
+        Set<ResourceType> types = EnumSet.noneOf(ResourceType.class);
+        types.addAll(resourceTypes);
+        types.addAll(Arrays.asList(annotation.resourceTypes()));
+        return new BlockingRules(urls, types);
+    }
+
+    private static Set<String> split(String value) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).filter(part -> !part.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Pattern toRegex(String pattern) {
+        return Pattern.compile(Arrays.stream(pattern.split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*")));
+    }
+
+    public boolean isEmpty() {
+        return urlPatterns.isEmpty() && resourceTypes.isEmpty();
+    }
+
+    public boolean blocksUrl(String url) {
+        return regexes.stream().anyMatch(regex -> regex.matcher(url).matches());
+    }
+
+    public boolean blocksType(ResourceType type) {
+        return resourceTypes.contains(type);
+    }
+
+    public Set<String> getUrlPatterns() {
+        return urlPatterns;
+    }
+
+    public Set<ResourceType> getResourceTypes() {
+        return resourceTypes;
+    }
+
+    @Override
+    public String toString() {
+        return "urls " + urlPatterns + ", types " + resourceTypes;
+    }
+}
@@ -0,0 +1,84 @@
+package io.nsingla.selenium.network;
+
+import io.nsingla.selenium.devtools.DevToolsHelper;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Blocks requests of a chromium session through DevTools: url patterns with {@code Network.setBlockedURLs}, resource
+ * types by failing the requests {@code Fetch} pauses for them, so they never reach the network.
+ */
+class DevToolsRequestBlocker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DevToolsRequestBlocker.class);
+
+    private final DevTools devTools;
+    private BlockingRules rules = BlockingRules.NONE;
+
+    private DevToolsRequestBlocker(DevTools devTools) {
+        this.devTools = devTools;
+        devTools.addListener(DevToolsHelper.event("Network.loadingFailed"), this::onLoadingFailed);
+        devTools.addListener(DevToolsHelper.event("Fetch.requestPaused"), this::onRequestPaused);
+        devTools.send(DevToolsHelper.command("Network.enable", new HashMap<>()));
+    }
+
+    static Optional<DevToolsRequestBlocker> create(WebDriver driver) {
+        return DevToolsHelper.createSession(driver).map(DevToolsRequestBlocker::new);
+    }
+
+    synchronized void apply(BlockingRules newRules) {
+        if (!newRules.getUrlPatterns().equals(rules.getUrlPatterns())) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("urls", new ArrayList<>(newRules.getUrlPatterns()));
+            devTools.send(DevToolsHelper.command("Network.setBlockedURLs", params));
+        }
+        if (!newRules.getResourceTypes().equals(rules.getResourceTypes())) {
+            if (newRules.getResourceTypes().isEmpty()) {
+                devTools.send(DevToolsHelper.command("Fetch.disable", new HashMap<>()));
+            } else {
+                // only requests of the blocked types are paused, all others are not slowed down
+                List<Map<String, Object>> patterns = new ArrayList<>();
+                for (ResourceType type : newRules.getResourceTypes()) {
+                    Map<String, Object> pattern = new HashMap<>();
+                    pattern.put("urlPattern", "*");
+                    pattern.put("resourceType", type.getDevToolsName());
+                    pattern.put("requestStage", "Request");
+                    patterns.add(pattern);
+                }
+                Map<String, Object> params = new HashMap<>();
+                params.put("patterns", patterns);
+                devTools.send(DevToolsHelper.command("Fetch.enable", params));
+            }
+        }
+        rules = newRules;
+    }
+
+    private void onLoadingFailed(Map<String, Object> params) {
+        // "inspector" is the reason of requests blocked by Network.setBlockedURLs
+        if ("inspector".equals(params.get("blockedReason"))) {
+            BlockedRequests.record((String) params.get("type"));
+        }
+    }
+
+    private void onRequestPaused(Map<String, Object> params) {
+        Map<String, Object> failRequest = new HashMap<>();
+        failRequest.put("requestId", params.get("requestId"));
+        failRequest.put("errorReason", "BlockedByClient");
+        try {
+            devTools.send(DevToolsHelper.command("Fetch.failRequest", failRequest));
+            BlockedRequests.record((String) params.get("resourceType"));
+        } catch (DevToolsException e) {
+            logger.debug("Failed to block request {}", params.get("requestId"), e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.nsingla.selenium.network;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.metrics.RunReports;
+import io.nsingla.selenium.proxy.LocalProxy;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Browser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Applies the {@link BlockingRules} of a test to its session: through DevTools for chrome and edge, through the
+ * session's {@link LocalProxy} for other browsers.
+ */
+public class RequestBlocking {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestBlocking.class);
+    private static final Map<WebDriver, DevToolsRequestBlocker> blockers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @return Whether the browser blocks requests through DevTools, others need a {@link LocalProxy}
+     */
+    public static boolean usesDevTools(Browser browser) {
+        return Browser.CHROME.equals(browser) || Browser.EDGE.equals(browser);
+    }
+
+    /**
+     * Blocks the requests of the rules in the session, replacing the rules of a previous test of the session
+     *
+     * @param driver  The undecorated driver of the session
+     * @param browser Browser of the session
+     * @param rules   {@link BlockingRules} of the test
+     */
+    public static void apply(WebDriver driver, Browser browser, BlockingRules rules) {
+        if (!rules.isEmpty()) {
+            RunReports.register("Blocked requests", () -> BlockedRequests.writeReport(Paths.get(SeleniumConstants.BLOCKED_REQUESTS_REPORT)));
+        }
+        Optional<LocalProxy> proxy = LocalProxy.of(driver);
+        if (proxy.isPresent() && !usesDevTools(browser)) {
+            proxy.get().getInterceptor(BlockingInterceptor.class).ifPresent(interceptor -> interceptor.setRules(rules));
+            return;
+        }
+        DevToolsRequestBlocker blocker = blockers.get(driver);
+        if (blocker == null) {
+            if (rules.isEmpty()) {
+                return;
+            }
+            if (!usesDevTools(browser)) {
+                logger.warn("Requests can not be blocked in {} without a local proxy, loading everything", browser.browserName());
+                return;
+            }
+            blocker = DevToolsRequestBlocker.create(driver).orElse(null);
+            if (blocker == null) {
+                logger.warn("DevTools are not available, requests are not blocked");
+                return;
+            }
+            blockers.put(driver, blocker);
+        }
+        blocker.apply(rules);
+        logger.debug("Blocking {}", rules);
+    }
+}
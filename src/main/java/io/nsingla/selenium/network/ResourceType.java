@@ -0,0 +1,74 @@
+package io.nsingla.selenium.network;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Resource types requests can be blocked by, named after the DevTools {@code Network.ResourceType}.
+ */
+public enum ResourceType {
+    IMAGE("Image", "image/", "png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico", "bmp"),
+    MEDIA("Media", "video/", "mp4", "webm", "ogg", "mp3", "wav", "m4a", "m3u8"),
+    FONT("Font", "font/", "woff", "woff2", "ttf", "otf", "eot"),
+    STYLESHEET("Stylesheet", "text/css", "css"),
+    SCRIPT("Script", "javascript", "js", "mjs");
+
+    private final String devToolsName;
+    private final String acceptPrefix;
+    private final List<String> extensions;
+
+    ResourceType(String devToolsName, String acceptPrefix, String... extensions) {
+        this.devToolsName = devToolsName;
+        this.acceptPrefix = acceptPrefix;
+        this.extensions = Arrays.asList(extensions);
+    }
+
+    public String getDevToolsName() {
+        return devToolsName;
+    }
+
+    public static ResourceType fromString(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Guesses the type of a request seen by a proxy, which unlike DevTools does not know what the browser asked for
+     *
+     * @param url    The requested url
+     * @param accept The Accept header of the request, may be null
+     * @return The resource type, or empty if it can not be told
+     */
+    public static Optional<ResourceType> guess(String url, String accept) {
+        String path = url;
+        int end = indexOfAny(path, '?', '#');
+        if (end >= 0) {
+            path = path.substring(0, end);
+        }
+        int dot = path.lastIndexOf('.');
+        if (dot > path.lastIndexOf('/')) {
+            String extension = path.substring(dot + 1).toLowerCase(Locale.ROOT);
+            for (ResourceType type : values()) {
+                if (type.extensions.contains(extension)) {
+                    return Optional.of(type);
+                }
+            }
+        }
+        if (accept != null && !accept.startsWith("text/html")) {
+            // browsers send the type they expect first, e.g. image/avif,image/webp,*/* for an img
+            for (ResourceType type : values()) {
+                if (accept.startsWith(type.acceptPrefix) || (type == MEDIA && accept.startsWith("audio/"))) {
+                    return Optional.of(type);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static int indexOfAny(String value, char first, char second) {
+        int a = value.indexOf(first);
+        int b = value.indexOf(second);
+        return a < 0 ? b : (b < 0 ? a : Math.min(a, b));
+    }
+}
@@ -0,0 +1,255 @@
+package io.nsingla.selenium.profile;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.DriverFactory;
+import io.nsingla.selenium.enums.TestMode;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Browser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Warmed browser profiles in {@code profileTemplateDir/<browser>}, cloned into a user data directory of its own for
+ * every local session. A clone is a reflink of the template where the file system supports it ({@code cp --reflink}),
+ * otherwise a copy, and is deleted in the background when the session quits.
+ */
+public class ProfileTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileTemplates.class);
+    private static final String CLONE_PREFIX = "selenium-profile-";
+    // owned by the running browser, a clone must not start with them
+    private static final Set<String> LOCK_FILES = Set.of("SingletonLock", "SingletonSocket", "SingletonCookie",
+        "lockfile", "parent.lock", "lock", ".parentlock");
+    private static final Map<WebDriver, Path> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicInteger counter = new AtomicInteger();
+    private static final ExecutorService cleaner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profile-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile boolean reflinkUnsupported = !"auto".equalsIgnoreCase(SeleniumConstants.PROFILE_CLONE_MODE);
+    private static volatile boolean staleClonesDeleted;
+
+    /**
+     * @return Whether sessions of the browser start from a clone of a profile template
+     */
+    public static boolean isEnabled(Browser browser) {
+        return SeleniumConstants.PROFILE_TEMPLATE_DIR != null
+            && (Browser.CHROME.equals(browser) || Browser.EDGE.equals(browser) || Browser.FIREFOX.equals(browser));
+    }
+
+    /**
+     * @return Directory of the profile template of the browser
+     */
+    public static Path template(Browser browser) {
+        return Paths.get(SeleniumConstants.PROFILE_TEMPLATE_DIR, browser.browserName());
+    }
+
+    /**
+     * Clones the profile template of the browser into a new user data directory
+     *
+     * @return The clone, or null if there is no template for the browser yet
+     */
+    public static Path clone(Browser browser) {
+        Path template = template(browser);
+        if (!Files.isDirectory(template)) {
+            logger.warn("No profile template in {}, starting with a new profile. Create it with {}", template,
+                ProfileTemplates.class.getName());
+            return null;
+        }
+        deleteStaleClones();
+        Path clone = Paths.get(SeleniumConstants.PROFILE_CLONE_DIR, CLONE_PREFIX + ProcessHandle.current().pid() + "-"
+            + browser.browserName() + "-" + counter.incrementAndGet());
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(clone.getParent());
+            if (!reflinkUnsupported && !reflink(template, clone)) {
+                logger.info("Reflinks are not supported in {}, profile templates are copied", clone.getParent());
+                reflinkUnsupported = true;
+                deleteTree(clone);
+            }
+            if (reflinkUnsupported) {
+                copy(template, clone);
+            }
+            for (String lockFile : LOCK_FILES) {
+                Files.deleteIfExists(clone.resolve(lockFile));
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to clone profile template {}, starting with a new profile", template, e);
+            delete(clone);
+            return null;
+        }
+        logger.debug("Cloned profile template {} to {} in {}ms", template, clone,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return clone;
+    }
+
+    /**
+     * Deletes the clone when the session is quit, see {@link #deleteFor(WebDriver)}
+     */
+    public static void register(WebDriver driver, Path clone) {
+        sessions.put(driver, clone);
+    }
+
+    /**
+     * Deletes the clone the session was started with in the background, after the session was quit
+     */
+    public static void deleteFor(WebDriver driver) {
+        Path clone = sessions.remove(driver);
+        if (clone != null) {
+            delete(clone);
+        }
+    }
+
+    public static void delete(Path clone) {
+        cleaner.execute(() -> {
+            try {
+                deleteTree(clone);
+            } catch (IOException e) {
+                logger.debug("Failed to delete profile clone {}", clone, e);
+            }
+        });
+    }
+
+    /**
+     * Replaces the profile template of the browser with a new profile, warmed by opening the given pages
+     *
+     * @param browser  Browser of the template
+     * @param headless Whether the browser is started headless
+     * @param urls     Pages to open, the caches and service workers of these pages are in the template
+     */
+    public static void refresh(Browser browser, boolean headless, List<String> urls) throws IOException {
+        Path template = template(browser);
+        Path staged = template.resolveSibling(template.getFileName() + ".new");
+        Path previous = template.resolveSibling(template.getFileName() + ".old");
+        deleteTree(staged);
+        Files.createDirectories(staged);
+        WebDriver driver = new DriverFactory.DriverFactoryBuilder().setBrowser(browser).setTestMode(TestMode.LOCAL)
+            .setHeadless(headless).setDownloadPath(SeleniumConstants.DOWNLOAD_PATH)
+            .setProfileDir(staged.toAbsolutePath().toString()).build().getDriver();
+        try {
+            for (String url : urls) {
+                logger.info("Warming profile template with {}", url);
+                driver.get(url);
+            }
+        } finally {
+            // the browser writes its caches to disk when it exits
+            driver.quit();
+        }
+        deleteTree(previous);
+        if (Files.exists(template)) {
+            Files.move(template, previous, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(staged, template, StandardCopyOption.ATOMIC_MOVE);
+        deleteTree(previous);
+        logger.info("Refreshed profile template {}", template);
+    }
+
+    /**
+     * Refreshes a profile template: {@code ProfileTemplates <browser> <url>...}, e.g.
+     * {@code ProfileTemplates chrome https://app.example.com/}, into {@code profileTemplateDir}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || SeleniumConstants.PROFILE_TEMPLATE_DIR == null) {
+            throw new IllegalArgumentException("Usage: -DprofileTemplateDir=<dir> " + ProfileTemplates.class.getName()
+                + " <browser> <url>...");
+        }
+        Browser browser = Arrays.asList(Browser.CHROME, Browser.EDGE, Browser.FIREFOX).stream()
+            .filter(candidate -> candidate.is(args[0]))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Profile templates are not supported for " + args[0]));
+        refresh(browser, SeleniumConstants.HEADLESS, Arrays.asList(args).subList(1, args.length));
+    }
+
+    private static boolean reflink(Path template, Path clone) {
+        boolean mac = System.getProperty("os.name").toLowerCase().contains("mac");
+        List<String> command = mac
+            ? Arrays.asList("cp", "-cR", template.toString(), clone.toString())
+            : Arrays.asList("cp", "-R", "--reflink=always", template.toString(), clone.toString());
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            return process.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void copy(Path template, Path clone) throws IOException {
+        Files.walkFileTree(template, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(clone.resolve(template.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && !LOCK_FILES.contains(file.getFileName().toString())) {
+                    Files.copy(file, clone.resolve(template.relativize(file).toString()), StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Clones left behind by test runs that were killed are deleted once, in the background
+     */
+    private static void deleteStaleClones() {
+        if (staleClonesDeleted) {
+            return;
+        }
+        staleClonesDeleted = true;
+        cleaner.execute(() -> {
+            try (DirectoryStream<Path> clones = Files.newDirectoryStream(Paths.get(SeleniumConstants.PROFILE_CLONE_DIR),
+                CLONE_PREFIX + "*")) {
+                for (Path clone : clones) {
+                    String pid = clone.getFileName().toString().substring(CLONE_PREFIX.length()).split("-")[0];
+                    if (pid.matches("\\d+") && !ProcessHandle.of(Long.parseLong(pid)).isPresent()) {
+                        deleteTree(clone);
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Failed to delete stale profile clones", e);
+            }
+        });
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.nsingla.selenium.proxy;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.metrics.RunReports;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves static assets that the server marked as long lived from a {@link ResponseCache} shared by the proxies of all
+ * sessions, so a new browser with an empty cache does not download them again. Only GET responses with
+ * {@code Cache-Control: immutable} or a max-age of at least {@code proxyCacheMinMaxAgeSeconds} are cached, never ones
+ * that set cookies, are private or vary by anything but the encoding.
+ */
+public class CachingInterceptor implements ProxyInterceptor {
+
+    private static ResponseCache shared;
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong bytesSaved = new AtomicLong();
+
+    private final ResponseCache cache;
+    private final long minMaxAgeSeconds;
+
+    public CachingInterceptor(ResponseCache cache, long minMaxAgeSeconds) {
+        this.cache = cache;
+        this.minMaxAgeSeconds = minMaxAgeSeconds;
+    }
+
+    /**
+     * @return Interceptor on the cache of the run, created from the runtime parameters on first use
+     */
+    public static synchronized CachingInterceptor shared() {
+        if (shared == null) {
+            String directory = SeleniumConstants.PROXY_CACHE_DIR;
+            shared = new ResponseCache(SeleniumConstants.PROXY_CACHE_MB * 1024L * 1024L,
+                directory == null || directory.isEmpty() ? null : Paths.get(directory));
+            RunReports.register("Proxy cache", () -> {
+                try {
+                    writeReport(Paths.get(SeleniumConstants.PROXY_CACHE_REPORT));
+                } finally {
+                    // the bodies are not reused by the next run
+                    shared.clear();
+                }
+            });
+        }
+        return new CachingInterceptor(shared, SeleniumConstants.PROXY_CACHE_MIN_MAX_AGE_SECONDS);
+    }
+
+    @Override
+    public ProxyResponse onRequest(ProxyRequest request) {
+        if (!isCacheableRequest(request)) {
+            return null;
+        }
+        requests.incrementAndGet();
+        ProxyResponse cached = cache.get(key(request), System.currentTimeMillis());
+        if (cached != null) {
+            hits.incrementAndGet();
+            bytesSaved.addAndGet(cached.getBody().length);
+        }
+        return cached;
+    }
+
+    @Override
+    public void onResponse(ProxyRequest request, ProxyResponse response) {
+        if (!isCacheableRequest(request) || response.getStatus() != 200 || response.getHeaders().containsKey("Set-Cookie")) {
+            return;
+        }
+        String vary = response.getHeader("Vary");
+        if (vary != null && !Arrays.stream(vary.split(",")).map(String::trim).allMatch("accept-encoding"::equalsIgnoreCase)) {
+            return;
+        }
+        long maxAge = maxAgeSeconds(response.getHeader("Cache-Control"));
+        if (maxAge >= minMaxAgeSeconds) {
+            cache.put(key(request), response, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(maxAge));
+        }
+    }
+
+    private static boolean isCacheableRequest(ProxyRequest request) {
+        return "GET".equalsIgnoreCase(request.getMethod()) && request.getHeader("Range") == null
+            && request.getHeader("Authorization") == null;
+    }
+
+    private static String key(ProxyRequest request) {
+        String encoding = request.getHeader("Accept-Encoding");
+        return request.getUrl() + " " + (encoding == null ? "" : encoding);
+    }
+
+    /**
+     * @return max-age of the header, a year for immutable responses without one, -1 if the response may not be cached
+     */
+    static long maxAgeSeconds(String cacheControl) {
+        if (cacheControl == null) {
+            return -1;
+        }
+        long maxAge = -1;
+        boolean immutable = false;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            directive = directive.trim();
+            if (directive.equals("no-store") || directive.equals("no-cache") || directive.equals("private")) {
+                return -1;
+            } else if (directive.equals("immutable")) {
+                immutable = true;
+            } else if (directive.startsWith("max-age=")) {
+                try {
+                    maxAge = Long.parseLong(directive.substring("max-age=".length()).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return immutable && maxAge < 0 ? TimeUnit.DAYS.toSeconds(365) : maxAge;
+    }
+
+    /**
+     * Writes hit ratio and bytes saved as a markdown table
+     *
+     * @param file The report file
+     */
+    public static synchronized void writeReport(Path file) throws IOException {
+        long total = requests.get();
+        String report = "# Proxy cache\n\n"
+            + "| Cacheable requests | Hits | Hit ratio | Bytes saved | Cached entries | Cached bytes | Evictions |\n"
+            + "|---|---|---|---|---|---|---|\n"
+            + String.format(Locale.ROOT, "| %d | %d | %.1f%% | %d | %d | %d | %d |%n", total, hits.get(),
+            total == 0 ? 0 : 100.0 * hits.get() / total, bytesSaved.get(), shared == null ? 0 : shared.getEntries(),
+            shared == null ? 0 : shared.getBytes(), shared == null ? 0 : shared.getEvictions());
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Files.write(absolute, report.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,373 @@
+package io.nsingla.selenium.proxy;
+
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Forward proxy in the test JVM for one browser session. Plain http requests are passed through its
+ * {@link ProxyInterceptor}s and forwarded, https requests are tunneled (CONNECT) without being seen.
+ */
+public class LocalProxy implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalProxy.class);
+    private static final Map<WebDriver, LocalProxy> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // managed by the proxy itself on either side
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-connection",
+        "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length",
+        "host", "expect");
+
+    private static final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .proxy(HttpClient.Builder.NO_PROXY)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private final List<ProxyInterceptor> interceptors = new CopyOnWriteArrayList<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "local-proxy");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ServerSocket serverSocket;
+
+    /**
+     * Starts the proxy on a free port of the loopback interface
+     */
+    public LocalProxy start() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::accept);
+        logger.debug("Local proxy listening on port {}", getPort());
+        return this;
+    }
+
+    public LocalProxy addInterceptor(ProxyInterceptor interceptor) {
+        interceptors.add(interceptor);
+        return this;
+    }
+
+    /**
+     * @return The first interceptor of the type, if the proxy has one
+     */
+    public <T extends ProxyInterceptor> Optional<T> getInterceptor(Class<T> type) {
+        return interceptors.stream().filter(type::isInstance).map(type::cast).findFirst();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return Proxy settings for the browser options, for http and https
+     */
+    public Proxy toSeleniumProxy() {
+        String address = "127.0.0.1:" + getPort();
+        return new Proxy().setProxyType(Proxy.ProxyType.MANUAL).setHttpProxy(address).setSslProxy(address);
+    }
+
+    /**
+     * Links the proxy to the session, so it can be found by {@link #of(WebDriver)} and is closed with
+     * {@link #closeFor(WebDriver)}
+     */
+    public void register(WebDriver driver) {
+        sessions.put(driver, this);
+    }
+
+    /**
+     * @param driver The undecorated driver of a session
+     * @return The proxy of the session, if it was started with one
+     */
+    public static Optional<LocalProxy> of(WebDriver driver) {
+        return Optional.ofNullable(sessions.get(driver));
+    }
+
+    /**
+     * Closes the proxy of a session that has been quit
+     */
+    public static void closeFor(WebDriver driver) {
+        LocalProxy proxy = sessions.remove(driver);
+        if (proxy != null) {
+            proxy.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close local proxy", e);
+        }
+        connections.forEach(LocalProxy::closeQuietly);
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Local proxy failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket browser = socket) {
+            InputStream in = new BufferedInputStream(browser.getInputStream());
+            OutputStream out = browser.getOutputStream();
+            boolean keepAlive = true;
+            while (keepAlive) {
+                String requestLine = readLine(in);
+                if (requestLine == null) {
+                    return;
+                }
+                if (requestLine.isEmpty()) {
+                    continue;
+                }
+                String[] parts = requestLine.split(" ");
+                if (parts.length < 3) {
+                    writeResponse(out, ProxyResponse.of(400, null, new byte[0]), false, false);
+                    return;
+                }
+                Map<String, List<String>> headers = readHeaders(in);
+                if ("CONNECT".equalsIgnoreCase(parts[0])) {
+                    tunnel(browser, in, out, parts[1]);
+                    return;
+                }
+                keepAlive = !"close".equalsIgnoreCase(first(headers, "Connection"))
+                    && !"close".equalsIgnoreCase(first(headers, "Proxy-Connection"));
+                ProxyRequest request = new ProxyRequest(parts[0], parts[1], headers, readBody(in, headers));
+                writeResponse(out, handle(request), keepAlive, "HEAD".equalsIgnoreCase(request.getMethod()));
+            }
+        } catch (SocketException | EOFException e) {
+            logger.trace("Browser closed the proxy connection", e);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Local proxy failed to serve a request", e);
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private ProxyResponse handle(ProxyRequest request) {
+        for (ProxyInterceptor interceptor : interceptors) {
+            ProxyResponse response = interceptor.onRequest(request);
+            if (response != null) {
+                return response;
+            }
+        }
+        ProxyResponse response;
+        try {
+            response = forward(request);
+        } catch (IOException e) {
+            logger.debug("Failed to forward {}", request, e);
+            return ProxyResponse.of(502, "text/plain", ("Bad gateway: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ProxyResponse.of(502, null, new byte[0]);
+        }
+        for (ProxyInterceptor interceptor : interceptors) {
+            interceptor.onResponse(request, response);
+        }
+        return response;
+    }
+
+    private static ProxyResponse forward(ProxyRequest request) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl())).timeout(Duration.ofMinutes(2));
+        request.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        builder.method(request.getMethod(), request.getBody().length == 0
+            ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(request.getBody()));
+        HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        response.headers().map().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase()) && !name.startsWith(":")) {
+                headers.put(name, new ArrayList<>(values));
+            }
+        });
+        return new ProxyResponse(response.statusCode(), headers, response.body());
+    }
+
+    private void tunnel(Socket browser, InputStream in, OutputStream out, String target) throws IOException {
+        int colon = target.lastIndexOf(':');
+        String host = colon > 0 ? target.substring(0, colon) : target;
+        int port = colon > 0 ? Integer.parseInt(target.substring(colon + 1)) : 443;
+        for (ProxyInterceptor interceptor : interceptors) {
+            if (!interceptor.allowTunnel(host, port)) {
+                writeResponse(out, ProxyResponse.of(403, null, new byte[0]), false, false);
+                return;
+            }
+        }
+        try (Socket server = new Socket()) {
+            server.connect(new InetSocketAddress(host, port), 10_000);
+            connections.add(server);
+            out.write("HTTP/1.1 200 Connection established\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            executor.execute(() -> pipe(in, server, browser));
+            pipe(server.getInputStream(), browser, server);
+        } finally {
+            connections.removeIf(Socket::isClosed);
+        }
+    }
+
+    private static void pipe(InputStream in, Socket to, Socket from) {
+        byte[] buffer = new byte[16 * 1024];
+        try {
+            OutputStream out = to.getOutputStream();
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException e) {
+            logger.trace("Tunnel closed", e);
+        } finally {
+            closeQuietly(to);
+            closeQuietly(from);
+        }
+    }
+
+    private static void writeResponse(OutputStream out, ProxyResponse response, boolean keepAlive, boolean headRequest) throws IOException {
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(response.getStatus()).append(' ')
+            .append(reason(response.getStatus())).append("\r\n");
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> head.append(name).append(": ").append(value).append("\r\n"));
+            }
+        });
+        boolean hasBody = response.getStatus() >= 200 && response.getStatus() != 204 && response.getStatus() != 304;
+        if (hasBody) {
+            head.append("Content-Length: ").append(response.getBody().length).append("\r\n");
+        }
+        head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        if (hasBody && !headRequest) {
+            out.write(response.getBody());
+        }
+        out.flush();
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200:
+                return "OK";
+            case 304:
+                return "Not Modified";
+            case 403:
+                return "Forbidden";
+            case 404:
+                return "Not Found";
+            case 502:
+                return "Bad Gateway";
+            default:
+                return "Status";
+        }
+    }
+
+    private static Map<String, List<String>> readHeaders(InputStream in) throws IOException {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.computeIfAbsent(line.substring(0, colon).trim(), key -> new ArrayList<>()).add(line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private static byte[] readBody(InputStream in, Map<String, List<String>> headers) throws IOException {
+        if ("chunked".equalsIgnoreCase(first(headers, "Transfer-Encoding"))) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            int size;
+            while ((size = Integer.parseInt(readLine(in).split(";")[0].trim(), 16)) > 0) {
+                body.write(readFully(in, size));
+                readLine(in);
+            }
+            readHeaders(in); // trailers
+            return body.toByteArray();
+        }
+        String length = first(headers, "Content-Length");
+        return length == null ? new byte[0] : readFully(in, Integer.parseInt(length.trim()));
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Request body ended after " + bytes.length + " of " + length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        if (b < 0 && line.size() == 0) {
+            return null;
+        }
+        return line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String first(Map<String, List<String>> headers, String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+}
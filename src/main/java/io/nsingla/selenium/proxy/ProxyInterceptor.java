@@ -0,0 +1,30 @@
+package io.nsingla.selenium.proxy;
+
+/**
+ * Sees the requests going through a {@link LocalProxy}, in the order the interceptors were added.
+ */
+public interface ProxyInterceptor {
+
+    /**
+     * @param request The request of the browser
+     * @return A response to send instead of forwarding the request, or null to continue
+     */
+    default ProxyResponse onRequest(ProxyRequest request) {
+        return null;
+    }
+
+    /**
+     * Called for every response received from the server, before it is sent to the browser
+     */
+    default void onResponse(ProxyRequest request, ProxyResponse response) {
+    }
+
+    /**
+     * https requests are tunneled without being seen by the proxy, so only the host can be checked
+     *
+     * @return Whether the browser may open a tunnel to the host
+     */
+    default boolean allowTunnel(String host, int port) {
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package io.nsingla.selenium.proxy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request of the browser received by a {@link LocalProxy}.
+ */
+public class ProxyRequest {
+
+    private final String method;
+    private final String url;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    /**
+     * @param headers Headers, with case insensitive names
+     */
+    public ProxyRequest(String method, String url, Map<String, List<String>> headers, byte[] body) {
+        this.method = method;
+        this.url = url;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return The first value of the header, or null
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url;
+    }
+}
@@ -0,0 +1,57 @@
+package io.nsingla.selenium.proxy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Response sent to the browser by a {@link LocalProxy}.
+ */
+public class ProxyResponse {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    /**
+     * @param headers Headers, with case insensitive names
+     */
+    public ProxyResponse(int status, Map<String, List<String>> headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * @return A response without headers except the content type
+     */
+    public static ProxyResponse of(int status, String contentType, byte[] body) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (contentType != null) {
+            headers.put("Content-Type", new ArrayList<>(Collections.singletonList(contentType)));
+        }
+        return new ProxyResponse(status, headers, body);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return The first value of the header, or null
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,227 @@
+package io.nsingla.selenium.proxy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Least recently used cache of responses, bounded by the size of the bodies. Bodies are kept in memory, or in files of
+ * a directory when one is given, in which case only the headers stay in memory. Bodies are read and written outside
+ * the lock of the cache, so a slow disk does not serialize the proxies of all sessions. The files are not reused across
+ * runs, the ones left by an earlier run are deleted when the cache is created.
+ */
+public class ResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+    private static final Pattern BODY_FILE = Pattern.compile("[0-9a-f]{64}-[0-9]+");
+
+    private final long maxBytes;
+    private final Path directory;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long evictions;
+    private final AtomicLong files = new AtomicLong();
+
+    /**
+     * @param maxBytes  Upper bound of the size of all cached bodies
+     * @param directory Directory for the bodies, null to keep them in memory
+     */
+    public ResponseCache(long maxBytes, Path directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+                deleteBodyFiles(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Deletes the body files of an earlier run, leaving other files of the directory alone
+     */
+    private static void deleteBodyFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> BODY_FILE.matcher(file.getFileName().toString()).matches()).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.debug("Failed to delete {}", file, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return The cached response, or null if there is none or it expired
+     */
+    public ProxyResponse get(String key, long now) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+        }
+        if (now >= entry.expires) {
+            remove(key, entry);
+            return null;
+        }
+        if (entry.body != null) {
+            return new ProxyResponse(entry.status, copy(entry.headers), entry.body);
+        }
+        try {
+            return new ProxyResponse(entry.status, copy(entry.headers), Files.readAllBytes(entry.file));
+        } catch (IOException e) {
+            // evicted while reading, or deleted from outside
+            logger.debug("Cached body of {} is gone", key, e);
+            remove(key, entry);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the response until {@code expires}, evicting the least recently used responses if needed
+     */
+    public void put(String key, ProxyResponse response, long expires) {
+        long size = response.getBody().length;
+        if (size > maxBytes) {
+            return;
+        }
+        Entry entry = new Entry(response.getStatus(), copy(response.getHeaders()), expires, size);
+        if (directory == null) {
+            entry.body = response.getBody();
+        } else {
+            // a file per entry, so a replaced or evicted entry can still be read by a get that looked it up before
+            entry.file = directory.resolve(fileName(key) + "-" + files.incrementAndGet());
+            try {
+                Files.write(entry.file, response.getBody());
+            } catch (IOException e) {
+                logger.debug("Failed to cache {}", key, e);
+                deleteFile(entry);
+                return;
+            }
+        }
+        List<Entry> removed = new ArrayList<>();
+        synchronized (this) {
+            Entry replaced = entries.remove(key);
+            if (replaced != null) {
+                bytes -= replaced.size;
+                removed.add(replaced);
+            }
+            entries.put(key, entry);
+            bytes += size;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Entry evicted = eldest.next().getValue();
+                eldest.remove();
+                bytes -= evicted.size;
+                removed.add(evicted);
+                evictions++;
+            }
+        }
+        removed.forEach(ResponseCache::deleteFile);
+    }
+
+    /**
+     * Removes all entries and their files
+     */
+    public void clear() {
+        List<Entry> removed;
+        synchronized (this) {
+            removed = new ArrayList<>(entries.values());
+            entries.clear();
+            bytes = 0;
+        }
+        removed.forEach(ResponseCache::deleteFile);
+    }
+
+    /**
+     * Removes the entry of the key if it still is the given one, and its file
+     */
+    private void remove(String key, Entry entry) {
+        synchronized (this) {
+            if (!entries.remove(key, entry)) {
+                return;
+            }
+            bytes -= entry.size;
+        }
+        deleteFile(entry);
+    }
+
+    private static void deleteFile(Entry entry) {
+        if (entry.file != null) {
+            try {
+                Files.deleteIfExists(entry.file);
+            } catch (IOException e) {
+                logger.debug("Failed to delete {}", entry.file, e);
+            }
+        }
+    }
+
+    public synchronized int getEntries() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private static Map<String, List<String>> copy(Map<String, List<String>> headers) {
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach((name, values) -> copy.put(name, new ArrayList<>(values)));
+        return copy;
+    }
+
+    private static String fileName(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (byte b : hash) {
+                name.append(String.format(Locale.ROOT, "%02x", b));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final long expires;
+        private final long size;
+        private byte[] body;
+        private Path file;
+
+        private Entry(int status, Map<String, List<String>> headers, long expires, long size) {
+            this.status = status;
+            this.headers = headers;
+            this.expires = expires;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.nsingla.selenium.recording;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed capacity ring buffer of encoded screencast frames. Frames older than the configured window, or
+ * frames that would push the buffer over its byte budget, evict the oldest entries.
+ */
+public class FrameRingBuffer {
+
+    private final Frame[] frames;
+    private final long maxAgeMillis;
+    private final long maxBytes;
+    private int head;
+    private int size;
+    private long bytes;
+    private long peakBytes;
+    private long evicted;
+
+    /**
+     * @param capacity     Maximum number of frames kept
+     * @param maxAgeMillis Frames older than this (relative to the newest frame) are dropped
+     * @param maxBytes     Maximum number of encoded bytes kept
+     */
+    public FrameRingBuffer(int capacity, long maxAgeMillis, long maxBytes) {
+        this.frames = new Frame[capacity];
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized void add(byte[] jpeg, long timestampMillis) {
+        if (jpeg.length > maxBytes) {
+            evicted++;
+            return;
+        }
+        while (size > 0 && (size == frames.length || bytes + jpeg.length > maxBytes
+            || timestampMillis - frames[head].timestampMillis > maxAgeMillis)) {
+            removeOldest();
+        }
+        frames[(head + size) % frames.length] = new Frame(jpeg, timestampMillis);
+        size++;
+        bytes += jpeg.length;
+        peakBytes = Math.max(peakBytes, bytes);
+    }
+
+    private void removeOldest() {
+        bytes -= frames[head].jpeg.length;
+        frames[head] = null;
+        head = (head + 1) % frames.length;
+        size--;
+        evicted++;
+    }
+
+    /**
+     * @return Copy of the buffered frames, oldest first
+     */
+    public synchronized List<Frame> snapshot() {
+        List<Frame> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(frames[(head + i) % frames.length]);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(frames, null);
+        head = 0;
+        size = 0;
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getPeakBytes() {
+        return peakBytes;
+    }
+
+    public synchronized long getEvicted() {
+        return evicted;
+    }
+
+    public static class Frame {
+        private final byte[] jpeg;
+        private final long timestampMillis;
+
+        Frame(byte[] jpeg, long timestampMillis) {
+            this.jpeg = jpeg;
+            this.timestampMillis = timestampMillis;
+        }
+
+        public byte[] getJpeg() {
+            return jpeg;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.nsingla.selenium.recording;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encodes buffered screencast frames into an animated GIF, using only the JDK image writers.
+ */
+public class GifEncoder {
+
+    private static final String GIF_METADATA_FORMAT = "javax_imageio_gif_image_1.0";
+    private static final int MIN_DELAY_CENTIS = 2;
+    private static final int MAX_DELAY_CENTIS = 500;
+
+    /**
+     * Writes the frames to {@code file}, keeping the original timing between frames
+     *
+     * @param frames Frames, oldest first
+     * @param file   The target gif
+     * @throws IOException if a frame cannot be decoded or the file cannot be written
+     */
+    public static void write(List<FrameRingBuffer.Frame> frames, File file) throws IOException {
+        if (frames.isEmpty()) {
+            throw new IOException("No screencast frames were recorded");
+        }
+        ImageWriter writer = ImageIO.getImageWritersBySuffix("gif").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+            ImageWriteParam params = writer.getDefaultWriteParam();
+            for (int i = 0; i < frames.size(); i++) {
+                FrameRingBuffer.Frame frame = frames.get(i);
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(frame.getJpeg()));
+                if (image == null) {
+                    continue;
+                }
+                long next = i + 1 < frames.size() ? frames.get(i + 1).getTimestampMillis() : frame.getTimestampMillis() + 1000;
+                int delayCentis = (int) Math.max(MIN_DELAY_CENTIS, Math.min(MAX_DELAY_CENTIS, (next - frame.getTimestampMillis()) / 10));
+                IIOMetadata metadata = frameMetadata(writer, params, image, delayCentis, i == 0);
+                writer.writeToSequence(new IIOImage(image, null, metadata), params);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static IIOMetadata frameMetadata(ImageWriter writer, ImageWriteParam params, BufferedImage image,
+                                             int delayCentis, boolean first) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), params);
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(GIF_METADATA_FORMAT);
+
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(delayCentis));
+        control.setAttribute("transparentColorIndex", "0");
+
+        if (first) {
+            // Loop forever
+            IIOMetadataNode extension = new IIOMetadataNode("ApplicationExtension");
+            extension.setAttribute("applicationID", "NETSCAPE");
+            extension.setAttribute("authenticationCode", "2.0");
+            extension.setUserObject(new byte[]{0x1, 0x0, 0x0});
+            child(root, "ApplicationExtensions").appendChild(extension);
+        }
+        metadata.setFromTree(GIF_METADATA_FORMAT, root);
+        return metadata;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+        for (int i = 0; i < root.getLength(); i++) {
+            if (root.item(i).getNodeName().equalsIgnoreCase(name)) {
+                return (IIOMetadataNode) root.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        root.appendChild(node);
+        return node;
+    }
+}
@@ -0,0 +1,211 @@
+package io.nsingla.selenium.recording;
+
+import io.nsingla.selenium.devtools.DevToolsHelper;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records the last few seconds of a chrome session through the DevTools {@code Page.startScreencast} frames.
+ * Frames are kept as the JPEGs sent by the browser and only decoded when {@link #writeGif(File)} is called.
+ * The frame rate is capped by delaying the frame acknowledgements, which also throttles the browser side encoding.
+ */
+public class ScreencastRecorder implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreencastRecorder.class);
+    private static final int JPEG_QUALITY = 60;
+    private static final int MAX_WIDTH = 1280;
+    private static final int MAX_HEIGHT = 720;
+    // the recorder of every DevTools session, which has a single frame listener as DevTools cannot remove one
+    private static final Map<DevTools, AtomicReference<ScreencastRecorder>> recorders =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final DevTools devTools;
+    private final FrameRingBuffer buffer;
+    private final long frameIntervalMillis;
+    private final ScheduledExecutorService acknowledger;
+    private final AtomicLong nextAckMillis = new AtomicLong();
+    private final AtomicLong framesReceived = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong handlerNanos = new AtomicLong();
+    private volatile boolean recording;
+    private volatile boolean closed;
+    private long encodeMillis;
+
+    private ScreencastRecorder(DevTools devTools, int seconds, int maxMegabytes, int maxFps) {
+        this.devTools = devTools;
+        this.frameIntervalMillis = 1000L / Math.max(1, maxFps);
+        this.buffer = new FrameRingBuffer(Math.max(1, seconds * maxFps + 1), seconds * 1000L, maxMegabytes * 1024L * 1024L);
+        this.acknowledger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "screencast-ack");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts recording the given driver
+     *
+     * @param driver       The chrome {@link WebDriver} to record
+     * @param seconds      How many seconds of history to keep
+     * @param maxMegabytes Upper bound of the memory used by buffered frames
+     * @param maxFps       Upper bound of frames per second accepted from the browser
+     * @return {@link ScreencastRecorder}, or empty if the driver does not support DevTools
+     */
+    public static Optional<ScreencastRecorder> start(WebDriver driver, int seconds, int maxMegabytes, int maxFps) {
+        return DevToolsHelper.createSession(driver).map(devTools -> {
+            ScreencastRecorder recorder = new ScreencastRecorder(devTools, seconds, maxMegabytes, maxFps);
+            recorder.start();
+            return recorder;
+        });
+    }
+
+    private void start() {
+        ScreencastRecorder previous = recorders.computeIfAbsent(devTools, session -> {
+            AtomicReference<ScreencastRecorder> current = new AtomicReference<>();
+            session.addListener(DevToolsHelper.event("Page.screencastFrame"), frame -> {
+                ScreencastRecorder recorder = current.get();
+                if (recorder != null) {
+                    recorder.onFrame(frame);
+                }
+            });
+            return current;
+        }).getAndSet(this);
+        if (previous != null) {
+            // a reused session, stopped before this recording starts
+            previous.close();
+        }
+        devTools.send(DevToolsHelper.command("Page.enable", new HashMap<>()));
+        Map<String, Object> params = new HashMap<>();
+        params.put("format", "jpeg");
+        params.put("quality", JPEG_QUALITY);
+        params.put("maxWidth", MAX_WIDTH);
+        params.put("maxHeight", MAX_HEIGHT);
+        params.put("everyNthFrame", 1);
+        devTools.send(DevToolsHelper.command("Page.startScreencast", params));
+        recording = true;
+        logger.debug("Screencast recording started");
+    }
+
+    private void onFrame(Map<String, Object> frame) {
+        long start = System.nanoTime();
+        if (recording) {
+            byte[] jpeg = Base64.getDecoder().decode((String) frame.get("data"));
+            buffer.add(jpeg, System.currentTimeMillis());
+            framesReceived.incrementAndGet();
+            bytesReceived.addAndGet(jpeg.length);
+        }
+        // The browser sends the next frame only after the previous one was acknowledged
+        Object sessionId = frame.get("sessionId");
+        long now = System.currentTimeMillis();
+        long ackAt = nextAckMillis.updateAndGet(previous -> Math.max(now, previous + frameIntervalMillis));
+        if (!closed) {
+            try {
+                acknowledger.schedule(() -> acknowledge(sessionId), ackAt - now, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.trace("Screencast frame received while closing", e);
+            }
+        }
+        handlerNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private void acknowledge(Object sessionId) {
+        if (closed) {
+            return;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("sessionId", sessionId);
+        try {
+            devTools.send(DevToolsHelper.command("Page.screencastFrameAck", params));
+        } catch (RuntimeException e) {
+            logger.trace("Could not acknowledge screencast frame", e);
+        }
+    }
+
+    /**
+     * Stops receiving frames, the buffered frames are kept
+     */
+    public void stop() {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        try {
+            devTools.send(DevToolsHelper.command("Page.stopScreencast", new HashMap<>()));
+        } catch (RuntimeException e) {
+            logger.debug("Could not stop screencast: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes the buffered frames as an animated gif
+     *
+     * @param file The file to write
+     * @throws IOException if the gif could not be written
+     */
+    public void writeGif(File file) throws IOException {
+        long start = System.currentTimeMillis();
+        GifEncoder.write(buffer.snapshot(), file);
+        encodeMillis = System.currentTimeMillis() - start;
+        logger.debug("Screencast with {} frames written to {} in {} ms", buffer.size(), file, encodeMillis);
+    }
+
+    public long getFramesReceived() {
+        return framesReceived.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public int getBufferedFrames() {
+        return buffer.size();
+    }
+
+    public long getPeakBufferedBytes() {
+        return buffer.getPeakBytes();
+    }
+
+    public long getHandlerMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(handlerNanos.get());
+    }
+
+    /**
+     * @return Summary of the recording overhead, meant for logging
+     */
+    public String getStatistics() {
+        return String.format("frames received: %d (%d KB), frames buffered: %d, frames evicted: %d, peak buffer: %d KB, "
+                + "time in frame handler: %d ms, gif encoding: %d ms",
+            getFramesReceived(), getBytesReceived() / 1024, getBufferedFrames(), buffer.getEvicted(),
+            getPeakBufferedBytes() / 1024, getHandlerMillis(), encodeMillis);
+    }
+
+    @Override
+    public void close() {
+        stop();
+        closed = true;
+        AtomicReference<ScreencastRecorder> current = recorders.get(devTools);
+        if (current != null) {
+            current.compareAndSet(this, null);
+        }
+        acknowledger.shutdownNow();
+        buffer.clear();
+    }
+}
@@ -0,0 +1,94 @@
+package io.nsingla.selenium.retry;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.openqa.selenium.remote.http.ConnectionFailedException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tells failures of the infrastructure (browser, driver, grid, network) apart from failures of the test itself.
+ */
+public class FailureClassifier {
+
+    private static final List<Class<? extends Throwable>> INFRASTRUCTURE_EXCEPTIONS = Arrays.asList(
+        UnreachableBrowserException.class,
+        SessionNotCreatedException.class,
+        NoSuchSessionException.class,
+        ConnectionFailedException.class,
+        ConnectException.class,
+        SocketTimeoutException.class,
+        HttpTimeoutException.class
+    );
+
+    // Messages of chrome and firefox for sessions that died underneath the test
+    private static final List<String> INFRASTRUCTURE_MESSAGES = Arrays.asList(
+        "session deleted because of page crash",
+        "tab crashed",
+        "chrome not reachable",
+        "disconnected: not connected to devtools",
+        "failed to decode response from marionette",
+        "browsing context has been discarded",
+        "session timed out"
+    );
+
+    // Messages of the grid for capabilities no node supports, retrying or another grid of the same setup cannot help
+    private static final List<String> UNSATISFIABLE_MESSAGES = Arrays.asList(
+        "no nodes support the capabilities",
+        "unable to find provider"
+    );
+
+    /**
+     * @param failure The failure of a test
+     * @return Whether the failure, or one of its causes, comes from the infrastructure. Assertion errors never do.
+     */
+    public static boolean isInfrastructure(Throwable failure) {
+        Set<Throwable> seen = new HashSet<>();
+        for (Throwable cause = failure; cause != null && seen.add(cause); cause = cause.getCause()) {
+            if (cause instanceof AssertionError) {
+                return false;
+            }
+            for (Class<? extends Throwable> type : INFRASTRUCTURE_EXCEPTIONS) {
+                if (type.isInstance(cause)) {
+                    return true;
+                }
+            }
+            if (cause instanceof WebDriverException && cause.getMessage() != null) {
+                String message = cause.getMessage().toLowerCase();
+                for (String infrastructureMessage : INFRASTRUCTURE_MESSAGES) {
+                    if (message.contains(infrastructureMessage)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param failure The failure of a session creation
+     * @return Whether the failure, or one of its causes, says that no node supports the requested capabilities, i.e.
+     * a configuration error rather than a failing grid
+     */
+    public static boolean isUnsatisfiableCapabilities(Throwable failure) {
+        Set<Throwable> seen = new HashSet<>();
+        for (Throwable cause = failure; cause != null && seen.add(cause); cause = cause.getCause()) {
+            String message = String.valueOf(cause.getMessage()).toLowerCase(Locale.ROOT);
+            for (String unsatisfiable : UNSATISFIABLE_MESSAGES) {
+                if (message.contains(unsatisfiable)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package io.nsingla.selenium.retry;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.junit5.utils.NamingUtils;
+import io.nsingla.selenium.extensions.OnDemandInvocations;
+import io.nsingla.selenium.metrics.RunReports;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.LifecycleMethodExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.TestAbortedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs an {@link InfraRetryingTest} until it passes, fails for a reason other than the infrastructure, or runs out of
+ * retries. Every attempt goes through the whole lifecycle, so it starts its own session from
+ * {@link io.nsingla.selenium.DriverFactory}; failed attempts are reported as aborted.
+ */
+public class InfraRetryExtension implements TestTemplateInvocationContextProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(InfraRetryExtension.class);
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return AnnotationSupport.isAnnotated(context.getTestMethod(), InfraRetryingTest.class);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        RetryStatistics.initBudget(SeleniumConstants.INFRA_RETRY_BUDGET);
+        RunReports.register("Infrastructure retries", () -> RetryStatistics.writeReport(Paths.get(SeleniumConstants.INFRA_RETRY_REPORT)));
+        int retries = AnnotationSupport.findAnnotation(context.getTestMethod(), InfraRetryingTest.class)
+            .map(InfraRetryingTest::retries)
+            .filter(value -> value >= 0)
+            .orElse(SeleniumConstants.INFRA_RETRIES);
+        // lazy, the next attempt is only created once the previous one asked for it
+        return new Attempts(NamingUtils.getTestName(context), retries).stream();
+    }
+
+    private static class Attempts extends OnDemandInvocations<Integer> {
+        private final String test;
+        private final int retries;
+
+        private Attempts(String test, int retries) {
+            super(1);
+            this.test = test;
+            this.retries = retries;
+        }
+
+        @Override
+        protected TestTemplateInvocationContext create(Integer attempt) {
+            return new Attempt(this, attempt);
+        }
+
+        private synchronized void handle(Throwable failure, int attempt) throws Throwable {
+            if (!FailureClassifier.isInfrastructure(failure)) {
+                throw failure;
+            }
+            if (attempt > retries) {
+                RetryStatistics.recordFailedAfterRetries();
+                throw failure;
+            }
+            if (!RetryStatistics.tryAcquire(test, failure)) {
+                logger.warn("Infrastructure failure in {}, not retried since the retry budget of the run is used up", test);
+                throw failure;
+            }
+            if (!request(attempt + 1)) {
+                logger.warn("Infrastructure failure in {}, not retried since its attempts did not run in the same thread", test);
+                throw failure;
+            }
+            logger.warn("Infrastructure failure in attempt {} of {}, retrying in a new session", attempt, test, failure);
+            throw new TestAbortedException("Infrastructure failure, retrying in a new session: " + failure, failure);
+        }
+    }
+
+    private static class Attempt implements TestTemplateInvocationContext, TestExecutionExceptionHandler,
+        LifecycleMethodExecutionExceptionHandler, AfterTestExecutionCallback {
+
+        private final Attempts attempts;
+        private final int attempt;
+
+        private Attempt(Attempts attempts, int attempt) {
+            this.attempts = attempts;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            return attempt == 1 ? "attempt 1" : "attempt " + attempt + " (infrastructure retry)";
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return Collections.singletonList(this);
+        }
+
+        @Override
+        public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+            attempts.handle(throwable, attempt);
+        }
+
+        @Override
+        public void handleBeforeEachMethodExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+            // e.g. the session could not be created in SeleniumBase.startDriver
+            attempts.handle(throwable, attempt);
+        }
+
+        @Override
+        public void afterTestExecution(ExtensionContext context) {
+            if (attempt > 1 && !context.getExecutionException().isPresent()) {
+                RetryStatistics.recordRecovered();
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.nsingla.selenium.retry;
+
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used instead of {@code @Test}: a test failing because of the infrastructure (unreachable browser, failed session
+ * creation, crashed renderer) is run again in a new session, while an assertion failure fails it right away.
+ * Retries of the whole run are capped by {@code infraRetryBudget}. The attempts of a test run one after another in
+ * the same thread, also in parallel runs, as the next attempt is only created once the previous one failed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@TestTemplate
+@ExtendWith(InfraRetryExtension.class)
+@Execution(ExecutionMode.SAME_THREAD)
+public @interface InfraRetryingTest {
+
+    /**
+     * @return Retries of this test, {@code infraRetries} if negative
+     */
+    int retries() default -1;
+}
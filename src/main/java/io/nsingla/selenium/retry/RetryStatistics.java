@@ -0,0 +1,94 @@
+package io.nsingla.selenium.retry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry budget of the run and what the retries achieved.
+ */
+public class RetryStatistics {
+
+    private static AtomicInteger budget;
+    private static final AtomicLong retries = new AtomicLong();
+    private static final AtomicLong recovered = new AtomicLong();
+    private static final AtomicLong failedAfterRetries = new AtomicLong();
+    private static final AtomicLong budgetExhausted = new AtomicLong();
+    private static final Map<String, AtomicLong> retriesByTest = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> retriesByFailure = new ConcurrentHashMap<>();
+
+    static synchronized void initBudget(int retryBudget) {
+        if (budget == null) {
+            budget = new AtomicInteger(retryBudget);
+        }
+    }
+
+    /**
+     * Forgets the budget and the statistics, for tests
+     */
+    static synchronized void reset() {
+        budget = null;
+        retries.set(0);
+        recovered.set(0);
+        failedAfterRetries.set(0);
+        budgetExhausted.set(0);
+        retriesByTest.clear();
+        retriesByFailure.clear();
+    }
+
+    /**
+     * Takes one retry from the budget of the run
+     *
+     * @return false if the budget is used up
+     */
+    static boolean tryAcquire(String test, Throwable failure) {
+        if (budget.getAndUpdate(remaining -> Math.max(remaining - 1, 0)) == 0) {
+            budgetExhausted.incrementAndGet();
+            return false;
+        }
+        retries.incrementAndGet();
+        retriesByTest.computeIfAbsent(test, key -> new AtomicLong()).incrementAndGet();
+        retriesByFailure.computeIfAbsent(failure.getClass().getSimpleName(), key -> new AtomicLong()).incrementAndGet();
+        return true;
+    }
+
+    static void recordRecovered() {
+        recovered.incrementAndGet();
+    }
+
+    static void recordFailedAfterRetries() {
+        failedAfterRetries.incrementAndGet();
+    }
+
+    /**
+     * Writes the statistics as markdown tables
+     *
+     * @param file The report file
+     */
+    public static void writeReport(Path file) throws IOException {
+        StringBuilder report = new StringBuilder("# Infrastructure retries\n\n")
+            .append("| Retries | Recovered | Failed after retries | Not retried, budget used up | Budget left |\n")
+            .append("|---|---|---|---|---|\n")
+            .append(String.format("| %d | %d | %d | %d | %d |%n", retries.get(), recovered.get(), failedAfterRetries.get(),
+                budgetExhausted.get(), budget == null ? 0 : budget.get()));
+        appendTable(report, "Failure", retriesByFailure);
+        appendTable(report, "Test", retriesByTest);
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Files.write(absolute, report.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendTable(StringBuilder report, String title, Map<String, AtomicLong> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        report.append("\n| ").append(title).append(" | Retries |\n|---|---|\n");
+        new TreeMap<>(counts).forEach((name, count) -> report.append("| ").append(name).append(" | ").append(count.get()).append(" |\n"));
+    }
+}
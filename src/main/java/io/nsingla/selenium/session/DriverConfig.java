@@ -0,0 +1,31 @@
+package io.nsingla.selenium.session;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the driver settings of the runtime parameters for a test class or method, a method annotation takes
+ * precedence over the class one. Empty values keep the setting of the runtime parameters.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface DriverConfig {
+
+    /**
+     * @return Browser name, e.g. chrome or firefox
+     */
+    String browser() default "";
+
+    /**
+     * @return "true" or "false"
+     */
+    String headless() default "";
+
+    String locale() default "";
+
+    String downloadPath() default "";
+}
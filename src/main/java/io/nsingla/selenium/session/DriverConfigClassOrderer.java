@@ -0,0 +1,20 @@
+package io.nsingla.selenium.session;
+
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Optional;
+
+/**
+ * Runs test classes with the same {@link DriverConfig} after each other, so a reused session does not have to be
+ * restarted between them. Enable it with
+ * {@code junit.jupiter.testclass.order.default=io.nsingla.selenium.session.DriverConfigClassOrderer}.
+ */
+public class DriverConfigClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        DriverConfigOrdering.group(context.getClassDescriptors(),
+            descriptor -> DriverConfigs.key(descriptor.getTestClass(), Optional.empty()), null, "test classes");
+    }
+}
@@ -0,0 +1,23 @@
+package io.nsingla.selenium.session;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+import java.util.Optional;
+
+/**
+ * Runs the methods of a test class with the same {@link DriverConfig} after each other, starting with the ones that
+ * use the configuration of the class, so the session of the previous class can continue. Enable it with
+ * {@code junit.jupiter.testmethod.order.default=io.nsingla.selenium.session.DriverConfigMethodOrderer}.
+ */
+public class DriverConfigMethodOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        Class<?> testClass = context.getTestClass();
+        String classKey = DriverConfigs.key(testClass, Optional.empty());
+        DriverConfigOrdering.group(context.getMethodDescriptors(),
+            descriptor -> DriverConfigs.key(testClass, Optional.of(descriptor.getMethod())), classKey,
+            "methods of " + testClass.getSimpleName());
+    }
+}
@@ -0,0 +1,52 @@
+package io.nsingla.selenium.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Groups items by configuration key, keeping the order of the keys as first seen and of the items within a key.
+ * The group of {@code firstKey}, if any, goes first.
+ */
+class DriverConfigOrdering {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverConfigOrdering.class);
+
+    static <T> void group(List<T> items, Function<T, String> key, String firstKey, String description) {
+        Map<String, List<T>> groups = new LinkedHashMap<>();
+        if (firstKey != null) {
+            groups.put(firstKey, new ArrayList<>());
+        }
+        List<String> before = new ArrayList<>();
+        for (T item : items) {
+            String itemKey = key.apply(item);
+            before.add(itemKey);
+            groups.computeIfAbsent(itemKey, k -> new ArrayList<>()).add(item);
+        }
+        int restartsBefore = restarts(before);
+        groups.values().removeIf(List::isEmpty);
+        int restartsAfter = groups.size() - 1;
+        items.clear();
+        groups.values().forEach(items::addAll);
+        if (restartsBefore > restartsAfter) {
+            SessionCache.recordRestartsAvoided(restartsBefore - restartsAfter);
+            logger.info("Ordering {} by driver configuration avoids {} session restarts ({} instead of {})",
+                description, restartsBefore - restartsAfter, restartsAfter, restartsBefore);
+        }
+    }
+
+    private static int restarts(List<String> keys) {
+        int restarts = 0;
+        for (int i = 1; i < keys.size(); i++) {
+            if (!keys.get(i).equals(keys.get(i - 1))) {
+                restarts++;
+            }
+        }
+        return restarts;
+    }
+}
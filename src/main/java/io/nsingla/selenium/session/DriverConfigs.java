@@ -0,0 +1,107 @@
+package io.nsingla.selenium.session;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.DriverFactory;
+import io.nsingla.selenium.enums.TestMode;
+import io.nsingla.selenium.network.BlockingRules;
+
+import org.openqa.selenium.remote.Browser;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Resolves the {@link DriverFactory.DriverFactoryBuilder} a test starts its driver with, from the runtime parameters
+ * and {@link DriverConfig}.
+ */
+public class DriverConfigs {
+
+    private static final Browser[] BROWSERS = {Browser.CHROME, Browser.IE, Browser.SAFARI, Browser.EDGE, Browser.OPERA,
+        Browser.HTMLUNIT, Browser.FIREFOX};
+    private static final ThreadLocal<Browser> browserOverride = new ThreadLocal<>();
+
+    /**
+     * @param testClass  Class of the test
+     * @param testMethod Test method, if known
+     * @return Builder with the settings of the test
+     */
+    public static DriverFactory.DriverFactoryBuilder resolve(Class<?> testClass, Optional<Method> testMethod) {
+        return resolve(testClass, testMethod, toBrowser(SeleniumConstants.BROWSER));
+    }
+
+    /**
+     * @param testClass      Class of the test
+     * @param testMethod     Test method, if known
+     * @param defaultBrowser Browser of tests without a {@link DriverConfig} browser
+     * @return Builder with the settings of the test
+     */
+    public static DriverFactory.DriverFactoryBuilder resolve(Class<?> testClass, Optional<Method> testMethod, Browser defaultBrowser) {
+        DriverFactory.DriverFactoryBuilder builder = new DriverFactory.DriverFactoryBuilder()
+            .setBrowser(defaultBrowser)
+            .setTestMode(TestMode.valueOf(SeleniumConstants.TEST_MODE))
+            .setHeadless(SeleniumConstants.HEADLESS)
+            .setLocale(SeleniumConstants.LOCALE)
+            .setDownloadPath(SeleniumConstants.DOWNLOAD_PATH)
+            .setRecordScreencast(SeleniumConstants.RECORD_SCREENCAST)
+            .setBlockingRules(BlockingRules.resolve(testClass, testMethod));
+        apply(builder, testClass == null ? null : testClass.getAnnotation(DriverConfig.class));
+        apply(builder, testMethod.map(method -> method.getAnnotation(DriverConfig.class)).orElse(null));
+        if (browserOverride.get() != null) {
+            builder.setBrowser(browserOverride.get());
+        }
+        return builder;
+    }
+
+    /**
+     * @param testClass  Class of the test
+     * @param testMethod Test method, if known
+     * @return {@link DriverFactory.DriverFactoryBuilder#getConfigurationKey()} of the test
+     */
+    public static String key(Class<?> testClass, Optional<Method> testMethod) {
+        return resolve(testClass, testMethod).getConfigurationKey();
+    }
+
+    /**
+     * Replaces the browser of the tests the current thread runs, see {@link io.nsingla.selenium.tier.TieredTest}
+     *
+     * @param browser The browser, null to use the configured one again
+     */
+    public static void overrideBrowser(Browser browser) {
+        if (browser == null) {
+            browserOverride.remove();
+        } else {
+            browserOverride.set(browser);
+        }
+    }
+
+    /**
+     * @param name Browser name as given in the runtime parameters
+     * @return The matching {@link Browser}
+     */
+    public static Browser toBrowser(String name) {
+        for (Browser browser : BROWSERS) {
+            if (browser.is(name.toLowerCase())) {
+                return browser;
+            }
+        }
+        throw new RuntimeException(name + " is not a valid browser option");
+    }
+
+    private static void apply(DriverFactory.DriverFactoryBuilder builder, DriverConfig config) {
+        if (config == null) {
+            return;
+        }
+        if (!config.browser().isEmpty()) {
+            builder.setBrowser(toBrowser(config.browser()));
+        }
+        if (!config.headless().isEmpty()) {
+            builder.setHeadless(Boolean.parseBoolean(config.headless()));
+        }
+        if (!config.locale().isEmpty()) {
+            builder.setLocale(config.locale());
+        }
+        if (!config.downloadPath().isEmpty()) {
+            builder.setDownloadPath(config.downloadPath());
+        }
+    }
+}
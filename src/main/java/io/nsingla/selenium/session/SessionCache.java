@@ -0,0 +1,118 @@
+package io.nsingla.selenium.session;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.download.DownloadManager;
+import io.nsingla.selenium.metrics.RunReports;
+import io.nsingla.selenium.profile.ProfileTemplates;
+import io.nsingla.selenium.proxy.LocalProxy;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the session of the last test of every thread, so the next test with the same configuration key can continue
+ * with it instead of starting a new one. Used when {@code reuseSession} is enabled.
+ */
+public class SessionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionCache.class);
+    private static final Map<Thread, CachedSession> sessions = new ConcurrentHashMap<>();
+    private static final AtomicLong started = new AtomicLong();
+    private static final AtomicLong reused = new AtomicLong();
+    private static final AtomicLong restartedForConfiguration = new AtomicLong();
+    private static final AtomicLong restartsAvoidedByOrdering = new AtomicLong();
+
+    static {
+        if (SeleniumConstants.REUSE_SESSION) {
+            RunReports.register("Session reuse", () -> logger.info(
+                "Sessions started: {}, reused: {}, restarted for a different configuration: {}, restarts avoided by ordering: {}",
+                started.get(), reused.get(), restartedForConfiguration.get(), restartsAvoidedByOrdering.get()));
+        }
+    }
+
+    /**
+     * Takes the cached session of the current thread if it was started with the given configuration, otherwise
+     * quits it
+     *
+     * @param configurationKey {@link io.nsingla.selenium.DriverFactory.DriverFactoryBuilder#getConfigurationKey()}
+     * @return The session to continue with
+     */
+    public static Optional<WebDriver> take(String configurationKey) {
+        CachedSession session = sessions.remove(Thread.currentThread());
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (!session.configurationKey.equals(configurationKey)) {
+            restartedForConfiguration.incrementAndGet();
+            logger.debug("Configuration changed from {} to {}, starting a new session", session.configurationKey, configurationKey);
+            quit(session.driver);
+            return Optional.empty();
+        }
+        try {
+            session.driver.getWindowHandle();
+        } catch (WebDriverException e) {
+            logger.warn("Cached session is not usable anymore, starting a new session", e);
+            quit(session.driver);
+            return Optional.empty();
+        }
+        reused.incrementAndGet();
+        return Optional.of(session.driver);
+    }
+
+    /**
+     * Keeps the session for the next test of the current thread
+     *
+     * @param configurationKey Configuration key the session was started with
+     * @param driver           The undecorated driver
+     */
+    public static void keep(String configurationKey, WebDriver driver) {
+        CachedSession previous = sessions.put(Thread.currentThread(), new CachedSession(configurationKey, driver));
+        if (previous != null && previous.driver != driver) {
+            quit(previous.driver);
+        }
+    }
+
+    /**
+     * Quits all cached sessions, called at the end of the run
+     */
+    public static void quitAll() {
+        sessions.values().forEach(session -> quit(session.driver));
+        sessions.clear();
+    }
+
+    public static void recordStarted() {
+        started.incrementAndGet();
+    }
+
+    public static void recordRestartsAvoided(long restarts) {
+        restartsAvoidedByOrdering.addAndGet(restarts);
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            logger.debug("Failed to quit cached session", e);
+        }
+        LocalProxy.closeFor(driver);
+        ProfileTemplates.deleteFor(driver);
+        DownloadManager.closeFor(driver);
+    }
+
+    private static class CachedSession {
+        private final String configurationKey;
+        private final WebDriver driver;
+
+        private CachedSession(String configurationKey, WebDriver driver) {
+            this.configurationKey = configurationKey;
+            this.driver = driver;
+        }
+    }
+}
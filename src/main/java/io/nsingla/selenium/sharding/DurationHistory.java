@@ -0,0 +1,81 @@
+package io.nsingla.selenium.sharding;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durations of tests by JUnit unique id, in milliseconds, kept in a JSON file across runs.
+ * New measurements are smoothed with the stored ones, so a single slow run does not move a test between shards.
+ */
+public class DurationHistory {
+
+    private static final Type HISTORY_TYPE = new TypeToken<Map<String, Long>>() {
+    }.getType();
+    private static final double WEIGHT_OF_NEW_MEASUREMENT = 0.5;
+    private static final Map<String, Long> measured = new ConcurrentHashMap<>();
+
+    /**
+     * Records the duration of a test in this run
+     *
+     * @param uniqueId Unique id of the test
+     * @param millis   Duration in milliseconds
+     */
+    public static void record(String uniqueId, long millis) {
+        measured.put(uniqueId, millis);
+    }
+
+    /**
+     * @param file The history file
+     * @return The stored durations, empty if the file does not exist
+     */
+    public static Map<String, Long> read(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return new TreeMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Long> history = new Json().toType(reader, HISTORY_TYPE);
+            return history == null ? new TreeMap<>() : new TreeMap<>(history);
+        }
+    }
+
+    /**
+     * Merges the durations recorded in this run into the file. Forks and parallel CI jobs writing to the same file
+     * are serialized with a file lock.
+     *
+     * @param file The history file
+     */
+    public static void write(Path file) throws IOException {
+        if (measured.isEmpty()) {
+            return;
+        }
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path lockFile = absolute.resolveSibling(absolute.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            Map<String, Long> history = read(absolute);
+            measured.forEach((uniqueId, millis) -> history.merge(uniqueId, millis,
+                (stored, current) -> Math.round(stored * (1 - WEIGHT_OF_NEW_MEASUREMENT) + current * WEIGHT_OF_NEW_MEASUREMENT)));
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(new Json().toJson(history));
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
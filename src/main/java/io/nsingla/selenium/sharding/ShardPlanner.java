@@ -0,0 +1,64 @@
+package io.nsingla.selenium.sharding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Assigns tests to shards with the longest processing time first heuristic: tests are taken from the longest to the
+ * shortest and each goes to the shard with the least estimated time so far. The assignment only depends on its input,
+ * so every shard of a run computes the same plan.
+ */
+public class ShardPlanner {
+
+    private final int shards;
+    private final Map<String, Integer> assignment = new HashMap<>();
+    private final long[] estimatedMillis;
+
+    /**
+     * @param units    Ids of the units to distribute (tests, or test templates with their invocations)
+     * @param duration Estimated duration in milliseconds of every unit
+     * @param shards   Number of shards
+     */
+    public ShardPlanner(Collection<String> units, Map<String, Long> duration, int shards) {
+        this.shards = shards;
+        this.estimatedMillis = new long[shards];
+        List<String> sorted = new ArrayList<>(units);
+        sorted.sort(Comparator.comparing((String unit) -> duration.get(unit)).reversed().thenComparing(Comparator.naturalOrder()));
+        PriorityQueue<Integer> leastLoaded = new PriorityQueue<>(
+            Comparator.comparingLong((Integer shard) -> estimatedMillis[shard]).thenComparingInt(shard -> shard));
+        for (int shard = 0; shard < shards; shard++) {
+            leastLoaded.add(shard);
+        }
+        for (String unit : sorted) {
+            int shard = leastLoaded.poll();
+            assignment.put(unit, shard);
+            estimatedMillis[shard] += duration.get(unit);
+            leastLoaded.add(shard);
+        }
+    }
+
+    /**
+     * @param unit Id of the unit
+     * @return The 0 based shard of the unit
+     */
+    public int shardOf(String unit) {
+        return assignment.get(unit);
+    }
+
+    /**
+     * @return Estimated milliseconds of every shard
+     */
+    public long[] getEstimatedMillis() {
+        return Arrays.copyOf(estimatedMillis, shards);
+    }
+
+    public int getShards() {
+        return shards;
+    }
+}
@@ -0,0 +1,155 @@
+package io.nsingla.selenium.sharding;
+
+import io.nsingla.constants.SeleniumConstants;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps only the tests of the shard selected with {@code -Dshard=i/N} (1 based), based on the durations recorded in
+ * the history file, see {@link ShardPlanner}. Tests without history are estimated with the average of their class,
+ * else the median of all known tests, else {@code shardDefaultMillis}. Without {@code -Dshard} every test is kept.
+ * <p>
+ * Registered through {@code META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter}.
+ */
+public class ShardingFilter implements PostDiscoveryFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingFilter.class);
+
+    private final int shard;
+    private final int shards;
+    private TestDescriptor plannedRoot;
+    private ShardPlanner planner;
+
+    public ShardingFilter() {
+        String shard = SeleniumConstants.SHARD;
+        if (shard == null || shard.isEmpty()) {
+            this.shard = 0;
+            this.shards = 1;
+            return;
+        }
+        String[] parts = shard.split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected shard as i/N but got " + shard);
+        }
+        this.shard = Integer.parseInt(parts[0].trim()) - 1;
+        this.shards = Integer.parseInt(parts[1].trim());
+        if (this.shards < 1 || this.shard < 0 || this.shard >= this.shards) {
+            throw new IllegalArgumentException("Shard " + shard + " is out of range, expected 1 <= i <= N");
+        }
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (shards == 1) {
+            return FilterResult.included("sharding disabled");
+        }
+        if (!isUnit(descriptor)) {
+            return FilterResult.included("container");
+        }
+        int assigned = plan(root(descriptor)).shardOf(descriptor.getUniqueId().toString());
+        return assigned == shard
+            ? FilterResult.included("in shard " + (shard + 1) + "/" + shards)
+            : FilterResult.excluded("in shard " + (assigned + 1) + "/" + shards);
+    }
+
+    /**
+     * Tests, and test templates (parameterized or repeated tests) whose invocations only exist at execution time
+     */
+    private static boolean isUnit(TestDescriptor descriptor) {
+        return descriptor.isTest() || (descriptor.isContainer() && descriptor.getChildren().isEmpty()
+            && descriptor.getSource().filter(MethodSource.class::isInstance).isPresent());
+    }
+
+    private static TestDescriptor root(TestDescriptor descriptor) {
+        TestDescriptor root = descriptor;
+        while (root.getParent().isPresent()) {
+            root = root.getParent().get();
+        }
+        return root;
+    }
+
+    private synchronized ShardPlanner plan(TestDescriptor root) {
+        if (planner != null && plannedRoot == root) {
+            return planner;
+        }
+        Map<String, Long> history;
+        try {
+            history = DurationHistory.read(Paths.get(SeleniumConstants.DURATION_HISTORY));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read test duration history", e);
+        }
+        List<TestDescriptor> units = root.getDescendants().stream()
+            .filter(ShardingFilter::isUnit)
+            .collect(Collectors.toList());
+        Map<String, Long> durations = estimate(units, history);
+        planner = new ShardPlanner(durations.keySet(), durations, shards);
+        plannedRoot = root;
+
+        long total = durations.values().stream().mapToLong(Long::longValue).sum();
+        long[] estimated = planner.getEstimatedMillis();
+        long selected = units.stream().filter(unit -> planner.shardOf(unit.getUniqueId().toString()) == shard).count();
+        logger.info("Shard {}/{} runs {} of {} tests, estimated {} ms of {} ms (shards range from {} ms to {} ms)",
+            shard + 1, shards, selected, units.size(), estimated[shard], total,
+            Arrays.stream(estimated).min().orElse(0), Arrays.stream(estimated).max().orElse(0));
+        return planner;
+    }
+
+    static Map<String, Long> estimate(List<TestDescriptor> units, Map<String, Long> history) {
+        Map<String, Long> durations = new HashMap<>();
+        Map<String, List<Long>> knownByClass = new HashMap<>();
+        List<TestDescriptor> unknown = new ArrayList<>();
+        for (TestDescriptor unit : units) {
+            String id = unit.getUniqueId().toString();
+            // a template is the sum of its recorded invocations
+            long millis = unit.isTest() ? history.getOrDefault(id, 0L) : history.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(id + "/"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+            if (millis > 0) {
+                durations.put(id, millis);
+                knownByClass.computeIfAbsent(className(unit), key -> new ArrayList<>()).add(millis);
+            } else {
+                unknown.add(unit);
+            }
+        }
+        long median = median(new ArrayList<>(durations.values()));
+        for (TestDescriptor unit : unknown) {
+            List<Long> classDurations = knownByClass.get(className(unit));
+            long millis = classDurations != null
+                ? Math.round(classDurations.stream().mapToLong(Long::longValue).average().orElse(0))
+                : median > 0 ? median : SeleniumConstants.SHARD_DEFAULT_MILLIS;
+            durations.put(unit.getUniqueId().toString(), millis);
+        }
+        return durations;
+    }
+
+    private static String className(TestDescriptor unit) {
+        return unit.getSource()
+            .filter(MethodSource.class::isInstance)
+            .map(source -> ((MethodSource) source).getClassName())
+            .orElse("");
+    }
+
+    private static long median(List<Long> values) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        values.sort(Long::compare);
+        return values.get(values.size() / 2);
+    }
+}
@@ -0,0 +1,154 @@
+package io.nsingla.selenium.stub;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.metrics.RunReports;
+import io.nsingla.selenium.proxy.ProxyInterceptor;
+import io.nsingla.selenium.proxy.ProxyRequest;
+import io.nsingla.selenium.proxy.ProxyResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the backend responses of a session into a {@link StubStore}, or replays them from it without touching the
+ * network. One interceptor per session, so a key answered several times is replayed in the recorded order.
+ */
+public class StubInterceptor implements ProxyInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubInterceptor.class);
+    private static final int MAX_REPORTED_MISSES = 100;
+
+    private static StubStore shared;
+    private static final AtomicLong replayed = new AtomicLong();
+    private static final AtomicLong missed = new AtomicLong();
+    private static final Set<String> misses = new ConcurrentSkipListSet<>();
+
+    private final StubMode mode;
+    private final StubStore store;
+    private final StubMatcher matcher;
+    private final boolean failOnMissing;
+    private final Map<String, Integer> replayIndex = new HashMap<>();
+
+    public StubInterceptor(StubMode mode, StubStore store, StubMatcher matcher, boolean failOnMissing) {
+        this.mode = mode;
+        this.store = store;
+        this.matcher = matcher;
+        this.failOnMissing = failOnMissing;
+    }
+
+    /**
+     * @return Interceptor for a new session on the store of the run, created from the runtime parameters on first use
+     */
+    public static synchronized StubInterceptor forSession() {
+        StubMode mode = StubMode.fromString(SeleniumConstants.STUB_MODE);
+        StubMatcher matcher = new StubMatcher(StubMatcher.split(SeleniumConstants.STUB_URLS),
+            new TreeSet<>(StubMatcher.split(SeleniumConstants.STUB_IGNORE_PARAMS)), SeleniumConstants.STUB_MATCH_BODY,
+            StubMatcher.parseLatencies(SeleniumConstants.STUB_LATENCY));
+        if (shared == null) {
+            checkHttps(matcher);
+            try {
+                shared = StubStore.load(Paths.get(SeleniumConstants.STUB_STORE));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load stubs from " + SeleniumConstants.STUB_STORE, e);
+            }
+            logger.info("{} stubs in {}, {} entries", mode, SeleniumConstants.STUB_STORE, shared.size());
+            RunReports.register("Stubs", () -> {
+                if (mode == StubMode.RECORD) {
+                    shared.save();
+                }
+                writeReport(Paths.get(SeleniumConstants.STUB_REPORT), mode);
+            });
+        }
+        return new StubInterceptor(mode, shared, matcher, "fail".equalsIgnoreCase(SeleniumConstants.STUB_MISSING));
+    }
+
+    /**
+     * https requests reach the proxy as an encrypted CONNECT tunnel, so they are never recorded or replayed
+     */
+    static void checkHttps(StubMatcher matcher) {
+        if (matcher.matchesOnlyHttps()) {
+            throw new IllegalArgumentException("stubUrls only match https urls, which pass the proxy encrypted and "
+                + "cannot be stubbed: " + SeleniumConstants.STUB_URLS);
+        }
+        if (matcher.mayMatchHttps()) {
+            logger.warn("stubUrls {} may match https urls, those pass the proxy encrypted and are not stubbed",
+                SeleniumConstants.STUB_URLS == null ? "(all)" : SeleniumConstants.STUB_URLS);
+        }
+    }
+
+    @Override
+    public ProxyResponse onRequest(ProxyRequest request) {
+        if (mode != StubMode.REPLAY || !matcher.isStubbed(request)) {
+            return null;
+        }
+        String key = matcher.key(request);
+        List<StubStore.RecordedResponse> responses = store.get(key);
+        if (responses.isEmpty()) {
+            missed.incrementAndGet();
+            if (misses.size() < MAX_REPORTED_MISSES) {
+                misses.add(key);
+            }
+            return failOnMissing ? ProxyResponse.of(404, "text/plain", ("No stub for " + key).getBytes(StandardCharsets.UTF_8)) : null;
+        }
+        int index;
+        synchronized (replayIndex) {
+            index = replayIndex.merge(key, 1, Integer::sum) - 1;
+        }
+        try {
+            ProxyResponse response = store.toResponse(responses.get(Math.min(index, responses.size() - 1)));
+            long latency = matcher.latencyMillis(request.getUrl());
+            if (latency > 0) {
+                TimeUnit.MILLISECONDS.sleep(latency);
+            }
+            replayed.incrementAndGet();
+            return response;
+        } catch (IOException e) {
+            logger.warn("Failed to replay {}", key, e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public void onResponse(ProxyRequest request, ProxyResponse response) {
+        if (mode == StubMode.RECORD && matcher.isStubbed(request)) {
+            store.record(this, matcher.key(request), response);
+        }
+    }
+
+    /**
+     * Writes what was recorded or replayed, and which requests had no stub, as markdown
+     *
+     * @param file The report file
+     */
+    static void writeReport(Path file, StubMode mode) throws IOException {
+        StringBuilder report = new StringBuilder("# Stubs\n\n")
+            .append("| Mode | Entries in store | Recorded in run | Replayed | Without stub |\n|---|---|---|---|---|\n")
+            .append("| ").append(mode).append(" | ").append(shared.size()).append(" | ").append(shared.getRecordedInRun())
+            .append(" | ").append(replayed.get()).append(" | ").append(missed.get()).append(" |\n");
+        if (!misses.isEmpty()) {
+            report.append("\n## Requests without stub\n\n");
+            misses.forEach(key -> report.append("- `").append(key).append("`\n"));
+        }
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Files.write(absolute, report.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,148 @@
+package io.nsingla.selenium.stub;
+
+import io.nsingla.selenium.proxy.ProxyRequest;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which requests are stubbed and which recorded request a request matches: same method, url with the query
+ * parameters sorted and the ignored ones left out, and optionally the same body.
+ */
+public class StubMatcher {
+
+    private final List<Pattern> urlPatterns;
+    private final Set<String> ignoredParameters;
+    private final boolean matchBody;
+    private final Map<Pattern, Long> latencies;
+
+    /**
+     * @param urlPatterns       Patterns of the urls to stub, {@code *} matches any characters; empty to stub all
+     * @param ignoredParameters Query parameters that differ between runs, e.g. cache busters
+     * @param matchBody         Whether requests with a different body are different requests
+     * @param latencies         Latency in milliseconds injected into replayed responses, by url pattern
+     */
+    public StubMatcher(List<String> urlPatterns, Set<String> ignoredParameters, boolean matchBody, Map<String, Long> latencies) {
+        this.urlPatterns = urlPatterns.stream().map(StubMatcher::toRegex).collect(Collectors.toList());
+        this.ignoredParameters = ignoredParameters;
+        this.matchBody = matchBody;
+        this.latencies = new LinkedHashMap<>();
+        latencies.forEach((pattern, millis) -> this.latencies.put(toRegex(pattern), millis));
+    }
+
+    /**
+     * @param latencies {@code pattern=millis} entries, separated by commas
+     */
+    public static Map<String, Long> parseLatencies(String latencies) {
+        Map<String, Long> parsed = new LinkedHashMap<>();
+        for (String entry : split(latencies)) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Latency must be given as pattern=millis: " + entry);
+            }
+            parsed.put(entry.substring(0, separator).trim(), Long.parseLong(entry.substring(separator + 1).trim()));
+        }
+        return parsed;
+    }
+
+    public static List<String> split(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).filter(part -> !part.isEmpty()).collect(Collectors.toList());
+    }
+
+    /**
+     * @return Whether some of the stubbed urls may be https urls, which the proxy tunnels (CONNECT) without seeing them
+     */
+    public boolean mayMatchHttps() {
+        return urlPatterns.isEmpty() || urlPatterns.stream().anyMatch(pattern -> mayStartWith(pattern, "https://"));
+    }
+
+    /**
+     * @return Whether all stubbed urls are https urls, so nothing can be stubbed
+     */
+    public boolean matchesOnlyHttps() {
+        return !urlPatterns.isEmpty() && urlPatterns.stream().noneMatch(pattern -> mayStartWith(pattern, "http://"));
+    }
+
+    private static boolean mayStartWith(Pattern pattern, String prefix) {
+        Matcher matcher = pattern.matcher(prefix);
+        // hitting the end of the input means a longer url starting with the prefix may match
+        return matcher.matches() || matcher.hitEnd();
+    }
+
+    public boolean isStubbed(ProxyRequest request) {
+        return urlPatterns.isEmpty() || urlPatterns.stream().anyMatch(pattern -> pattern.matcher(request.getUrl()).matches());
+    }
+
+    /**
+     * @return Latency to inject for the url, of the first matching pattern
+     */
+    public long latencyMillis(String url) {
+        for (Map.Entry<Pattern, Long> entry : latencies.entrySet()) {
+            if (entry.getKey().matcher(url).matches()) {
+                return entry.getValue();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return The key the request is recorded and looked up with
+     */
+    public String key(ProxyRequest request) {
+        StringBuilder key = new StringBuilder(request.getMethod().toUpperCase(Locale.ROOT)).append(' ').append(normalizedUrl(request.getUrl()));
+        if (matchBody && request.getBody().length > 0) {
+            key.append(" #").append(sha256(request.getBody()).substring(0, 16));
+        }
+        return key.toString();
+    }
+
+    String normalizedUrl(String url) {
+        URI uri = URI.create(url);
+        String query = uri.getRawQuery();
+        String base = url.substring(0, url.length() - (query == null ? 0 : query.length() + 1) - (uri.getRawFragment() == null ? 0 : uri.getRawFragment().length() + 1));
+        if (query == null) {
+            return base;
+        }
+        List<String> parameters = new ArrayList<>();
+        for (String parameter : query.split("&")) {
+            String name = parameter.split("=", 2)[0];
+            if (!parameter.isEmpty() && !ignoredParameters.contains(name)) {
+                parameters.add(parameter);
+            }
+        }
+        Collections.sort(parameters);
+        return parameters.isEmpty() ? base : base + "?" + String.join("&", parameters);
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format(Locale.ROOT, "%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Pattern toRegex(String pattern) {
+        return Pattern.compile(Arrays.stream(pattern.split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*")));
+    }
+}
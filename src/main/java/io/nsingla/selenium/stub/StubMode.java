@@ -0,0 +1,11 @@
+package io.nsingla.selenium.stub;
+
+import java.util.Locale;
+
+public enum StubMode {
+    OFF, RECORD, REPLAY;
+
+    public static StubMode fromString(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
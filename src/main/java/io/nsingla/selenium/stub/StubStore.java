@@ -0,0 +1,165 @@
+package io.nsingla.selenium.stub;
+
+import io.nsingla.selenium.proxy.ProxyResponse;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Recorded responses on disk: {@code index.json} maps every request key to the responses seen for it in order, the
+ * bodies are stored once per content in {@code bodies/<sha-256>}. The index is loaded into a hash map, so thousands of
+ * entries are looked up in constant time and bodies are only read when replayed.
+ */
+public class StubStore {
+
+    private static final Type INDEX_TYPE = new TypeToken<Map<String, List<Map<String, Object>>>>() {
+    }.getType();
+
+    private final Path directory;
+    private final Map<String, List<RecordedResponse>> entries = new HashMap<>();
+    private final Map<String, Object> recordedInRun = new HashMap<>();
+
+    private StubStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param directory Directory of the store, created when recording if it does not exist
+     */
+    public static StubStore load(Path directory) throws IOException {
+        StubStore store = new StubStore(directory);
+        Path index = directory.resolve("index.json");
+        if (Files.exists(index)) {
+            try (Reader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+                Map<String, List<Map<String, Object>>> raw = new Json().toType(reader, INDEX_TYPE);
+                raw.forEach((key, responses) -> {
+                    List<RecordedResponse> recorded = new ArrayList<>();
+                    responses.forEach(response -> recorded.add(RecordedResponse.fromJson(response)));
+                    store.entries.put(key, recorded);
+                });
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Records a response. The first response of a key in a run replaces the responses of earlier runs, a key answered
+     * differently within the run keeps all answers in order, e.g. for polling. Sessions recording in parallel would
+     * interleave their answers, so the sequence of a key is the one of the session that recorded it first in the run,
+     * which is also the sequence every session replays from the start.
+     *
+     * @param session The recording session, e.g. its interceptor
+     */
+    public synchronized void record(Object session, String key, ProxyResponse response) {
+        Object owner = recordedInRun.putIfAbsent(key, session);
+        if (owner != null && owner != session) {
+            return;
+        }
+        String body = StubMatcher.sha256(response.getBody());
+        Path file = directory.resolve("bodies").resolve(body);
+        try {
+            if (!Files.exists(file)) {
+                Files.createDirectories(file.getParent());
+                Files.write(file, response.getBody());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<RecordedResponse> responses = entries.get(key);
+        if (owner == null || responses == null) {
+            responses = new ArrayList<>();
+            entries.put(key, responses);
+        }
+        RecordedResponse recorded = new RecordedResponse(response.getStatus(), response.getHeaders(), body);
+        if (responses.isEmpty() || !responses.get(responses.size() - 1).sameAs(recorded)) {
+            responses.add(recorded);
+        }
+    }
+
+    /**
+     * @return The responses recorded for the key, empty if there are none
+     */
+    public synchronized List<RecordedResponse> get(String key) {
+        return entries.getOrDefault(key, Collections.emptyList());
+    }
+
+    public ProxyResponse toResponse(RecordedResponse recorded) throws IOException {
+        byte[] body = Files.readAllBytes(directory.resolve("bodies").resolve(recorded.body));
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        recorded.headers.forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+        return new ProxyResponse(recorded.status, headers, body);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized int getRecordedInRun() {
+        return recordedInRun.size();
+    }
+
+    /**
+     * Writes the index, sorted by key so that stores of two runs can be diffed
+     */
+    public synchronized void save() throws IOException {
+        Files.createDirectories(directory);
+        Map<String, List<Map<String, Object>>> raw = new TreeMap<>();
+        entries.forEach((key, responses) -> {
+            List<Map<String, Object>> json = new ArrayList<>();
+            responses.forEach(response -> json.add(response.toJson()));
+            raw.put(key, json);
+        });
+        Path temp = Files.createTempFile(directory, "index", ".json");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(new Json().toJson(raw));
+        }
+        Files.move(temp, directory.resolve("index.json"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static class RecordedResponse {
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final String body;
+
+        RecordedResponse(int status, Map<String, List<String>> headers, String body) {
+            this.status = status;
+            this.headers = new LinkedHashMap<>(headers);
+            this.body = body;
+        }
+
+        @SuppressWarnings("unchecked")
+        static RecordedResponse fromJson(Map<String, Object> json) {
+            return new RecordedResponse(((Number) json.get("status")).intValue(),
+                (Map<String, List<String>>) json.get("headers"), (String) json.get("body"));
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("status", status);
+            json.put("headers", headers);
+            json.put("body", body);
+            return json;
+        }
+
+        boolean sameAs(RecordedResponse other) {
+            return status == other.status && body.equals(other.body);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.nsingla.selenium.tier;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A {@link TieredTest} of the annotated class or method skips HtmlUnit and runs on the real browser only, e.g. because
+ * it depends on layout, canvas or a JavaScript API HtmlUnit does not have.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface RequiresRealBrowser {
+}
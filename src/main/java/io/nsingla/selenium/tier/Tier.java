@@ -0,0 +1,16 @@
+package io.nsingla.selenium.tier;
+
+/**
+ * Where a {@link TieredTest} runs
+ */
+public enum Tier {
+    /**
+     * In-process HtmlUnit
+     */
+    HTMLUNIT,
+    /**
+     * The browser of the runtime parameters or {@link io.nsingla.selenium.session.DriverConfig}, chrome if that is
+     * HtmlUnit
+     */
+    REAL
+}
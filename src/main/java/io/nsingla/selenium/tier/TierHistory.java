@@ -0,0 +1,119 @@
+package io.nsingla.selenium.tier;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The tier every {@link TieredTest} passed on, by JUnit unique id, kept in a JSON file across runs.
+ */
+public class TierHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TierHistory.class);
+    private static final Type HISTORY_TYPE = new TypeToken<Map<String, Tier>>() {
+    }.getType();
+    private static final Map<String, Tier> recorded = new ConcurrentHashMap<>();
+    private static final AtomicLong passedOnHtmlUnit = new AtomicLong();
+    private static final AtomicLong fellBack = new AtomicLong();
+    private static final AtomicLong startedOnRealBrowser = new AtomicLong();
+    private static volatile Map<String, Tier> stored;
+
+    /**
+     * @param file     The history file
+     * @param uniqueId Unique id of the test
+     * @return The tier the test passed on in an earlier run, if any
+     */
+    public static Tier get(Path file, String uniqueId) {
+        if (stored == null) {
+            synchronized (TierHistory.class) {
+                if (stored == null) {
+                    try {
+                        stored = read(file);
+                    } catch (IOException | RuntimeException e) {
+                        logger.warn("Ignoring unreadable tier history {}", file, e);
+                        stored = new TreeMap<>();
+                    }
+                }
+            }
+        }
+        return stored.get(uniqueId);
+    }
+
+    /**
+     * Records the tier the test passed on in this run
+     *
+     * @param uniqueId Unique id of the test
+     * @param tier     {@link Tier}
+     * @param fallback Whether the test failed on HtmlUnit before
+     */
+    public static void record(String uniqueId, Tier tier, boolean fallback) {
+        recorded.put(uniqueId, tier);
+        if (fallback) {
+            fellBack.incrementAndGet();
+        } else if (tier == Tier.HTMLUNIT) {
+            passedOnHtmlUnit.incrementAndGet();
+        }
+    }
+
+    public static void recordStartedOnRealBrowser() {
+        startedOnRealBrowser.incrementAndGet();
+    }
+
+    /**
+     * @param file The history file
+     * @return The stored tiers, empty if the file does not exist
+     */
+    public static Map<String, Tier> read(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return new TreeMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Tier> history = new Json().toType(reader, HISTORY_TYPE);
+            return history == null ? new TreeMap<>() : new TreeMap<>(history);
+        }
+    }
+
+    /**
+     * Merges the tiers recorded in this run into the file. Forks and parallel CI jobs writing to the same file are
+     * serialized with a file lock.
+     *
+     * @param file The history file
+     */
+    public static void write(Path file) throws IOException {
+        logger.info("Tiered tests passed on HtmlUnit: {}, passed on the real browser after failing on HtmlUnit: {}, "
+            + "started on the real browser: {}", passedOnHtmlUnit.get(), fellBack.get(), startedOnRealBrowser.get());
+        if (recorded.isEmpty()) {
+            return;
+        }
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path lockFile = absolute.resolveSibling(absolute.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            Map<String, Tier> history = read(absolute);
+            history.putAll(recorded);
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(new Json().toJson(history));
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.nsingla.selenium.tier;
+
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Used instead of {@code @Test}: the test runs on HtmlUnit first, which starts in milliseconds, and is run again on the
+ * configured real browser when it fails on HtmlUnit. The tier a test passed on is kept in {@code tierHistory}, so
+ * later runs start it on that tier right away. Cannot be combined with
+ * {@link io.nsingla.selenium.retry.InfraRetryingTest}. The runs of a test are one after another in the same thread, also
+ * in parallel runs, as the real browser run is only created once the HtmlUnit run failed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@TestTemplate
+@ExtendWith(TieredTestExtension.class)
+@Execution(ExecutionMode.SAME_THREAD)
+public @interface TieredTest {
+}
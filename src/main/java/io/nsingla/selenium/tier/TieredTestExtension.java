@@ -0,0 +1,165 @@
+package io.nsingla.selenium.tier;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.extensions.OnDemandInvocations;
+import io.nsingla.selenium.metrics.RunReports;
+import io.nsingla.selenium.session.DriverConfigs;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.LifecycleMethodExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.TestAbortedException;
+import org.openqa.selenium.remote.Browser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Runs a {@link TieredTest} on HtmlUnit, and again on the real browser if it fails there. Every run goes through the
+ * whole lifecycle, with the browser of {@link DriverConfigs} replaced for the run; a failed HtmlUnit run is reported
+ * as aborted.
+ */
+public class TieredTestExtension implements TestTemplateInvocationContextProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredTestExtension.class);
+    // packages of HtmlUnit and its JavaScript engine, in HtmlUnit 2 and 3
+    private static final List<String> HTMLUNIT_PACKAGES = List.of("com.gargoylesoftware.htmlunit.",
+        "net.sourceforge.htmlunit.", "org.htmlunit.");
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return AnnotationSupport.isAnnotated(context.getTestMethod(), TieredTest.class);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        Path history = Paths.get(SeleniumConstants.TIER_HISTORY);
+        RunReports.register("Tier history", () -> TierHistory.write(history));
+        Browser realBrowser = DriverConfigs.resolve(context.getRequiredTestClass(), context.getTestMethod()).getBrowser();
+        if (Browser.HTMLUNIT.equals(realBrowser)) {
+            realBrowser = Browser.CHROME;
+        }
+        boolean realOnly = !SeleniumConstants.TIERED_EXECUTION
+            || AnnotationSupport.isAnnotated(context.getTestMethod(), RequiresRealBrowser.class)
+            || AnnotationSupport.isAnnotated(context.getTestClass(), RequiresRealBrowser.class)
+            || TierHistory.get(history, context.getUniqueId()) == Tier.REAL;
+        if (realOnly) {
+            TierHistory.recordStartedOnRealBrowser();
+        }
+        // lazy, the real browser run is only created once the HtmlUnit run asked for it
+        return new Runs(context.getUniqueId(), realBrowser, realOnly ? Tier.REAL : Tier.HTMLUNIT).stream();
+    }
+
+    /**
+     * @param failure The failure of a test on HtmlUnit
+     * @return Whether the failure, or one of its causes, comes from HtmlUnit or its JavaScript engine, e.g. a script
+     * error or an unsupported API
+     */
+    public static boolean isHtmlUnitIncompatibility(Throwable failure) {
+        Set<Throwable> seen = new HashSet<>();
+        for (Throwable cause = failure; cause != null && seen.add(cause); cause = cause.getCause()) {
+            String type = cause.getClass().getName();
+            if (cause instanceof UnsupportedOperationException || HTMLUNIT_PACKAGES.stream().anyMatch(type::startsWith)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Runs extends OnDemandInvocations<Tier> {
+        private final String uniqueId;
+        private final Browser realBrowser;
+        private boolean fellBack;
+
+        private Runs(String uniqueId, Browser realBrowser, Tier first) {
+            super(first);
+            this.uniqueId = uniqueId;
+            this.realBrowser = realBrowser;
+        }
+
+        @Override
+        protected TestTemplateInvocationContext create(Tier tier) {
+            return new Run(this, tier);
+        }
+
+        private synchronized void handle(Throwable failure, Tier tier) throws Throwable {
+            if (tier == Tier.REAL) {
+                throw failure;
+            }
+            if (!isHtmlUnitIncompatibility(failure) && !SeleniumConstants.TIER_FALLBACK_ON_FAILURE) {
+                throw failure;
+            }
+            if (!request(Tier.REAL)) {
+                logger.warn("{} failed on HtmlUnit, not run on {} since its runs did not run in the same thread",
+                    uniqueId, realBrowser.browserName());
+                throw failure;
+            }
+            logger.info("{} failed on HtmlUnit, running it on {}", uniqueId, realBrowser.browserName(), failure);
+            fellBack = true;
+            throw new TestAbortedException("Failed on HtmlUnit, running on " + realBrowser.browserName() + ": " + failure, failure);
+        }
+    }
+
+    private static class Run implements TestTemplateInvocationContext, BeforeEachCallback, AfterEachCallback,
+        TestExecutionExceptionHandler, LifecycleMethodExecutionExceptionHandler, AfterTestExecutionCallback {
+
+        private final Runs runs;
+        private final Tier tier;
+
+        private Run(Runs runs, Tier tier) {
+            this.runs = runs;
+            this.tier = tier;
+        }
+
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            return tier == Tier.HTMLUNIT ? Browser.HTMLUNIT.browserName() : runs.realBrowser.browserName();
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return List.of(this);
+        }
+
+        @Override
+        public void beforeEach(ExtensionContext context) {
+            DriverConfigs.overrideBrowser(tier == Tier.HTMLUNIT ? Browser.HTMLUNIT : runs.realBrowser);
+        }
+
+        @Override
+        public void afterEach(ExtensionContext context) {
+            DriverConfigs.overrideBrowser(null);
+        }
+
+        @Override
+        public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+            runs.handle(throwable, tier);
+        }
+
+        @Override
+        public void handleBeforeEachMethodExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+            // e.g. a script error on the page the setup opens, or the HtmlUnit session could not be created
+            runs.handle(throwable, tier);
+        }
+
+        @Override
+        public void afterTestExecution(ExtensionContext context) {
+            if (!context.getExecutionException().isPresent()) {
+                TierHistory.record(runs.uniqueId, tier, runs.fellBack);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.nsingla.selenium.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed section of a test, created by {@link Tracer#start(String, String)}. Spans started on the same thread
+ * while another span is open become its children.
+ */
+public class Span implements AutoCloseable {
+
+    static final Span NOOP = new Span(0, 0, null, null, null, null);
+
+    private final long id;
+    private final long parentId;
+    private final String name;
+    private final String category;
+    private final Span parent;
+    private final Thread thread;
+    private final long startNanos;
+    private Object target;
+    private Map<String, Object> attributes;
+    private long endNanos;
+
+    Span(long id, long parentId, String name, String category, Span parent, Object target) {
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.category = category;
+        this.parent = parent;
+        this.target = target;
+        this.thread = Thread.currentThread();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Adds an attribute, which is shown in the trace viewer. Does nothing if tracing is disabled.
+     *
+     * @param key   Name of the attribute
+     * @param value Value of the attribute
+     * @return this span
+     */
+    public Span setAttribute(String key, Object value) {
+        if (this != NOOP) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (this == NOOP || endNanos != 0) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        if (target != null) {
+            // stringify once the span is done, so no driver objects are retained until the export
+            setAttribute("target", target);
+            target = null;
+        }
+        Tracer.finish(this);
+    }
+
+    long getId() {
+        return id;
+    }
+
+    long getParentId() {
+        return parentId;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getCategory() {
+        return category;
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    Thread getThread() {
+        return thread;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getEndNanos() {
+        return endNanos;
+    }
+
+    Map<String, Object> getAttributes() {
+        return attributes;
+    }
+}
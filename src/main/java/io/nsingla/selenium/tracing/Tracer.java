@@ -0,0 +1,185 @@
+package io.nsingla.selenium.tracing;
+
+import io.nsingla.constants.SeleniumConstants;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collects nested spans of test, page action and WebDriver command, and exports them in the Chrome trace event
+ * format, which can be opened in chrome://tracing, https://ui.perfetto.dev or speedscope.
+ * When tracing is disabled {@link #start(String, String)} only returns a shared no-op span.
+ */
+public class Tracer {
+
+    public static final String TEST = "test";
+    public static final String ACTION = "action";
+    public static final String WAIT = "wait";
+    public static final String CHECK = "check";
+    public static final String SCRIPT = "script";
+    public static final String WEBDRIVER = "webdriver";
+
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+    private static final boolean enabled = SeleniumConstants.TRACING;
+    private static final ThreadLocal<Span> current = new ThreadLocal<>();
+    private static final Queue<Span> finished = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger finishedCount = new AtomicInteger();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong ids = new AtomicLong();
+    private static final long epochMicrosAtStart = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    private static final long nanosAtStart = System.nanoTime();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a span as child of the span currently open on this thread
+     *
+     * @param name     Name of the span, e.g. "PageActions.click"
+     * @param category One of the categories defined in this class
+     * @return {@link Span} to close once the section is done
+     */
+    public static Span start(String name, String category) {
+        return start(name, category, null);
+    }
+
+    /**
+     * Starts a span as child of the span currently open on this thread
+     *
+     * @param name     Name of the span, e.g. "PageActions.click"
+     * @param category One of the categories defined in this class
+     * @param target   The locator or element the action works on, only converted to text when the span is closed
+     * @return {@link Span} to close once the section is done
+     */
+    public static Span start(String name, String category, Object target) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span parent = current.get();
+        Span span = new Span(ids.incrementAndGet(), parent == null ? 0 : parent.getId(), name, category, parent, target);
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * Runs {@code action} in a span, see {@link #start(String, String, Object)}
+     */
+    public static void trace(String name, String category, Object target, Runnable action) {
+        Span span = start(name, category, target);
+        try {
+            action.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    public static void trace(String name, String category, Runnable action) {
+        trace(name, category, null, action);
+    }
+
+    /**
+     * Computes the result of {@code action} in a span, see {@link #start(String, String, Object)}
+     *
+     * @return The result of {@code action}
+     */
+    public static <T> T trace(String name, String category, Object target, Supplier<T> action) {
+        Span span = start(name, category, target);
+        try {
+            return action.get();
+        } finally {
+            span.close();
+        }
+    }
+
+    public static <T> T trace(String name, String category, Supplier<T> action) {
+        return trace(name, category, null, action);
+    }
+
+    static void finish(Span span) {
+        if (span.getThread() == Thread.currentThread()) {
+            current.set(span.getParent());
+        }
+        if (finishedCount.incrementAndGet() > SeleniumConstants.TRACE_MAX_SPANS) {
+            dropped.incrementAndGet();
+            return;
+        }
+        finished.add(span);
+    }
+
+    /**
+     * Writes all finished spans to {@code file}
+     *
+     * @param file The trace file
+     * @throws IOException if the trace could not be written
+     */
+    public static void export(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        long pid = ProcessHandle.current().pid();
+        Map<Long, String> threads = new HashMap<>();
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonOutput json = new Json().newOutput(writer)) {
+            json.setPrettyPrint(false);
+            json.beginObject();
+            json.name("displayTimeUnit").write("ms");
+            json.name("traceEvents").beginArray();
+            for (Span span : finished) {
+                threads.put(span.getThread().getId(), span.getThread().getName());
+                Map<String, Object> args = new HashMap<>();
+                args.put("spanId", Long.toHexString(span.getId()));
+                if (span.getParentId() != 0) {
+                    args.put("parentSpanId", Long.toHexString(span.getParentId()));
+                }
+                if (span.getAttributes() != null) {
+                    args.putAll(span.getAttributes());
+                }
+                Map<String, Object> event = new HashMap<>();
+                event.put("name", span.getName());
+                event.put("cat", span.getCategory());
+                event.put("ph", "X");
+                event.put("ts", toEpochMicros(span.getStartNanos()));
+                event.put("dur", TimeUnit.NANOSECONDS.toMicros(span.getEndNanos() - span.getStartNanos()));
+                event.put("pid", pid);
+                event.put("tid", span.getThread().getId());
+                event.put("args", args);
+                json.write(event);
+            }
+            for (Map.Entry<Long, String> thread : threads.entrySet()) {
+                Map<String, Object> event = new HashMap<>();
+                event.put("name", "thread_name");
+                event.put("ph", "M");
+                event.put("pid", pid);
+                event.put("tid", thread.getKey());
+                event.put("args", Map.of("name", thread.getValue()));
+                json.write(event);
+            }
+            json.endArray();
+            json.endObject();
+        }
+        if (dropped.get() > 0) {
+            logger.warn("{} spans were dropped, the trace is limited to {} spans", dropped.get(), SeleniumConstants.TRACE_MAX_SPANS);
+        }
+    }
+
+    private static long toEpochMicros(long nanos) {
+        return epochMicrosAtStart + TimeUnit.NANOSECONDS.toMicros(nanos - nanosAtStart);
+    }
+}
@@ -0,0 +1,39 @@
+package io.nsingla.selenium.tracing;
+
+import io.nsingla.selenium.metrics.CommandTimingListener;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Opens a span around every WebDriver command, nested under the page action or test span that issued it.
+ */
+public class TracingListener implements WebDriverListener {
+
+    private static final ThreadLocal<Deque<Span>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        open.get().push(Tracer.start(CommandTimingListener.commandName(target, method), Tracer.WEBDRIVER));
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        Deque<Span> spans = open.get();
+        if (!spans.isEmpty()) {
+            spans.pop().close();
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        Deque<Span> spans = open.get();
+        if (!spans.isEmpty()) {
+            spans.pop().setAttribute("error", e.getTargetException().getClass().getSimpleName()).close();
+        }
+    }
+}
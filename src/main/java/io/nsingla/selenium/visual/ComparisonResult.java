@@ -0,0 +1,74 @@
+package io.nsingla.selenium.visual;
+
+/**
+ * Outcome of comparing a screenshot against its baseline.
+ */
+public class ComparisonResult {
+
+    private final boolean sizeMismatch;
+    private final long differentPixels;
+    private final long comparedPixels;
+    private final long allowedDifferentPixels;
+    private final boolean stoppedEarly;
+    private final long durationNanos;
+
+    ComparisonResult(boolean sizeMismatch, long differentPixels, long comparedPixels, long allowedDifferentPixels,
+                     boolean stoppedEarly, long durationNanos) {
+        this.sizeMismatch = sizeMismatch;
+        this.differentPixels = differentPixels;
+        this.comparedPixels = comparedPixels;
+        this.allowedDifferentPixels = allowedDifferentPixels;
+        this.stoppedEarly = stoppedEarly;
+        this.durationNanos = durationNanos;
+    }
+
+    public boolean isMatch() {
+        return !sizeMismatch && differentPixels <= allowedDifferentPixels;
+    }
+
+    public boolean isSizeMismatch() {
+        return sizeMismatch;
+    }
+
+    /**
+     * @return Number of pixels that differ, a lower bound if the comparison stopped early
+     */
+    public long getDifferentPixels() {
+        return differentPixels;
+    }
+
+    /**
+     * @return Number of pixels that are not masked
+     */
+    public long getComparedPixels() {
+        return comparedPixels;
+    }
+
+    public long getAllowedDifferentPixels() {
+        return allowedDifferentPixels;
+    }
+
+    /**
+     * @return True if the comparison stopped as soon as the threshold was exceeded
+     */
+    public boolean isStoppedEarly() {
+        return stoppedEarly;
+    }
+
+    public double getDifferenceRatio() {
+        return comparedPixels == 0 ? 0 : (double) differentPixels / comparedPixels;
+    }
+
+    public long getDurationMillis() {
+        return durationNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        if (sizeMismatch) {
+            return "image size differs from the baseline";
+        }
+        return String.format("%s%d of %d pixels differ (%.4f%%, allowed %d) in %d ms", stoppedEarly ? "at least " : "",
+            differentPixels, comparedPixels, getDifferenceRatio() * 100, allowedDifferentPixels, getDurationMillis());
+    }
+}
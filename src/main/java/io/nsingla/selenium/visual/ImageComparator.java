@@ -0,0 +1,254 @@
+package io.nsingla.selenium.visual;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Compares two images tile by tile on a shared {@link ForkJoinPool}. Pixels are read straight from the
+ * backing int arrays, and all tiles stop as soon as the number of different pixels exceeds the threshold.
+ */
+public class ImageComparator {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private static final int DIFF_COLOR = 0xFF0000;
+
+    private final double threshold;
+    private final int channelTolerance;
+    private final int tileSize;
+
+    /**
+     * @param threshold        Allowed fraction of different pixels, e.g. 0.001 for 0.1%
+     * @param channelTolerance Allowed difference per color channel (0-255) before a pixel counts as different
+     * @param tileSize         Width and height of the tiles compared in parallel
+     */
+    public ImageComparator(double threshold, int channelTolerance, int tileSize) {
+        this.threshold = threshold;
+        this.channelTolerance = channelTolerance;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Compares {@code actual} with {@code baseline}
+     *
+     * @param baseline The expected image
+     * @param actual   The image to verify
+     * @param masks    Regions, in image pixels, that are ignored
+     * @return {@link ComparisonResult}
+     */
+    public ComparisonResult compare(BufferedImage baseline, BufferedImage actual, List<Rectangle> masks) {
+        long start = System.nanoTime();
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+        if (width != actual.getWidth() || height != actual.getHeight()) {
+            return new ComparisonResult(true, 0, 0, 0, false, System.nanoTime() - start);
+        }
+        Rectangle bounds = new Rectangle(0, 0, width, height);
+        List<Rectangle> clippedMasks = new ArrayList<>();
+        for (Rectangle mask : masks) {
+            Rectangle clipped = mask.intersection(bounds);
+            if (!clipped.isEmpty()) {
+                clippedMasks.add(clipped);
+            }
+        }
+        long compared = (long) width * height - maskedPixels(clippedMasks);
+        long allowed = (long) Math.floor(compared * threshold);
+
+        int[] expectedPixels = pixels(baseline);
+        int[] actualPixels = pixels(actual);
+        int columns = (width + tileSize - 1) / tileSize;
+        int rows = (height + tileSize - 1) / tileSize;
+        TileComparison comparison = new TileComparison(expectedPixels, actualPixels, width, height, columns,
+            clippedMasks, allowed, 0, columns * rows);
+        POOL.invoke(comparison);
+        long different = comparison.differentPixels.get();
+        return new ComparisonResult(false, different, compared, allowed, different > allowed, System.nanoTime() - start);
+    }
+
+    /**
+     * Creates an image that highlights the differences in red on top of a faded {@code actual}
+     *
+     * @param baseline The expected image
+     * @param actual   The image that was verified
+     * @param masks    Regions, in image pixels, that were ignored
+     * @return {@link BufferedImage}
+     */
+    public BufferedImage diffImage(BufferedImage baseline, BufferedImage actual, List<Rectangle> masks) {
+        int width = Math.min(baseline.getWidth(), actual.getWidth());
+        int height = Math.min(baseline.getHeight(), actual.getHeight());
+        int[] expectedPixels = pixels(baseline);
+        int[] actualPixels = pixels(actual);
+        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] diffPixels = ((DataBufferInt) diff.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int expected = expectedPixels[y * baseline.getWidth() + x];
+                int current = actualPixels[y * actual.getWidth() + x];
+                if (!isMasked(masks, x, y) && isDifferent(expected, current)) {
+                    diffPixels[y * width + x] = DIFF_COLOR;
+                } else {
+                    // fade the unchanged pixel towards white
+                    diffPixels[y * width + x] = ((current >> 2) & 0x3F3F3F) + 0xBFBFBF;
+                }
+            }
+        }
+        return diff;
+    }
+
+    private boolean isDifferent(int expected, int actual) {
+        if (expected == actual) {
+            return false;
+        }
+        return Math.abs(((expected >> 16) & 0xFF) - ((actual >> 16) & 0xFF)) > channelTolerance
+            || Math.abs(((expected >> 8) & 0xFF) - ((actual >> 8) & 0xFF)) > channelTolerance
+            || Math.abs((expected & 0xFF) - (actual & 0xFF)) > channelTolerance;
+    }
+
+    private static boolean isMasked(List<Rectangle> masks, int x, int y) {
+        for (Rectangle mask : masks) {
+            if (mask.contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Area of the union of the masks, swept column band by column band between the vertical edges of the masks, so
+     * overlaps are counted once without visiting their pixels
+     */
+    static long maskedPixels(List<Rectangle> masks) {
+        if (masks.isEmpty()) {
+            return 0;
+        }
+        int[] edges = masks.stream().flatMapToInt(mask -> IntStream.of(mask.x, mask.x + mask.width)).sorted().distinct().toArray();
+        long masked = 0;
+        List<Rectangle> covering = new ArrayList<>();
+        for (int i = 0; i + 1 < edges.length; i++) {
+            int left = edges[i];
+            int right = edges[i + 1];
+            covering.clear();
+            for (Rectangle mask : masks) {
+                if (mask.x <= left && mask.x + mask.width >= right) {
+                    covering.add(mask);
+                }
+            }
+            covering.sort(Comparator.comparingInt(mask -> mask.y));
+            long height = 0;
+            int top = Integer.MIN_VALUE;
+            int bottom = Integer.MIN_VALUE;
+            for (Rectangle mask : covering) {
+                if (mask.y > bottom) {
+                    height += bottom - top;
+                    top = mask.y;
+                }
+                bottom = Math.max(bottom, mask.y + mask.height);
+            }
+            height += bottom - top;
+            masked += height * (right - left);
+        }
+        return masked;
+    }
+
+    /**
+     * Returns the backing array of an int based image, converting other image types once
+     */
+    static int[] pixels(BufferedImage image) {
+        BufferedImage intImage = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB && image.getType() != BufferedImage.TYPE_INT_ARGB) {
+            intImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = intImage.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+        return ((DataBufferInt) intImage.getRaster().getDataBuffer()).getData();
+    }
+
+    private class TileComparison extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] expected;
+        private final int[] actual;
+        private final int width;
+        private final int height;
+        private final int columns;
+        private final List<Rectangle> masks;
+        private final long allowed;
+        private final int fromTile;
+        private final int toTile;
+        private final AtomicLong differentPixels;
+
+        TileComparison(int[] expected, int[] actual, int width, int height, int columns, List<Rectangle> masks,
+                       long allowed, int fromTile, int toTile) {
+            this(expected, actual, width, height, columns, masks, allowed, fromTile, toTile, new AtomicLong());
+        }
+
+        private TileComparison(int[] expected, int[] actual, int width, int height, int columns, List<Rectangle> masks,
+                               long allowed, int fromTile, int toTile, AtomicLong differentPixels) {
+            this.expected = expected;
+            this.actual = actual;
+            this.width = width;
+            this.height = height;
+            this.columns = columns;
+            this.masks = masks;
+            this.allowed = allowed;
+            this.fromTile = fromTile;
+            this.toTile = toTile;
+            this.differentPixels = differentPixels;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTile - fromTile > 1) {
+                int middle = (fromTile + toTile) >>> 1;
+                invokeAll(new TileComparison(expected, actual, width, height, columns, masks, allowed, fromTile, middle, differentPixels),
+                    new TileComparison(expected, actual, width, height, columns, masks, allowed, middle, toTile, differentPixels));
+            } else if (differentPixels.get() <= allowed) {
+                compareTile(fromTile);
+            }
+        }
+
+        private void compareTile(int tile) {
+            int x0 = (tile % columns) * tileSize;
+            int y0 = (tile / columns) * tileSize;
+            int x1 = Math.min(x0 + tileSize, width);
+            int y1 = Math.min(y0 + tileSize, height);
+            Rectangle tileBounds = new Rectangle(x0, y0, x1 - x0, y1 - y0);
+            List<Rectangle> tileMasks = Collections.emptyList();
+            for (Rectangle mask : masks) {
+                if (mask.intersects(tileBounds)) {
+                    if (tileMasks.isEmpty()) {
+                        tileMasks = new ArrayList<>();
+                    }
+                    tileMasks.add(mask);
+                }
+            }
+            for (int y = y0; y < y1; y++) {
+                if (differentPixels.get() > allowed) {
+                    return;
+                }
+                long rowDifferences = 0;
+                int offset = y * width;
+                for (int x = x0; x < x1; x++) {
+                    if (expected[offset + x] != actual[offset + x] && isDifferent(expected[offset + x], actual[offset + x])
+                        && (tileMasks.isEmpty() || !isMasked(tileMasks, x, y))) {
+                        rowDifferences++;
+                    }
+                }
+                if (rowDifferences > 0) {
+                    differentPixels.addAndGet(rowDifferences);
+                }
+            }
+        }
+    }
+}
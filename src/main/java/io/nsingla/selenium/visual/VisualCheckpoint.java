@@ -0,0 +1,224 @@
+package io.nsingla.selenium.visual;
+
+import io.nsingla.constants.SeleniumConstants;
+import io.nsingla.selenium.extensions.ScreenshotExtension;
+
+import org.junit.jupiter.api.Assertions;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.firefox.HasFullPageScreenshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares page or element screenshots with baselines stored in {@link SeleniumConstants#VISUAL_BASELINE_PATH}.
+ * A missing baseline is recorded from the current screenshot. On a mismatch the actual image and a diff image are
+ * written next to the failure screenshots and attached to the report.
+ */
+public class VisualCheckpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisualCheckpoint.class);
+    private static final int TILE_SIZE = 128;
+
+    private final WebDriver driver;
+    private final ImageComparator comparator;
+    private final File baselineDir;
+
+    public VisualCheckpoint(WebDriver driver) {
+        this(driver, SeleniumConstants.VISUAL_THRESHOLD, SeleniumConstants.VISUAL_CHANNEL_TOLERANCE);
+    }
+
+    /**
+     * @param driver           {@link WebDriver}, which takes the screenshots
+     * @param threshold        Allowed fraction of different pixels, e.g. 0.001 for 0.1%
+     * @param channelTolerance Allowed difference per color channel (0-255) before a pixel counts as different
+     */
+    public VisualCheckpoint(WebDriver driver, double threshold, int channelTolerance) {
+        this.driver = driver;
+        this.comparator = new ImageComparator(threshold, channelTolerance, TILE_SIZE);
+        this.baselineDir = new File(SeleniumConstants.VISUAL_BASELINE_PATH);
+    }
+
+    /**
+     * Compares the full page with the baseline called {@code name}. Chromium and firefox capture the page beyond the
+     * viewport, other browsers only the visible part of it.
+     *
+     * @param name  Name of the baseline
+     * @param masks Selectors of dynamic regions that are ignored
+     */
+    public void checkPage(String name, By... masks) {
+        byte[] screenshot = fullPageScreenshot();
+        if (screenshot == null) {
+            logger.warn("{} cannot take full page screenshots, comparing the visible part of the page", driver.getClass().getSimpleName());
+            checkViewport(name, masks);
+            return;
+        }
+        verify(name, decode(screenshot), maskRegions(null, false, masks));
+    }
+
+    /**
+     * Compares the visible part of the page with the baseline called {@code name}
+     *
+     * @param name  Name of the baseline
+     * @param masks Selectors of dynamic regions that are ignored
+     */
+    public void checkViewport(String name, By... masks) {
+        byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        verify(name, decode(screenshot), maskRegions(null, true, masks));
+    }
+
+    /**
+     * Compares an element with the baseline called {@code name}
+     *
+     * @param name    Name of the baseline
+     * @param element The element to compare
+     * @param masks   Selectors of dynamic regions inside the element that are ignored
+     */
+    public void checkElement(String name, WebElement element, By... masks) {
+        byte[] screenshot = element.getScreenshotAs(OutputType.BYTES);
+        verify(name, decode(screenshot), maskRegions(element, false, masks));
+    }
+
+    /**
+     * Compares an element with the baseline called {@code name}
+     *
+     * @param name  Name of the baseline
+     * @param by    The selector of the element to compare
+     * @param masks Selectors of dynamic regions inside the element that are ignored
+     */
+    public void checkElement(String name, By by, By... masks) {
+        checkElement(name, driver.findElement(by), masks);
+    }
+
+    /**
+     * Compares an image with the baseline called {@code name}
+     *
+     * @param name   Name of the baseline
+     * @param actual The image to verify
+     * @param masks  Regions, in image pixels, that are ignored
+     */
+    public void verify(String name, BufferedImage actual, List<Rectangle> masks) {
+        File baseline = new File(baselineDir, name + ".png");
+        try {
+            if (SeleniumConstants.VISUAL_UPDATE_BASELINES || !baseline.exists()) {
+                write(actual, baseline);
+                logger.info("Visual baseline {} has been recorded", baseline);
+                return;
+            }
+            BufferedImage expected = ImageIO.read(baseline);
+            ComparisonResult result = comparator.compare(expected, actual, masks);
+            logger.debug("Visual checkpoint {}: {}", name, result);
+            if (!result.isMatch()) {
+                File screenShotDir = new File("." + File.separator + "screenshots");
+                File actualFile = new File(screenShotDir, "visual-" + name + "-actual.png");
+                write(actual, actualFile);
+                ScreenshotExtension.saveImageAttach(actualFile.getPath(), name + "-actual");
+                if (!result.isSizeMismatch()) {
+                    File diffFile = new File(screenShotDir, "visual-" + name + "-diff.png");
+                    write(comparator.diffImage(expected, actual, masks), diffFile);
+                    ScreenshotExtension.saveImageAttach(diffFile.getPath(), name + "-diff");
+                }
+                Assertions.fail("Visual checkpoint " + name + " failed: " + result);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compare visual checkpoint " + name, e);
+        }
+    }
+
+    /**
+     * @return Screenshot of the whole page, or null if the browser cannot take one
+     */
+    private byte[] fullPageScreenshot() {
+        WebDriver current = driver;
+        while (true) {
+            if (current instanceof HasFullPageScreenshot) {
+                return ((HasFullPageScreenshot) current).getFullPageScreenshotAs(OutputType.BYTES);
+            }
+            if (current instanceof HasCdp) {
+                HasCdp cdp = (HasCdp) current;
+                Map<String, Object> metrics = cdp.executeCdpCommand("Page.getLayoutMetrics", Collections.emptyMap());
+                // cssContentSize is only reported by newer versions
+                @SuppressWarnings("unchecked")
+                Map<String, Object> size = (Map<String, Object>) metrics.getOrDefault("cssContentSize", metrics.get("contentSize"));
+                Map<String, Object> clip = Map.of("x", 0, "y", 0, "width", size.get("width"), "height", size.get("height"), "scale", 1);
+                Map<String, Object> screenshot = cdp.executeCdpCommand("Page.captureScreenshot",
+                    Map.of("format", "png", "captureBeyondViewport", true, "clip", clip));
+                return Base64.getDecoder().decode((String) screenshot.get("data"));
+            }
+            if (!(current instanceof WrapsDriver)) {
+                return null;
+            }
+            current = ((WrapsDriver) current).getWrappedDriver();
+        }
+    }
+
+    /**
+     * @param origin   Element the screenshot was taken of, or null for a page screenshot
+     * @param viewport Whether the screenshot only shows the viewport, whose origin is the current scroll position
+     */
+    private List<Rectangle> maskRegions(WebElement origin, boolean viewport, By... masks) {
+        if (masks.length == 0) {
+            return Collections.emptyList();
+        }
+        // element rectangles are in css pixels relative to the document, screenshots in device pixels
+        List<?> page = (List<?>) ((JavascriptExecutor) driver).executeScript(
+            "return [window.devicePixelRatio || 1, window.scrollX || window.pageXOffset, window.scrollY || window.pageYOffset]");
+        double ratio = ((Number) page.get(0)).doubleValue();
+        int offsetX = 0;
+        int offsetY = 0;
+        if (origin != null) {
+            org.openqa.selenium.Rectangle originRect = origin.getRect();
+            offsetX = originRect.getX();
+            offsetY = originRect.getY();
+        } else if (viewport) {
+            offsetX = ((Number) page.get(1)).intValue();
+            offsetY = ((Number) page.get(2)).intValue();
+        }
+        List<Rectangle> regions = new ArrayList<>();
+        for (By mask : masks) {
+            List<WebElement> elements = origin != null ? origin.findElements(mask) : driver.findElements(mask);
+            for (WebElement element : elements) {
+                org.openqa.selenium.Rectangle rect = element.getRect();
+                regions.add(new Rectangle((int) Math.floor((rect.getX() - offsetX) * ratio), (int) Math.floor((rect.getY() - offsetY) * ratio),
+                    (int) Math.ceil(rect.getWidth() * ratio), (int) Math.ceil(rect.getHeight() * ratio)));
+            }
+        }
+        return regions;
+    }
+
+    private static BufferedImage decode(byte[] png) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode screenshot", e);
+        }
+    }
+
+    private static void write(BufferedImage image, File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.exists()) {
+            boolean dirCreated = dir.mkdirs();
+            logger.info("Directory for visual checkpoints on location {} has been created (y/n? {}).", dir, dirCreated);
+        }
+        ImageIO.write(image, "png", file);
+    }
+}
@@ -0,0 +1,97 @@
+package io.nsingla.selenium.actions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PageActionsTest {
+
+    private WebDriver driver;
+    private PageActions pageActions;
+
+    @BeforeEach
+    public void openForm() {
+        driver = new HtmlUnitDriver(true);
+        driver.get(PageActionsTest.class.getResource("/fill-form.html").toString());
+        pageActions = new PageActions(driver);
+    }
+
+    @AfterEach
+    public void quit() {
+        driver.quit();
+    }
+
+    @Test
+    public void fillFormSetsValuesAndTogglesCheckboxes() {
+        Map<By, String> values = new LinkedHashMap<>();
+        values.put(By.id("name"), "Jane");
+        values.put(By.className("email"), "jane@example.com");
+        values.put(By.id("newsletter"), "true");
+        values.put(By.id("terms"), "false");
+
+        pageActions.fillForm(values);
+
+        assertEquals("Jane", value(By.id("name")));
+        assertEquals("jane@example.com", value(By.className("email")));
+        assertTrue(driver.findElement(By.id("newsletter")).isSelected());
+        assertFalse(driver.findElement(By.id("terms")).isSelected());
+    }
+
+    @Test
+    public void fillFormFiresEventsOfUser() {
+        pageActions.fillForm(Map.of(By.id("name"), "Jane"));
+
+        assertEquals(List.of("input:name", "change:name", "focusout:name"), events());
+    }
+
+    @Test
+    public void typedFieldsReceiveKeystrokes() {
+        driver.findElement(By.id("search")).sendKeys("old");
+        Map<By, String> values = new LinkedHashMap<>();
+        values.put(By.id("name"), "Jane");
+        values.put(By.id("search"), "shoes");
+
+        pageActions.fillForm(values, By.id("search"));
+
+        assertEquals("Jane", value(By.id("name")));
+        assertEquals("shoes", value(By.id("search")));
+        assertTrue(events().contains("keyup:search"));
+    }
+
+    @Test
+    public void missingOrNotEditableFieldsFail() {
+        Map<By, String> values = new LinkedHashMap<>();
+        values.put(By.id("name"), "Jane");
+        values.put(By.id("missing"), "x");
+        values.put(By.id("disabled"), "x");
+        values.put(By.id("readonly"), "x");
+
+        NoSuchElementException error = assertThrows(NoSuchElementException.class, () -> pageActions.fillForm(values));
+
+        assertTrue(error.getMessage().startsWith(
+            "Cannot fill form fields [By.id: missing, By.id: disabled, By.id: readonly]"), error.getMessage());
+    }
+
+    private String value(By by) {
+        return driver.findElement(by).getAttribute("value");
+    }
+
+    private List<String> events() {
+        return driver.findElements(By.cssSelector("#events li")).stream().map(WebElement::getText).collect(Collectors.toList());
+    }
+}
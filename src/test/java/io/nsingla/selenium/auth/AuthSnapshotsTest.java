@@ -0,0 +1,132 @@
+package io.nsingla.selenium.auth;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class AuthSnapshotsTest {
+
+    private final String role = "role-" + UUID.randomUUID();
+    private final List<WebDriver> drivers = new ArrayList<>();
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    public void startApp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] page = "<html><body>app</body></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(page);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/app";
+    }
+
+    @AfterEach
+    public void stopApp() {
+        drivers.forEach(WebDriver::quit);
+        server.stop(0);
+        AuthSnapshots.invalidate(role);
+    }
+
+    @Test
+    public void logsInOnceAndRestoresSnapshot() {
+        CountingFlow flow = new CountingFlow(null);
+
+        AuthSnapshots.login(driver(), role, url, flow);
+        WebDriver restored = driver();
+        AuthSnapshots.login(restored, role, url, flow);
+
+        assertEquals(1, flow.logins.get());
+        assertNotNull(restored.manage().getCookieNamed("session"));
+        assertEquals(url, restored.getCurrentUrl());
+    }
+
+    @Test
+    public void restoresOfRoleRunInParallel() throws Exception {
+        AuthSnapshots.login(driver(), role, url, new CountingFlow(null));
+        // both restores have to be checked at the same time, which they cannot while one holds the lock of the role
+        CountingFlow flow = new CountingFlow(new CyclicBarrier(2));
+        WebDriver first = driver();
+        WebDriver second = driver();
+
+        CompletableFuture<Void> firstLogin = CompletableFuture.runAsync(() -> AuthSnapshots.login(first, role, url, flow));
+        CompletableFuture<Void> secondLogin = CompletableFuture.runAsync(() -> AuthSnapshots.login(second, role, url, flow));
+        CompletableFuture.allOf(firstLogin, secondLogin).get(30, TimeUnit.SECONDS);
+
+        assertEquals(0, flow.logins.get());
+    }
+
+    @Test
+    public void rejectedSnapshotIsReplaced() {
+        AuthSnapshots.login(driver(), role, url, new CountingFlow(null));
+        AuthSnapshot rejected = AuthSnapshots.get(role).orElseThrow();
+        CountingFlow flow = new CountingFlow(null);
+        flow.acceptRestored = false;
+
+        AuthSnapshots.login(driver(), role, url, flow);
+
+        assertEquals(1, flow.logins.get());
+        assertNotNull(AuthSnapshots.get(role).orElseThrow());
+        assertEquals(false, AuthSnapshots.get(role).orElseThrow() == rejected);
+    }
+
+    private WebDriver driver() {
+        WebDriver driver = new HtmlUnitDriver(true);
+        drivers.add(driver);
+        return driver;
+    }
+
+    private static class CountingFlow implements LoginFlow {
+        private final AtomicInteger logins = new AtomicInteger();
+        private final CyclicBarrier restoresChecked;
+        private volatile boolean acceptRestored = true;
+
+        private CountingFlow(CyclicBarrier restoresChecked) {
+            this.restoresChecked = restoresChecked;
+        }
+
+        @Override
+        public void login(WebDriver driver) {
+            logins.incrementAndGet();
+            driver.manage().addCookie(new Cookie("session", "user-" + logins.get()));
+        }
+
+        @Override
+        public boolean isLoggedIn(WebDriver driver) {
+            if (restoresChecked != null) {
+                try {
+                    restoresChecked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                    throw new IllegalStateException("Restores did not run in parallel", e);
+                }
+            }
+            return acceptRestored && driver.manage().getCookieNamed("session") != null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.nsingla.selenium.download;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DownloadManagerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final byte[] CONTENT = "id,name\n1,report\n".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path parent;
+
+    private DownloadManager downloads;
+
+    @BeforeEach
+    public void startWatching() throws IOException {
+        downloads = DownloadManager.create(parent);
+    }
+
+    @AfterEach
+    public void stopWatching() {
+        downloads.close();
+    }
+
+    @Test
+    public void completesOnceChromiumRenamedPartialFile() throws Exception {
+        CompletableFuture<Path> download = downloads.expect("report-*.csv", sha256(CONTENT));
+        Path partial = downloads.getDirectory().resolve("report-1.csv.crdownload");
+        Files.write(partial, Arrays.copyOfRange(CONTENT, 0, 8));
+        Thread.sleep(200);
+        Files.write(partial, Arrays.copyOfRange(CONTENT, 8, CONTENT.length), StandardOpenOption.APPEND);
+        assertFalse(download.isDone());
+
+        Files.move(partial, downloads.getDirectory().resolve("report-1.csv"));
+
+        Path file = DownloadManager.await(download, TIMEOUT);
+        assertEquals("report-1.csv", file.getFileName().toString());
+        assertArrayEquals(CONTENT, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void emptyFinalFileOfFirefoxWaitsForPartialFile() throws Exception {
+        CompletableFuture<Path> download = downloads.expect("report.csv", sha256(CONTENT));
+        Path file = downloads.getDirectory().resolve("report.csv");
+        Path partial = downloads.getDirectory().resolve("report.csv.part");
+        Files.createFile(file);
+        Files.write(partial, CONTENT);
+        Thread.sleep(1500);
+        assertFalse(download.isDone(), "the empty final file is not the download");
+
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(DownloadManager.await(download, TIMEOUT)));
+    }
+
+    @Test
+    public void emptyDownloadCompletesOnceSettled() throws IOException {
+        CompletableFuture<Path> download = downloads.expect("empty.txt");
+
+        Files.createFile(downloads.getDirectory().resolve("empty.txt"));
+        assertFalse(download.isDone());
+
+        assertEquals(0, Files.size(DownloadManager.await(download, TIMEOUT)));
+    }
+
+    @Test
+    public void downloadCompletedBeforeItWasExpected() throws IOException {
+        Files.write(downloads.getDirectory().resolve("early.csv"), CONTENT);
+        // events of a directory arrive in order, so the earlier download is known once this one completed
+        CompletableFuture<Path> marker = downloads.expect("marker.csv");
+        Files.write(downloads.getDirectory().resolve("marker.csv"), CONTENT);
+        DownloadManager.await(marker, TIMEOUT);
+
+        CompletableFuture<Path> download = downloads.expect("early.csv", sha256(CONTENT));
+
+        assertTrue(download.isDone());
+        assertEquals("early.csv", DownloadManager.await(download, TIMEOUT).getFileName().toString());
+    }
+
+    @Test
+    public void checksumMismatchFails() throws IOException {
+        CompletableFuture<Path> download = downloads.expect("report.csv", sha256("other".getBytes(StandardCharsets.UTF_8)));
+
+        Files.write(downloads.getDirectory().resolve("report.csv"), CONTENT);
+
+        AssertionError error = assertThrows(AssertionError.class, () -> DownloadManager.await(download, TIMEOUT));
+        assertTrue(error.getMessage().startsWith("SHA-256 of report.csv is " + sha256(CONTENT)), error.getMessage());
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.nsingla.selenium.grid;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.SessionNotCreatedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GridBalancerTest {
+
+    private static final long OPEN_MILLIS = 60_000;
+
+    private final GridEndpoint first = new GridEndpoint("http://first:4444", 1, 1, OPEN_MILLIS);
+    private final GridEndpoint second = new GridEndpoint("http://second:4444", 1, 1, OPEN_MILLIS);
+
+    @Test
+    public void leastOutstandingPicksTheLeastLoadedGrid() {
+        GridBalancer balancer = new GridBalancer(List.of(first, second), GridBalancer.Strategy.LEAST_OUTSTANDING);
+
+        assertSame(first, balancer.acquire());
+        assertSame(second, balancer.acquire());
+        balancer.release(first);
+        assertSame(first, balancer.acquire());
+    }
+
+    @Test
+    public void leastOutstandingWeighsTheLoad() {
+        GridEndpoint large = new GridEndpoint("http://large:4444", 3, 1, OPEN_MILLIS);
+        GridBalancer balancer = new GridBalancer(List.of(first, large), GridBalancer.Strategy.LEAST_OUTSTANDING);
+
+        List<GridEndpoint> picks = acquire(balancer, 4);
+
+        assertEquals(1, Collections.frequency(picks, first));
+        assertEquals(3, Collections.frequency(picks, large));
+    }
+
+    @Test
+    public void weightedRoundRobinSpreadsPicks() {
+        GridEndpoint heavy = new GridEndpoint("http://heavy:4444", 3, 1, OPEN_MILLIS);
+        GridBalancer balancer = new GridBalancer(List.of(heavy, second), GridBalancer.Strategy.WEIGHTED_ROUND_ROBIN);
+
+        assertEquals(List.of(heavy, heavy, second, heavy, heavy, heavy, second, heavy), acquire(balancer, 8));
+    }
+
+    @Test
+    public void gridsWithoutFreeSlotsAreUsedLast() {
+        GridBalancer balancer = new GridBalancer(List.of(first, second), GridBalancer.Strategy.LEAST_OUTSTANDING);
+        first.updateStatus(true, 0);
+
+        assertEquals(List.of(second, second), acquire(balancer, 2));
+        second.updateStatus(false, 5);
+        assertSame(first, balancer.acquire(), "no grid is healthy, all available ones are candidates");
+        assertFalse(balancer.hasCapacity());
+    }
+
+    @Test
+    public void failingGridIsSkipped() {
+        GridBalancer balancer = new GridBalancer(List.of(first, second), GridBalancer.Strategy.LEAST_OUTSTANDING);
+        balancer.recordFailure(balancer.acquire());
+
+        assertEquals(List.of(second, second), acquire(balancer, 2));
+        assertEquals(1, first.getFailures());
+    }
+
+    @Test
+    public void rejectedSessionDoesNotOpenTheCircuit() {
+        GridBalancer balancer = new GridBalancer(List.of(first), GridBalancer.Strategy.LEAST_OUTSTANDING);
+        balancer.recordRejected(balancer.acquire());
+
+        assertSame(first, balancer.acquire());
+        assertEquals(0, first.getFailures());
+    }
+
+    @Test
+    public void noSessionWhenAllCircuitsAreOpen() {
+        GridBalancer balancer = new GridBalancer(List.of(first, second), GridBalancer.Strategy.LEAST_OUTSTANDING);
+        balancer.recordFailure(balancer.acquire());
+        balancer.recordFailure(balancer.acquire());
+
+        assertThrows(SessionNotCreatedException.class, balancer::acquire);
+        assertFalse(balancer.hasCapacity());
+    }
+
+    @Test
+    public void strategyIsParsedFromRuntimeParameter() {
+        assertEquals(GridBalancer.Strategy.WEIGHTED_ROUND_ROBIN, GridBalancer.Strategy.fromString(" weighted-round-robin "));
+        assertTrue(new GridBalancer(List.of(first), GridBalancer.Strategy.LEAST_OUTSTANDING).hasCapacity());
+    }
+
+    private static List<GridEndpoint> acquire(GridBalancer balancer, int sessions) {
+        List<GridEndpoint> picks = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            picks.add(balancer.acquire());
+        }
+        return picks;
+    }
+}
@@ -0,0 +1,104 @@
+package io.nsingla.selenium.grid;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GridEndpointTest {
+
+    private static final long OPEN_MILLIS = 1000;
+
+    private final GridEndpoint endpoint = new GridEndpoint("http://grid:4444", 1, 2, OPEN_MILLIS);
+
+    @Test
+    public void circuitOpensAfterConsecutiveFailures() {
+        fail(0);
+        assertTrue(endpoint.isAvailable(0));
+        fail(0);
+
+        assertFalse(endpoint.isAvailable(1));
+        assertTrue(endpoint.isCircuitOpen(1));
+        assertEquals(1, endpoint.getCircuitOpened());
+    }
+
+    @Test
+    public void successResetsConsecutiveFailures() {
+        fail(0);
+        endpoint.acquire(0);
+        endpoint.recordSuccess(1_000_000);
+        fail(0);
+
+        assertTrue(endpoint.isAvailable(1));
+    }
+
+    @Test
+    public void singleTrialIsLetThroughAfterOpenPeriod() {
+        fail(0);
+        fail(0);
+
+        assertTrue(endpoint.isAvailable(OPEN_MILLIS));
+        endpoint.acquire(OPEN_MILLIS);
+        assertFalse(endpoint.isAvailable(OPEN_MILLIS), "a second request during the trial");
+    }
+
+    @Test
+    public void successfulTrialClosesCircuit() {
+        fail(0);
+        fail(0);
+        endpoint.acquire(OPEN_MILLIS);
+        endpoint.recordSuccess(1_000_000);
+
+        assertTrue(endpoint.isAvailable(OPEN_MILLIS));
+        assertFalse(endpoint.isCircuitOpen(OPEN_MILLIS));
+    }
+
+    @Test
+    public void failedTrialOpensCircuitAgain() {
+        fail(0);
+        fail(0);
+        endpoint.acquire(OPEN_MILLIS);
+        endpoint.recordFailure(OPEN_MILLIS);
+
+        assertFalse(endpoint.isAvailable(OPEN_MILLIS + 1));
+        assertTrue(endpoint.isAvailable(2 * OPEN_MILLIS));
+        assertEquals(2, endpoint.getCircuitOpened());
+    }
+
+    @Test
+    public void rejectedTrialLetsTheNextRequestTry() {
+        fail(0);
+        fail(0);
+        endpoint.acquire(OPEN_MILLIS);
+        endpoint.recordRejected();
+
+        assertTrue(endpoint.isAvailable(OPEN_MILLIS));
+        assertEquals(0, endpoint.getOutstanding());
+    }
+
+    @Test
+    public void outstandingSessionsAreCounted() {
+        endpoint.acquire(0);
+        endpoint.acquire(0);
+        endpoint.recordSuccess(1_000_000);
+        endpoint.recordSuccess(1_000_000);
+        endpoint.release();
+
+        assertEquals(1, endpoint.getOutstanding());
+        assertEquals(2, endpoint.getSessions());
+    }
+
+    @Test
+    public void parsesWeight() {
+        assertEquals(3, GridEndpoint.parse(" http://grid:4444 | 3 ", 2, OPEN_MILLIS).getWeight());
+        assertEquals("http://grid:4444", GridEndpoint.parse("http://grid:4444", 2, OPEN_MILLIS).getUrl());
+        assertThrows(IllegalArgumentException.class, () -> GridEndpoint.parse("http://grid:4444|0", 2, OPEN_MILLIS));
+    }
+
+    private void fail(long now) {
+        endpoint.acquire(now);
+        endpoint.recordFailure(now);
+    }
+}
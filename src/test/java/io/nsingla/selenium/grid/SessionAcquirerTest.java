@@ -0,0 +1,126 @@
+package io.nsingla.selenium.grid;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SessionAcquirerTest {
+
+    @Test
+    public void sessionsAreCreatedConcurrently() {
+        SessionAcquirer acquirer = new SessionAcquirer(10_000, 10, 100, () -> true);
+        AtomicInteger creating = new AtomicInteger();
+        AtomicInteger maxCreating = new AtomicInteger();
+
+        // the test threads of a parallel run
+        ExecutorService tests = Executors.newFixedThreadPool(6);
+        try {
+            List<CompletableFuture<WebDriver>> sessions = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                sessions.add(CompletableFuture.supplyAsync(() -> acquirer.acquire(() -> {
+                    maxCreating.accumulateAndGet(creating.incrementAndGet(), Math::max);
+                    sleep(300);
+                    creating.decrementAndGet();
+                    return driver();
+                }), tests));
+            }
+            sessions.forEach(CompletableFuture::join);
+        } finally {
+            tests.shutdown();
+        }
+
+        assertEquals(6, maxCreating.get());
+    }
+
+    @Test
+    public void retriesWhileGridHasNoCapacity() {
+        SessionAcquirer acquirer = new SessionAcquirer(10_000, 10, 20, () -> true);
+        AtomicInteger attempts = new AtomicInteger();
+        WebDriver created = driver();
+
+        WebDriver session = acquirer.acquire(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new SessionNotCreatedException("Could not start a new session. Connection refused");
+            }
+            return created;
+        });
+
+        assertSame(created, session);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void waitsForAFreeSlot() {
+        AtomicBoolean free = new AtomicBoolean();
+        SessionAcquirer acquirer = new SessionAcquirer(10_000, 10, 20, free::get);
+        CompletableFuture.runAsync(() -> {
+            sleep(100);
+            free.set(true);
+        });
+
+        acquirer.acquire(SessionAcquirerTest::driver);
+
+        assertTrue(free.get());
+    }
+
+    @Test
+    public void unsupportedCapabilitiesFailRightAway() {
+        SessionAcquirer acquirer = new SessionAcquirer(10_000, 10, 20, () -> true);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(SessionNotCreatedException.class, () -> acquirer.acquire(() -> {
+            attempts.incrementAndGet();
+            throw new SessionNotCreatedException("No nodes support the capabilities in the request");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testFailuresAreNotRetried() {
+        SessionAcquirer acquirer = new SessionAcquirer(10_000, 10, 20, () -> true);
+
+        assertThrows(WebDriverException.class, () -> acquirer.acquire(() -> {
+            throw new WebDriverException("invalid argument: cannot parse capability");
+        }));
+    }
+
+    @Test
+    public void givesUpAtTheDeadline() {
+        SessionAcquirer acquirer = new SessionAcquirer(200, 50, 50, () -> false);
+        long start = System.nanoTime();
+
+        SessionNotCreatedException timeout = assertThrows(SessionNotCreatedException.class, () -> acquirer.acquire(SessionAcquirerTest::driver));
+
+        assertTrue(timeout.getMessage().contains("No grid session within"), timeout.getMessage());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+
+    private static WebDriver driver() {
+        return (WebDriver) Proxy.newProxyInstance(SessionAcquirerTest.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+            (proxy, method, args) -> "toString".equals(method.getName()) ? "driver" : null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.nsingla.selenium.htmlunit;
+
+import com.gargoylesoftware.css.dom.CSSStyleSheetImpl;
+import com.gargoylesoftware.htmlunit.Cache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TunedHtmlUnitDriverTest {
+
+    @Test
+    public void sessionsShareCache() {
+        TunedHtmlUnitDriver first = new TunedHtmlUnitDriver();
+        TunedHtmlUnitDriver second = new TunedHtmlUnitDriver();
+        try {
+            assertSame(first.getWebClient().getCache(), second.getWebClient().getCache());
+        } finally {
+            first.quit();
+            second.quit();
+        }
+    }
+
+    @Test
+    public void quitKeepsSharedCache() {
+        TunedHtmlUnitDriver driver = new TunedHtmlUnitDriver();
+        Cache cache = driver.getWebClient().getCache();
+        cache.cache("http://app.test/quit.css", new CSSStyleSheetImpl());
+
+        driver.quit();
+
+        assertNotNull(cache.getCachedStyleSheet("http://app.test/quit.css"));
+    }
+
+    @Test
+    public void clearEmptiesSharedCache() {
+        TunedHtmlUnitDriver driver = new TunedHtmlUnitDriver();
+        try {
+            Cache cache = driver.getWebClient().getCache();
+            cache.cache("http://app.test/clear.css", new CSSStyleSheetImpl());
+
+            cache.clear();
+
+            assertEquals(0, TunedHtmlUnitDriver.getSharedCacheSize());
+        } finally {
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.nsingla.selenium.proxy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CachingInterceptorTest {
+
+    private final ResponseCache cache = new ResponseCache(1024, null);
+    private final CachingInterceptor interceptor = new CachingInterceptor(cache, 3600);
+
+    @Test
+    public void maxAgeOfCacheControl() {
+        assertEquals(31536000, CachingInterceptor.maxAgeSeconds("public, max-age=31536000"));
+        assertEquals(600, CachingInterceptor.maxAgeSeconds("max-age=600"));
+        assertEquals(600, CachingInterceptor.maxAgeSeconds("Public,MAX-AGE=600"));
+        assertEquals(600, CachingInterceptor.maxAgeSeconds("max-age=\"600\""));
+    }
+
+    @Test
+    public void immutableWithoutMaxAgeIsYear() {
+        assertEquals(TimeUnit.DAYS.toSeconds(365), CachingInterceptor.maxAgeSeconds("immutable"));
+        assertEquals(60, CachingInterceptor.maxAgeSeconds("max-age=60, immutable"));
+    }
+
+    @Test
+    public void uncacheableDirectivesWin() {
+        assertEquals(-1, CachingInterceptor.maxAgeSeconds("max-age=600, no-store"));
+        assertEquals(-1, CachingInterceptor.maxAgeSeconds("no-cache, max-age=600"));
+        assertEquals(-1, CachingInterceptor.maxAgeSeconds("private, max-age=600, immutable"));
+    }
+
+    @Test
+    public void missingOrInvalidMaxAge() {
+        assertEquals(-1, CachingInterceptor.maxAgeSeconds(null));
+        assertEquals(-1, CachingInterceptor.maxAgeSeconds(""));
+        assertEquals(-1, CachingInterceptor.maxAgeSeconds("public"));
+        assertEquals(-1, CachingInterceptor.maxAgeSeconds("max-age=soon"));
+    }
+
+    @Test
+    public void servesLongLivedResponseFromCache() {
+        ProxyRequest request = request("GET", "https://cdn.test/app.js");
+        interceptor.onResponse(request, response("max-age=31536000"));
+
+        assertNotNull(interceptor.onRequest(request("GET", "https://cdn.test/app.js")));
+        assertNull(interceptor.onRequest(request("GET", "https://cdn.test/other.js")));
+    }
+
+    @Test
+    public void skipsShortLivedResponse() {
+        interceptor.onResponse(request("GET", "https://cdn.test/app.js"), response("max-age=60"));
+
+        assertEquals(0, cache.getEntries());
+    }
+
+    @Test
+    public void skipsResponseSettingCookie() {
+        ProxyResponse response = response("immutable");
+        response.getHeaders().put("Set-Cookie", list("id=1"));
+        interceptor.onResponse(request("GET", "https://cdn.test/app.js"), response);
+
+        assertEquals(0, cache.getEntries());
+    }
+
+    @Test
+    public void cachesOnlyResponsesVaryingByEncoding() {
+        ProxyResponse byEncoding = response("immutable");
+        byEncoding.getHeaders().put("Vary", list("Accept-Encoding"));
+        ProxyResponse byOrigin = response("immutable");
+        byOrigin.getHeaders().put("Vary", list("Accept-Encoding, Origin"));
+
+        interceptor.onResponse(request("GET", "https://cdn.test/a.js"), byEncoding);
+        interceptor.onResponse(request("GET", "https://cdn.test/b.js"), byOrigin);
+
+        assertEquals(1, cache.getEntries());
+    }
+
+    @Test
+    public void skipsRequestsThatAreNotPlainGets() {
+        interceptor.onResponse(request("POST", "https://cdn.test/app.js"), response("immutable"));
+        ProxyRequest authorized = request("GET", "https://cdn.test/app.js");
+        authorized.getHeaders().put("Authorization", list("Bearer token"));
+        interceptor.onResponse(authorized, response("immutable"));
+
+        assertEquals(0, cache.getEntries());
+    }
+
+    private static ProxyRequest request(String method, String url) {
+        return new ProxyRequest(method, url, new TreeMap<>(String.CASE_INSENSITIVE_ORDER), new byte[0]);
+    }
+
+    private static ProxyResponse response(String cacheControl) {
+        ProxyResponse response = ProxyResponse.of(200, "application/javascript", new byte[16]);
+        response.getHeaders().put("Cache-Control", list(cacheControl));
+        return response;
+    }
+
+    private static List<String> list(String value) {
+        return new ArrayList<>(Collections.singletonList(value));
+    }
+}
@@ -0,0 +1,191 @@
+package io.nsingla.selenium.proxy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCacheTest {
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void countsBytesOfBodies() {
+        ResponseCache cache = new ResponseCache(100, null);
+        cache.put("a", response(10), NEVER);
+        cache.put("b", response(20), NEVER);
+
+        assertEquals(2, cache.getEntries());
+        assertEquals(30, cache.getBytes());
+    }
+
+    @Test
+    public void replacingEntryCountsOnlyNewBody() {
+        ResponseCache cache = new ResponseCache(100, null);
+        cache.put("a", response(10), NEVER);
+        cache.put("a", response(40), NEVER);
+
+        assertEquals(1, cache.getEntries());
+        assertEquals(40, cache.getBytes());
+        assertEquals(40, cache.get("a", 0).getBody().length);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        ResponseCache cache = new ResponseCache(30, null);
+        cache.put("a", response(10), NEVER);
+        cache.put("b", response(10), NEVER);
+        cache.put("c", response(10), NEVER);
+        assertNotNull(cache.get("a", 0));
+
+        cache.put("d", response(10), NEVER);
+
+        assertNull(cache.get("b", 0), "least recently used");
+        assertNotNull(cache.get("a", 0));
+        assertNotNull(cache.get("c", 0));
+        assertNotNull(cache.get("d", 0));
+        assertEquals(30, cache.getBytes());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void evictsAsManyAsNeededForLargeBody() {
+        ResponseCache cache = new ResponseCache(30, null);
+        cache.put("a", response(10), NEVER);
+        cache.put("b", response(10), NEVER);
+        cache.put("c", response(10), NEVER);
+
+        cache.put("d", response(25), NEVER);
+
+        assertEquals(1, cache.getEntries());
+        assertEquals(25, cache.getBytes());
+        assertEquals(3, cache.getEvictions());
+    }
+
+    @Test
+    public void skipsBodyLargerThanCache() {
+        ResponseCache cache = new ResponseCache(30, null);
+        cache.put("a", response(10), NEVER);
+
+        cache.put("b", response(31), NEVER);
+
+        assertNull(cache.get("b", 0));
+        assertNotNull(cache.get("a", 0));
+        assertEquals(10, cache.getBytes());
+    }
+
+    @Test
+    public void expiredEntryIsRemoved() {
+        ResponseCache cache = new ResponseCache(100, null);
+        cache.put("a", response(10), 1000);
+
+        assertNotNull(cache.get("a", 999));
+        assertNull(cache.get("a", 1000));
+        assertEquals(0, cache.getEntries());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void returnsCopyOfHeaders() {
+        ResponseCache cache = new ResponseCache(100, null);
+        cache.put("a", ProxyResponse.of(200, "text/css", new byte[1]), NEVER);
+
+        cache.get("a", 0).getHeaders().clear();
+
+        assertEquals("text/css", cache.get("a", 0).getHeader("content-type"));
+    }
+
+    @Test
+    public void keepsBodiesInFilesOfDirectory() throws IOException {
+        ResponseCache cache = new ResponseCache(100, directory);
+        ProxyResponse response = response(10);
+        cache.put("a", response, NEVER);
+
+        assertEquals(1, files());
+        assertArrayEquals(response.getBody(), cache.get("a", 0).getBody());
+        assertEquals(10, cache.getBytes());
+    }
+
+    @Test
+    public void deletesFilesOfReplacedEvictedAndExpiredEntries() throws IOException {
+        ResponseCache cache = new ResponseCache(20, directory);
+        cache.put("a", response(10), NEVER);
+        cache.put("a", response(10), NEVER);
+        cache.put("b", response(10), 1000);
+        cache.put("c", response(10), NEVER);
+        assertEquals(2, files(), "a replaced and evicted");
+
+        cache.get("b", 1000);
+
+        assertEquals(1, files());
+        assertEquals(1, cache.getEntries());
+        assertEquals(10, cache.getBytes());
+    }
+
+    @Test
+    public void entryWithDeletedFileIsMiss() throws IOException {
+        ResponseCache cache = new ResponseCache(100, directory);
+        cache.put("a", response(10), NEVER);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+
+        assertNull(cache.get("a", 0));
+        assertEquals(0, cache.getEntries());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void deletesBodyFilesOfEarlierRun() throws IOException {
+        new ResponseCache(100, directory).put("a", response(10), NEVER);
+        Path other = Files.write(directory.resolve("notes.txt"), new byte[1]);
+
+        ResponseCache cache = new ResponseCache(100, directory);
+
+        assertEquals(1, files(), "only the file that is no body is kept");
+        assertTrue(Files.exists(other));
+        assertNull(cache.get("a", 0));
+    }
+
+    @Test
+    public void clearDeletesAllEntriesAndFiles() throws IOException {
+        ResponseCache cache = new ResponseCache(100, directory);
+        cache.put("a", response(10), NEVER);
+        cache.put("b", response(10), NEVER);
+
+        cache.clear();
+
+        assertEquals(0, files());
+        assertEquals(0, cache.getEntries());
+        assertEquals(0, cache.getBytes());
+        assertNull(cache.get("a", 0));
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static ProxyResponse response(int size) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) i;
+        }
+        return ProxyResponse.of(200, "application/javascript", body);
+    }
+}
@@ -0,0 +1,73 @@
+package io.nsingla.selenium.retry;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FailureClassifierTest {
+
+    @Test
+    public void infrastructureExceptionsAreInfrastructure() {
+        assertTrue(FailureClassifier.isInfrastructure(new UnreachableBrowserException("gone")));
+        assertTrue(FailureClassifier.isInfrastructure(new SessionNotCreatedException("no node")));
+        assertTrue(FailureClassifier.isInfrastructure(new ConnectException("Connection refused")));
+    }
+
+    @Test
+    public void crashMessagesAreInfrastructure() {
+        assertTrue(FailureClassifier.isInfrastructure(new WebDriverException("unknown error: session deleted because of page crash")));
+        assertTrue(FailureClassifier.isInfrastructure(new WebDriverException("Chrome not reachable")));
+    }
+
+    @Test
+    public void crashMessagesOfOtherExceptionsAreNotInfrastructure() {
+        assertFalse(FailureClassifier.isInfrastructure(new IllegalStateException("tab crashed")));
+    }
+
+    @Test
+    public void causesAreClassified() {
+        RuntimeException wrapped = new RuntimeException("start failed", new WebDriverException(new ConnectException("Connection refused")));
+
+        assertTrue(FailureClassifier.isInfrastructure(wrapped));
+    }
+
+    @Test
+    public void testFailuresAreNotInfrastructure() {
+        assertFalse(FailureClassifier.isInfrastructure(new NoSuchElementException("no such element: #submit")));
+        assertFalse(FailureClassifier.isInfrastructure(new WebDriverException("element click intercepted")));
+        assertFalse(FailureClassifier.isInfrastructure(new IllegalArgumentException()));
+    }
+
+    @Test
+    public void assertionErrorsTakePrecedence() {
+        assertFalse(FailureClassifier.isInfrastructure(new AssertionError("expected title", new SessionNotCreatedException("no node"))));
+        assertFalse(FailureClassifier.isInfrastructure(
+            new RuntimeException(new AssertionError("expected title", new ConnectException("Connection refused")))));
+    }
+
+    @Test
+    public void unsupportedCapabilitiesAreUnsatisfiable() {
+        SessionNotCreatedException noNode = new SessionNotCreatedException(
+            "Could not start a new session. No nodes support the capabilities in the request");
+
+        assertTrue(FailureClassifier.isUnsatisfiableCapabilities(noNode));
+        assertTrue(FailureClassifier.isUnsatisfiableCapabilities(new RuntimeException(noNode)));
+        assertFalse(FailureClassifier.isUnsatisfiableCapabilities(new SessionNotCreatedException("Connection refused")));
+    }
+
+    @Test
+    public void causeCyclesEnd() {
+        RuntimeException first = new RuntimeException("first");
+        RuntimeException second = new RuntimeException("second", first);
+        first.initCause(second);
+
+        assertFalse(FailureClassifier.isInfrastructure(first));
+    }
+}
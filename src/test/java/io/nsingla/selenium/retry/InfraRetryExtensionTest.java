@@ -0,0 +1,96 @@
+package io.nsingla.selenium.retry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+
+public class InfraRetryExtensionTest {
+
+    @BeforeEach
+    @AfterEach
+    public void reset() {
+        RetryStatistics.reset();
+    }
+
+    @Test
+    public void infrastructureFailureIsRetriedInParallelRuns() {
+        TestExecutionSummary summary = run("recoversOnSecondAttempt");
+
+        assertEquals(2, summary.getTestsStartedCount());
+        assertEquals(1, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsFailedCount());
+    }
+
+    @Test
+    public void assertionFailureIsNotRetried() {
+        TestExecutionSummary summary = run("failsAssertion");
+
+        assertEquals(1, summary.getTestsStartedCount());
+        assertEquals(1, summary.getTestsFailedCount());
+        assertEquals(0, summary.getTestsAbortedCount());
+    }
+
+    @Test
+    public void lastInfrastructureFailureFails() {
+        TestExecutionSummary summary = run("neverRecovers");
+
+        assertEquals(2, summary.getTestsStartedCount());
+        assertEquals(1, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsFailedCount());
+    }
+
+    private static TestExecutionSummary run(String method) {
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        // the configuration of parallel runs, in which the attempts were submitted concurrently
+        LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request()
+            .selectors(selectMethod(RetryingFixture.class, fixture(method)))
+            .configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+            .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+            .configurationParameter("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+            .build(), listener);
+        return listener.getSummary();
+    }
+
+    private static Method fixture(String name) {
+        return Arrays.stream(RetryingFixture.class.getDeclaredMethods())
+            .filter(method -> method.getName().equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    /**
+     * Only run by the launcher of the tests above, its name matches none of the test class patterns of surefire
+     */
+    static class RetryingFixture {
+
+        @InfraRetryingTest(retries = 1)
+        void recoversOnSecondAttempt(TestInfo testInfo) {
+            if (testInfo.getDisplayName().equals("attempt 1")) {
+                throw new UnreachableBrowserException("gone");
+            }
+        }
+
+        @InfraRetryingTest(retries = 1)
+        void failsAssertion() {
+            throw new AssertionError("expected title");
+        }
+
+        @InfraRetryingTest(retries = 1)
+        void neverRecovers() {
+            throw new UnreachableBrowserException("gone");
+        }
+    }
+}
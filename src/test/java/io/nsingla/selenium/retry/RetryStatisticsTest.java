@@ -0,0 +1,86 @@
+package io.nsingla.selenium.retry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RetryStatisticsTest {
+
+    private static final Throwable FAILURE = new UnreachableBrowserException("gone");
+
+    @BeforeEach
+    @AfterEach
+    public void reset() {
+        RetryStatistics.reset();
+    }
+
+    @Test
+    public void budgetIsSharedByTheRun() {
+        RetryStatistics.initBudget(2);
+
+        assertTrue(RetryStatistics.tryAcquire("a", FAILURE));
+        assertTrue(RetryStatistics.tryAcquire("b", FAILURE));
+        assertFalse(RetryStatistics.tryAcquire("a", FAILURE));
+    }
+
+    @Test
+    public void budgetIsInitializedOnce() {
+        RetryStatistics.initBudget(1);
+        RetryStatistics.initBudget(5);
+
+        assertTrue(RetryStatistics.tryAcquire("a", FAILURE));
+        assertFalse(RetryStatistics.tryAcquire("a", FAILURE));
+    }
+
+    @Test
+    public void budgetIsNotExceededByParallelTests() throws Exception {
+        RetryStatistics.initBudget(10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> retries = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String test = "test" + i;
+                retries.add(() -> RetryStatistics.tryAcquire(test, FAILURE));
+            }
+            int acquired = 0;
+            for (Future<Boolean> retry : executor.invokeAll(retries)) {
+                acquired += retry.get() ? 1 : 0;
+            }
+            assertEquals(10, acquired);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void reportCountsRetries(@TempDir Path dir) throws Exception {
+        RetryStatistics.initBudget(1);
+        RetryStatistics.tryAcquire("a", FAILURE);
+        RetryStatistics.tryAcquire("b", FAILURE);
+        RetryStatistics.recordRecovered();
+
+        Path report = dir.resolve("retries.md");
+        RetryStatistics.writeReport(report);
+
+        String content = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+        assertTrue(content.contains("| 1 | 1 | 0 | 1 | 0 |"), content);
+        assertTrue(content.contains("| UnreachableBrowserException | 1 |"), content);
+        assertTrue(content.contains("| a | 1 |"), content);
+    }
+}
@@ -0,0 +1,77 @@
+package io.nsingla.selenium.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardPlannerTest {
+
+    @Test
+    public void longestTestsAreSpreadFirst() {
+        Map<String, Long> durations = Map.of("a", 50L, "b", 40L, "c", 30L, "d", 20L, "e", 10L);
+
+        ShardPlanner planner = new ShardPlanner(durations.keySet(), durations, 2);
+
+        // a, then b, then c on b's shard, d and e on a's shard
+        assertEquals(planner.shardOf("a"), planner.shardOf("d"));
+        assertEquals(planner.shardOf("a"), planner.shardOf("e"));
+        assertEquals(planner.shardOf("b"), planner.shardOf("c"));
+        long[] estimated = planner.getEstimatedMillis();
+        Arrays.sort(estimated);
+        assertArrayEquals(new long[] {70, 80}, estimated);
+    }
+
+    @Test
+    public void shardsStayWithinLongestTestOfEachOther() {
+        Map<String, Long> durations = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            durations.put("test" + i, 1000L + (i * 7919L) % 5000);
+        }
+
+        long[] estimated = new ShardPlanner(durations.keySet(), durations, 4).getEstimatedMillis();
+
+        long longest = durations.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+        assertEquals(durations.values().stream().mapToLong(Long::longValue).sum(), Arrays.stream(estimated).sum());
+        assertTrue(Arrays.stream(estimated).max().orElseThrow() - Arrays.stream(estimated).min().orElseThrow() <= longest);
+    }
+
+    @Test
+    public void planOnlyDependsOnInput() {
+        List<String> units = List.of("d", "a", "c", "b", "e", "f");
+        Map<String, Long> durations = new HashMap<>();
+        units.forEach(unit -> durations.put(unit, 10L));
+        Map<String, Long> reordered = new LinkedHashMap<>();
+        for (int i = units.size() - 1; i >= 0; i--) {
+            reordered.put(units.get(i), 10L);
+        }
+
+        ShardPlanner planner = new ShardPlanner(units, durations, 3);
+        ShardPlanner other = new ShardPlanner(reordered.keySet(), reordered, 3);
+
+        for (String unit : units) {
+            assertEquals(planner.shardOf(unit), other.shardOf(unit), unit);
+        }
+        // equal durations are assigned by name
+        assertEquals(0, planner.shardOf("a"));
+        assertEquals(1, planner.shardOf("b"));
+        assertEquals(2, planner.shardOf("c"));
+    }
+
+    @Test
+    public void moreShardsThanTestsLeavesShardsEmpty() {
+        Map<String, Long> durations = Map.of("a", 10L);
+
+        ShardPlanner planner = new ShardPlanner(durations.keySet(), durations, 3);
+
+        assertEquals(0, planner.shardOf("a"));
+        assertArrayEquals(new long[] {10, 0, 0}, planner.getEstimatedMillis());
+    }
+}
@@ -0,0 +1,103 @@
+package io.nsingla.selenium.sharding;
+
+import io.nsingla.constants.SeleniumConstants;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ShardingFilterTest {
+
+    private static final UniqueId ENGINE = UniqueId.forEngine("junit-jupiter");
+
+    @Test
+    public void recordedDurationsAreKept() {
+        TestDescriptor test = test("LoginTest", "login");
+
+        Map<String, Long> durations = ShardingFilter.estimate(List.of(test), Map.of(id(test), 1200L));
+
+        assertEquals(1200L, durations.get(id(test)));
+    }
+
+    @Test
+    public void templateIsSumOfItsInvocations() {
+        TestDescriptor template = template("SearchTest", "search");
+
+        Map<String, Long> durations = ShardingFilter.estimate(List.of(template),
+            Map.of(id(template) + "/[test-template-invocation:#1]", 300L, id(template) + "/[test-template-invocation:#2]", 500L));
+
+        assertEquals(800L, durations.get(id(template)));
+    }
+
+    @Test
+    public void unknownTestIsEstimatedWithAverageOfItsClass() {
+        TestDescriptor first = test("LoginTest", "login");
+        TestDescriptor second = test("LoginTest", "logout");
+        TestDescriptor other = test("SearchTest", "search");
+        TestDescriptor unknown = test("LoginTest", "resetPassword");
+
+        Map<String, Long> durations = ShardingFilter.estimate(List.of(first, second, other, unknown),
+            Map.of(id(first), 1000L, id(second), 2001L, id(other), 9000L));
+
+        assertEquals(1501L, durations.get(id(unknown)));
+    }
+
+    @Test
+    public void unknownClassIsEstimatedWithMedianOfAllTests() {
+        TestDescriptor first = test("LoginTest", "login");
+        TestDescriptor second = test("SearchTest", "search");
+        TestDescriptor third = test("CartTest", "checkout");
+        TestDescriptor unknown = test("ProfileTest", "edit");
+
+        Map<String, Long> durations = ShardingFilter.estimate(List.of(first, second, third, unknown),
+            Map.of(id(first), 100L, id(second), 700L, id(third), 90000L));
+
+        assertEquals(700L, durations.get(id(unknown)));
+    }
+
+    @Test
+    public void withoutHistoryTestsGetDefault() {
+        TestDescriptor test = test("LoginTest", "login");
+        TestDescriptor template = template("SearchTest", "search");
+
+        Map<String, Long> durations = ShardingFilter.estimate(List.of(test, template), Map.of());
+
+        assertEquals(SeleniumConstants.SHARD_DEFAULT_MILLIS, durations.get(id(test)));
+        assertEquals(SeleniumConstants.SHARD_DEFAULT_MILLIS, durations.get(id(template)));
+    }
+
+    private static String id(TestDescriptor descriptor) {
+        return descriptor.getUniqueId().toString();
+    }
+
+    private static TestDescriptor test(String className, String method) {
+        return new Descriptor(className, method, TestDescriptor.Type.TEST);
+    }
+
+    private static TestDescriptor template(String className, String method) {
+        return new Descriptor(className, method, TestDescriptor.Type.CONTAINER);
+    }
+
+    private static class Descriptor extends AbstractTestDescriptor {
+
+        private final Type type;
+
+        private Descriptor(String className, String method, Type type) {
+            super(ENGINE.append("class", className).append(type == Type.TEST ? "method" : "test-template", method + "()"), method,
+                MethodSource.from(className, method));
+            this.type = type;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+    }
+}
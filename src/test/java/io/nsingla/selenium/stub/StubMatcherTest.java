@@ -0,0 +1,109 @@
+package io.nsingla.selenium.stub;
+
+import io.nsingla.selenium.proxy.ProxyRequest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StubMatcherTest {
+
+    private final StubMatcher matcher = matcher(Collections.emptyList(), true);
+
+    @Test
+    public void keyHasUpperCaseMethodAndUrl() {
+        assertEquals("GET http://app/api/users", matcher.key(request("get", "http://app/api/users", "")));
+    }
+
+    @Test
+    public void keySortsQueryParameters() {
+        assertEquals(matcher.key(request("GET", "http://app/api?b=2&a=1", "")),
+            matcher.key(request("GET", "http://app/api?a=1&b=2", "")));
+        assertEquals("http://app/api?a=1&a=2&b=2", matcher.normalizedUrl("http://app/api?b=2&a=2&a=1"));
+    }
+
+    @Test
+    public void keyLeavesOutIgnoredParametersAndFragment() {
+        assertEquals("http://app/api?a=1", matcher.normalizedUrl("http://app/api?_=1712&a=1#top"));
+        assertEquals("http://app/api", matcher.normalizedUrl("http://app/api?_=1712"));
+        assertEquals("http://app/api", matcher.normalizedUrl("http://app/api#top"));
+        assertEquals("http://app/api?flag", matcher.normalizedUrl("http://app/api?flag&&"));
+    }
+
+    @Test
+    public void keyHasBodyHashWhenMatchingBodies() {
+        String first = matcher.key(request("POST", "http://app/api/search", "{\"q\":\"a\"}"));
+        String second = matcher.key(request("POST", "http://app/api/search", "{\"q\":\"b\"}"));
+
+        assertNotEquals(first, second);
+        assertTrue(first.startsWith("POST http://app/api/search #"), first);
+        assertEquals("POST http://app/api/search", matcher.key(request("POST", "http://app/api/search", "")));
+    }
+
+    @Test
+    public void keyIgnoresBodyWhenNotMatchingBodies() {
+        StubMatcher ignoringBodies = matcher(Collections.emptyList(), false);
+
+        assertEquals(ignoringBodies.key(request("POST", "http://app/api/search", "{\"q\":\"a\"}")),
+            ignoringBodies.key(request("POST", "http://app/api/search", "{\"q\":\"b\"}")));
+    }
+
+    @Test
+    public void stubsUrlsMatchingPatterns() {
+        StubMatcher api = matcher(Collections.singletonList("*/api/*"), true);
+
+        assertTrue(api.isStubbed(request("GET", "http://app/api/users", "")));
+        assertFalse(api.isStubbed(request("GET", "http://app/static/app.js", "")));
+        assertTrue(matcher.isStubbed(request("GET", "http://app/static/app.js", "")), "no patterns stub all");
+    }
+
+    @Test
+    public void latencyOfFirstMatchingPattern() {
+        Map<String, Long> latencies = StubMatcher.parseLatencies("*/api/search*=300, */api/*=50");
+        StubMatcher delayed = new StubMatcher(Collections.emptyList(), new TreeSet<>(), true, latencies);
+
+        assertEquals(300, delayed.latencyMillis("http://app/api/search?q=a"));
+        assertEquals(50, delayed.latencyMillis("http://app/api/users"));
+        assertEquals(0, delayed.latencyMillis("http://app/index.html"));
+        assertThrows(IllegalArgumentException.class, () -> StubMatcher.parseLatencies("*/api/*"));
+    }
+
+    @Test
+    public void recognizesPatternsOfHttpsUrls() {
+        assertTrue(matcher.mayMatchHttps());
+        assertFalse(matcher.matchesOnlyHttps());
+
+        StubMatcher any = matcher(Collections.singletonList("*/api/*"), true);
+        assertTrue(any.mayMatchHttps());
+        assertFalse(any.matchesOnlyHttps());
+
+        StubMatcher http = matcher(Collections.singletonList("http://localhost:8080/api/*"), true);
+        assertFalse(http.mayMatchHttps());
+        assertFalse(http.matchesOnlyHttps());
+
+        StubMatcher https = matcher(Arrays.asList("https://app/api/*", "https://cdn/*"), true);
+        assertTrue(https.mayMatchHttps());
+        assertTrue(https.matchesOnlyHttps());
+        assertThrows(IllegalArgumentException.class, () -> StubInterceptor.checkHttps(https));
+    }
+
+    private static StubMatcher matcher(List<String> urlPatterns, boolean matchBody) {
+        return new StubMatcher(urlPatterns, new TreeSet<>(Collections.singleton("_")), matchBody, Collections.emptyMap());
+    }
+
+    private static ProxyRequest request(String method, String url, String body) {
+        return new ProxyRequest(method, url, new TreeMap<>(String.CASE_INSENSITIVE_ORDER), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
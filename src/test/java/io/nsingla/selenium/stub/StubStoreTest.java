@@ -0,0 +1,123 @@
+package io.nsingla.selenium.stub;
+
+import io.nsingla.selenium.proxy.ProxyResponse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StubStoreTest {
+
+    private static final String KEY = "GET http://app/api/job";
+
+    private final Object session = new Object();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void indexRoundTrip() throws IOException {
+        StubStore store = StubStore.load(directory);
+        ProxyResponse response = ProxyResponse.of(201, "application/json", bytes("{\"id\":1}"));
+        response.getHeaders().put("X-Request-Id", Arrays.asList("a", "b"));
+        store.record(session, KEY, response);
+        store.save();
+
+        StubStore loaded = StubStore.load(directory);
+
+        assertEquals(1, loaded.size());
+        ProxyResponse replayed = loaded.toResponse(loaded.get(KEY).get(0));
+        assertEquals(201, replayed.getStatus());
+        assertEquals("application/json", replayed.getHeader("content-type"));
+        assertEquals(Arrays.asList("a", "b"), replayed.getHeaders().get("X-Request-Id"));
+        assertEquals("{\"id\":1}", new String(replayed.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void storesEqualBodiesOnce() throws IOException {
+        StubStore store = StubStore.load(directory);
+        store.record(session, "GET http://app/api/a", json("{}"));
+        store.record(session, "GET http://app/api/b", json("{}"));
+        store.record(session, "GET http://app/api/c", json("[]"));
+
+        assertEquals(2, bodies());
+    }
+
+    @Test
+    public void keepsChangingAnswersInOrder() throws IOException {
+        StubStore store = StubStore.load(directory);
+        store.record(session, KEY, json("running"));
+        store.record(session, KEY, json("running"));
+        store.record(session, KEY, json("done"));
+
+        List<StubStore.RecordedResponse> responses = store.get(KEY);
+
+        assertEquals(2, responses.size(), "repeated answers are kept once");
+        assertEquals("running", body(store, responses.get(0)));
+        assertEquals("done", body(store, responses.get(1)));
+    }
+
+    @Test
+    public void firstAnswerOfRunReplacesEarlierRun() throws IOException {
+        StubStore earlier = StubStore.load(directory);
+        earlier.record(session, KEY, json("running"));
+        earlier.record(session, KEY, json("done"));
+        earlier.save();
+
+        StubStore store = StubStore.load(directory);
+        store.record(new Object(), KEY, json("failed"));
+
+        assertEquals(1, store.get(KEY).size());
+        assertEquals("failed", body(store, store.get(KEY).get(0)));
+        assertEquals(1, store.getRecordedInRun());
+    }
+
+    @Test
+    public void parallelSessionsDoNotInterleave() throws IOException {
+        StubStore store = StubStore.load(directory);
+        Object other = new Object();
+        store.record(session, KEY, json("running"));
+        store.record(other, KEY, json("done"));
+        store.record(session, KEY, json("running"));
+        store.record(session, KEY, json("failed"));
+
+        List<StubStore.RecordedResponse> responses = store.get(KEY);
+
+        assertEquals(2, responses.size());
+        assertEquals("running", body(store, responses.get(0)));
+        assertEquals("failed", body(store, responses.get(1)));
+    }
+
+    @Test
+    public void missingKeyHasNoResponses() throws IOException {
+        assertTrue(StubStore.load(directory).get(KEY).isEmpty());
+    }
+
+    private long bodies() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("bodies"))) {
+            return files.count();
+        }
+    }
+
+    private static String body(StubStore store, StubStore.RecordedResponse recorded) throws IOException {
+        return new String(store.toResponse(recorded).getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static ProxyResponse json(String body) {
+        return ProxyResponse.of(200, "application/json", bytes(body));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
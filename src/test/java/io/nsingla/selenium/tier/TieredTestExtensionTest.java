@@ -0,0 +1,118 @@
+package io.nsingla.selenium.tier;
+
+import io.nsingla.selenium.session.DriverConfigs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Browser;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+
+public class TieredTestExtensionTest {
+
+    private final List<String> runs = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void htmlUnitIncompatibilityRunsOnRealBrowserInParallelRuns() {
+        TestExecutionSummary summary = run(TieredFixture.class, "usesUnsupportedApi");
+
+        assertEquals(List.of(Browser.HTMLUNIT.browserName(), Browser.CHROME.browserName()), runs);
+        assertEquals(1, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsFailedCount());
+    }
+
+    @Test
+    public void failureOnRealBrowserFails() {
+        TestExecutionSummary summary = run(TieredFixture.class, "failsAssertion");
+
+        assertEquals(List.of(Browser.HTMLUNIT.browserName(), Browser.CHROME.browserName()), runs);
+        assertEquals(1, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsFailedCount());
+    }
+
+    @Test
+    public void htmlUnitIncompatibilityInSetupRunsOnRealBrowser() {
+        TestExecutionSummary summary = run(SetupFixture.class, "passes");
+
+        assertEquals(List.of(Browser.HTMLUNIT.browserName(), Browser.CHROME.browserName()), runs);
+        assertEquals(1, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+    }
+
+    @Test
+    public void recognizesHtmlUnitIncompatibilities() {
+        assertTrue(TieredTestExtension.isHtmlUnitIncompatibility(new UnsupportedOperationException("getScreenshotAs")));
+        assertTrue(TieredTestExtension.isHtmlUnitIncompatibility(new WebDriverException(
+            new com.gargoylesoftware.htmlunit.ScriptException(null, new RuntimeException("fetch is not defined")))));
+        assertFalse(TieredTestExtension.isHtmlUnitIncompatibility(new AssertionError("expected title")));
+        assertFalse(TieredTestExtension.isHtmlUnitIncompatibility(new WebDriverException("element not found")));
+    }
+
+    private TestExecutionSummary run(Class<?> fixture, String method) {
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        // the display name of a run is its browser
+        TestExecutionListener browsers = new TestExecutionListener() {
+            @Override
+            public void executionStarted(TestIdentifier testIdentifier) {
+                if (testIdentifier.isTest()) {
+                    runs.add(testIdentifier.getDisplayName());
+                }
+            }
+        };
+        // the configuration of parallel runs, in which the runs were submitted concurrently
+        LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request()
+            .selectors(selectMethod(fixture, method))
+            .configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+            .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+            .configurationParameter("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+            .build(), listener, browsers);
+        return listener.getSummary();
+    }
+
+    /**
+     * Only run by the launcher of the tests above, its name matches none of the test class patterns of surefire
+     */
+    static class TieredFixture {
+
+        @TieredTest
+        void usesUnsupportedApi() {
+            if (Browser.HTMLUNIT.equals(DriverConfigs.resolve(TieredFixture.class, Optional.empty()).getBrowser())) {
+                throw new UnsupportedOperationException("getScreenshotAs");
+            }
+        }
+
+        @TieredTest
+        void failsAssertion() {
+            throw new AssertionError("expected title");
+        }
+    }
+
+    static class SetupFixture {
+
+        @BeforeEach
+        void openPage() {
+            if (Browser.HTMLUNIT.equals(DriverConfigs.resolve(SetupFixture.class, Optional.empty()).getBrowser())) {
+                throw new UnsupportedOperationException("IntersectionObserver");
+            }
+        }
+
+        @TieredTest
+        void passes() {
+        }
+    }
+}
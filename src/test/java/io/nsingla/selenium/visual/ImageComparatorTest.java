@@ -0,0 +1,161 @@
+package io.nsingla.selenium.visual;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageComparatorTest {
+
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 800;
+
+    private final ImageComparator comparator = new ImageComparator(0.001, 16, 128);
+
+    @Test
+    public void identicalImagesMatch() {
+        ComparisonResult result = comparator.compare(image(), image(), Collections.emptyList());
+
+        assertTrue(result.isMatch());
+        assertEquals(0, result.getDifferentPixels());
+        assertEquals((long) WIDTH * HEIGHT, result.getComparedPixels());
+    }
+
+    @Test
+    public void differencesWithinChannelToleranceAreIgnored() {
+        // every channel 10 above the base color
+        BufferedImage actual = image();
+        fill(actual, new Rectangle(0, 0, WIDTH, HEIGHT), 0x3D70A3);
+
+        assertTrue(comparator.compare(image(), actual, Collections.emptyList()).isMatch());
+    }
+
+    @Test
+    public void differencesBelowThresholdMatch() {
+        BufferedImage actual = image();
+        // 0.001 of 800000 pixels allows 800
+        fill(actual, new Rectangle(10, 10, 20, 40), 0xFFFFFF);
+
+        ComparisonResult result = comparator.compare(image(), actual, Collections.emptyList());
+
+        assertTrue(result.isMatch());
+        assertEquals(800, result.getDifferentPixels());
+        assertFalse(result.isStoppedEarly());
+    }
+
+    @Test
+    public void comparisonStopsOnceThresholdIsExceeded() {
+        BufferedImage actual = image();
+        fill(actual, new Rectangle(0, 0, WIDTH, HEIGHT), 0xFFFFFF);
+
+        ComparisonResult result = comparator.compare(image(), actual, Collections.emptyList());
+
+        assertFalse(result.isMatch());
+        assertTrue(result.isStoppedEarly());
+        assertTrue(result.getDifferentPixels() > result.getAllowedDifferentPixels());
+        assertTrue(result.getDifferentPixels() < (long) WIDTH * HEIGHT, "all tiles were compared");
+    }
+
+    @Test
+    public void maskedDifferencesAreIgnored() {
+        BufferedImage actual = image();
+        fill(actual, new Rectangle(100, 100, 300, 200), 0xFFFFFF);
+        // overlapping masks, the overlap is only excluded once
+        List<Rectangle> masks = List.of(new Rectangle(100, 100, 200, 200), new Rectangle(200, 100, 200, 200));
+
+        ComparisonResult result = comparator.compare(image(), actual, masks);
+
+        assertTrue(result.isMatch());
+        assertEquals(0, result.getDifferentPixels());
+        assertEquals((long) WIDTH * HEIGHT - 300 * 200, result.getComparedPixels());
+    }
+
+    @Test
+    public void masksOutsideTheImageAreClipped() {
+        ComparisonResult result = comparator.compare(image(), image(), List.of(new Rectangle(WIDTH - 10, HEIGHT - 10, 100, 100)));
+
+        assertEquals((long) WIDTH * HEIGHT - 100, result.getComparedPixels());
+    }
+
+    @Test
+    public void differentSizesDoNotMatch() {
+        ComparisonResult result = comparator.compare(image(), new BufferedImage(WIDTH, HEIGHT + 1, BufferedImage.TYPE_INT_RGB),
+            Collections.emptyList());
+
+        assertTrue(result.isSizeMismatch());
+        assertFalse(result.isMatch());
+    }
+
+    @Test
+    public void otherImageTypesAreConverted() {
+        BufferedImage actual = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        actual.createGraphics().drawImage(image(), 0, 0, null);
+
+        assertTrue(comparator.compare(image(), actual, Collections.emptyList()).isMatch());
+    }
+
+    @Test
+    public void diffImageHighlightsDifferences() {
+        BufferedImage actual = image();
+        fill(actual, new Rectangle(5, 5, 1, 1), 0xFFFFFF);
+
+        BufferedImage diff = comparator.diffImage(image(), actual, Collections.emptyList());
+
+        assertEquals(0xFF0000, diff.getRGB(5, 5) & 0xFFFFFF);
+        assertTrue((diff.getRGB(6, 6) & 0xFFFFFF) != 0xFF0000);
+    }
+
+    @Test
+    public void maskedAreaCountsOverlapsOnce() {
+        // a cross of two bars, a box inside the cross and one next to it
+        List<Rectangle> masks = List.of(new Rectangle(0, 40, 100, 20), new Rectangle(40, 0, 20, 100),
+            new Rectangle(45, 45, 10, 10), new Rectangle(100, 40, 10, 20));
+
+        assertEquals(100 * 20 + 20 * 100 - 20 * 20 + 10 * 20, ImageComparator.maskedPixels(masks));
+    }
+
+    @Test
+    public void maskedAreaMatchesCountedPixels() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<Rectangle> masks = new ArrayList<>();
+            for (int i = random.nextInt(6) + 1; i > 0; i--) {
+                masks.add(new Rectangle(random.nextInt(50), random.nextInt(50), random.nextInt(30) + 1, random.nextInt(30) + 1));
+            }
+            long counted = 0;
+            for (int y = 0; y < 80; y++) {
+                for (int x = 0; x < 80; x++) {
+                    int px = x;
+                    int py = y;
+                    if (masks.stream().anyMatch(mask -> mask.contains(px, py))) {
+                        counted++;
+                    }
+                }
+            }
+
+            assertEquals(counted, ImageComparator.maskedPixels(masks), masks.toString());
+        }
+    }
+
+    private static BufferedImage image() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        fill(image, new Rectangle(0, 0, WIDTH, HEIGHT), 0x336699);
+        return image;
+    }
+
+    private static void fill(BufferedImage image, Rectangle area, int rgb) {
+        for (int y = area.y; y < area.y + area.height; y++) {
+            for (int x = area.x; x < area.x + area.width; x++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+    }
+}